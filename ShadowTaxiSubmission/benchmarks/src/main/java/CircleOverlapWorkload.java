@@ -0,0 +1,38 @@
+import benchmarks.Workload;
+
+/**
+ * Testing the taxi against a batch of cars spread over the road, with CircleOverlap.touchingScalar, the loop the game
+ * runs in TrafficSystem.collide when the Vector API is not there, so the SIMD version is measured against it.
+ * About one car in ten touches the taxi.
+ */
+public class CircleOverlapWorkload implements Workload {
+
+    private static final long SEED = 1;
+    protected static final float RADIUS = 50;
+
+    protected float[] xs;
+    protected float[] ys;
+    protected float[] radii;
+    protected int[] hits;
+    protected int count;
+
+    @Override
+    public void setUp(int size) {
+        GameRng rng = new GameRng(SEED);
+        count = size;
+        xs = new float[size];
+        ys = new float[size];
+        radii = new float[size];
+        hits = new int[size];
+        for (int i = 0; i < size; i++) {
+            xs[i] = rng.nextInt(300, 701);
+            ys[i] = rng.nextInt(0, 769);
+            radii[i] = RADIUS;
+        }
+    }
+
+    @Override
+    public double run() {
+        return CircleOverlap.touchingScalar(480, 384, RADIUS, xs, ys, radii, count, hits);
+    }
+}
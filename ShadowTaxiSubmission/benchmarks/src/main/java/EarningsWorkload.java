@@ -0,0 +1,34 @@
+import benchmarks.Workload;
+
+/**
+ * Reading the total earnings of a taxi that has completed a number of trips, recorded as each trip ended.
+ */
+public class EarningsWorkload implements Workload {
+
+    private static final long SEED = 1;
+
+    private EarningsLedger earnings;
+
+    @Override
+    public void setUp(int size) {
+        AssetCache.setHeadless(true);
+        GameConfig config = GameConfig.load("res/app.properties");
+        GameRng rng = new GameRng(SEED);
+        Camera camera = new Camera(config);
+        earnings = new EarningsLedger(config.getTrip());
+        Taxi taxi = new Taxi(500, 600, earnings, config, camera, rng);
+        for (int i = 0; i < size; i++) {
+            Passenger passenger = new Passenger(500, 600, 1 + rng.nextInt(3), 500, 100 + rng.nextInt(500),
+                    false, config, camera);
+            passenger.getTravelPlan().setStartY(600);
+            Trip trip = new Trip(passenger, taxi, config, camera);
+            taxi.setTrip(trip);
+            trip.end();
+        }
+    }
+
+    @Override
+    public double run() {
+        return earnings.getTotal();
+    }
+}
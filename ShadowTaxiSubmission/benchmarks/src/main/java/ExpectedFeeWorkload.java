@@ -0,0 +1,30 @@
+import benchmarks.Workload;
+
+/**
+ * Calculating the expected fee of a batch of travel plans, as the passengers and the trip info do every frame.
+ */
+public class ExpectedFeeWorkload implements Workload {
+
+    private static final long SEED = 1;
+
+    private TravelPlan[] plans;
+
+    @Override
+    public void setUp(int size) {
+        GameConfig config = GameConfig.load("res/app.properties");
+        GameRng rng = new GameRng(SEED);
+        plans = new TravelPlan[size];
+        for (int i = 0; i < size; i++) {
+            plans[i] = new TravelPlan(500, 100 + rng.nextInt(500), 1 + rng.nextInt(3), config.getTrip());
+        }
+    }
+
+    @Override
+    public double run() {
+        double total = 0;
+        for (TravelPlan plan : plans) {
+            total += plan.getExpectedFee();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,46 @@
+import benchmarks.Workload;
+
+import java.util.Properties;
+
+/**
+ * One headless game play tick, with the traffic held at a fixed number of cars. A quarter of the traffic is enemy
+ * cars. The session is seeded, so every run of the benchmark simulates the same game; when it ends a new one starts.
+ */
+public class GamePlayWorkload implements Workload {
+
+    private static final long SEED = 1;
+
+    private GameConfig config;
+    private Properties messageProps;
+    private int traffic;
+    private GamePlayScreen session;
+    private ScriptedInput input;
+
+    @Override
+    public void setUp(int size) {
+        AssetCache.setHeadless(true);
+        this.config = GameConfig.load("res/app.properties");
+        this.messageProps = IOUtils.readPropertiesFile("res/message_en.properties");
+        this.traffic = size;
+        startSession();
+    }
+
+    @Override
+    public double run() {
+        int missing = traffic - session.getCarCount() - session.getEnemyCarCount();
+        if (missing > 0) {
+            session.spawnTraffic(missing - missing / 4, missing / 4);
+        }
+
+        input.advance();
+        if (session.update(input)) {
+            startSession();
+        }
+        return session.getCurrFrame();
+    }
+
+    private void startSession() {
+        session = new GamePlayScreen(config, messageProps, "benchmark", SEED);
+        input = ScriptedInput.cruise(120, 60);
+    }
+}
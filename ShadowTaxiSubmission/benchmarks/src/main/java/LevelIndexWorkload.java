@@ -0,0 +1,10 @@
+/**
+ * Indexing a game objects file with a number of lines for the level streamer, sorting its objects by y-coordinate.
+ */
+public class LevelIndexWorkload extends ObjectsFileWorkload {
+
+    @Override
+    public double run() {
+        return LevelIndex.load(filename).size();
+    }
+}
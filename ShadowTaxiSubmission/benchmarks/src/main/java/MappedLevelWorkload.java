@@ -0,0 +1,31 @@
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Opening a level in the binary level format with a number of objects and seeking to the middle of it, the way the
+ * level streamer starts a level part of the way through.
+ */
+public class MappedLevelWorkload extends ObjectsFileWorkload {
+
+    private String levelFilename;
+
+    @Override
+    public void setUp(int size) {
+        super.setUp(size);
+        try {
+            File file = File.createTempFile("level", ".lvl");
+            file.deleteOnExit();
+            levelFilename = file.getPath();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        LevelIndex.load(filename).save(levelFilename);
+    }
+
+    @Override
+    public double run() {
+        LevelIndex level = LevelIndex.load(levelFilename);
+        int middle = level.indexOfY(level.getY(level.size() / 2));
+        return middle + level.getX(middle);
+    }
+}
@@ -0,0 +1,53 @@
+import benchmarks.Workload;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+
+/**
+ * Reading a game objects file with a number of lines, written in the format of res/gameObjects.csv.
+ */
+public class ObjectsFileWorkload implements Workload {
+
+    private static final long SEED = 1;
+
+    protected String filename;
+
+    @Override
+    public void setUp(int size) {
+        GameRng rng = new GameRng(SEED);
+        try {
+            File file = File.createTempFile("gameObjects", ".csv");
+            file.deleteOnExit();
+            try (PrintWriter out = new PrintWriter(file)) {
+                out.println("TAXI,500,600");
+                out.println("DRIVER,500,600");
+                for (int i = 2; i < size; i++) {
+                    int x = rng.nextBoolean() ? 280 : 700;
+                    int y = -rng.nextInt(100 * size);
+                    switch (i % 3) {
+                        case 0:
+                            out.println("PASSENGER," + x + "," + y + "," + (1 + rng.nextInt(3)) + "," + x + ","
+                                    + (100 + rng.nextInt(500)) + "," + rng.nextInt(2));
+                            break;
+                        case 1:
+                            out.println("COIN," + x + "," + y);
+                            break;
+                        default:
+                            out.println("INVINCIBLE_POWER," + x + "," + y);
+                    }
+                }
+            }
+            filename = file.getPath();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public double run() {
+        ArrayList<String[]> lines = IOUtils.readCommaSeperatedFile(filename);
+        return lines.size();
+    }
+}
@@ -0,0 +1,21 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * The same scores file as TopScoresWorkload, with one more score appended before every open, the way a game play
+ * ends: the open reads the new line and saves the index again. The file grows by a line every run, so the benchmark
+ * sets up a new one for every iteration.
+ */
+public class TopScoresAppendWorkload extends TopScoresWorkload {
+
+    @Override
+    public double run() {
+        try (Writer out = new FileWriter(filename, true)) {
+            out.write(Leaderboard.formatScore("player" + rng.nextInt(100), rng.nextInt(100000) / 100.0) + "\n");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return super.run();
+    }
+}
@@ -0,0 +1,45 @@
+import benchmarks.Workload;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Opening the leaderboard of a scores file with a number of lines, the way the game end screen does, from an index
+ * that already covers the whole file. The file is written once by setUp and never changes, so every run opens exactly
+ * the same leaderboard.
+ */
+public class TopScoresWorkload implements Workload {
+
+    private static final long SEED = 1;
+    protected static final int TOP_COUNT = 5;
+
+    protected String filename;
+    protected GameRng rng;
+
+    @Override
+    public void setUp(int size) {
+        rng = new GameRng(SEED);
+        try {
+            File file = File.createTempFile("scores", ".csv");
+            file.deleteOnExit();
+            new File(file.getPath() + ".idx").deleteOnExit();
+            new File(file.getPath() + ".best").deleteOnExit();
+            filename = file.getPath();
+            try (PrintWriter out = new PrintWriter(file)) {
+                for (int i = 0; i < size; i++) {
+                    out.print(Leaderboard.formatScore("player" + rng.nextInt(size), rng.nextInt(100000) / 100.0)
+                            + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        Leaderboard.open(filename, TOP_COUNT);
+    }
+
+    @Override
+    public double run() {
+        return Leaderboard.open(filename, TOP_COUNT).getTopScores()[0].getScore();
+    }
+}
@@ -0,0 +1,40 @@
+import benchmarks.Workload;
+
+import java.util.Properties;
+
+/**
+ * One pass of the collision loops between the taxi, the other cars and the enemy cars. The traffic is spawned and
+ * driven for a while first, so the cars are spread along the road instead of all sitting at the spawn points.
+ */
+public class TrafficCollisionWorkload implements Workload {
+
+    private static final long SEED = 1;
+    private static final int SPREAD_TICKS = 30;
+
+    private GamePlayScreen session;
+
+    @Override
+    public void setUp(int size) {
+        AssetCache.setHeadless(true);
+        GameConfig config = GameConfig.load("res/app.properties");
+        Properties messageProps = IOUtils.readPropertiesFile("res/message_en.properties");
+        session = new GamePlayScreen(config, messageProps, "benchmark", SEED);
+
+        // spawn the traffic a few cars per tick, so it enters the road at different times
+        ScriptedInput input = new ScriptedInput();
+        int enemyCars = size / 4;
+        int cars = size - enemyCars;
+        for (int i = 0; i < SPREAD_TICKS; i++) {
+            session.spawnTraffic(cars / SPREAD_TICKS + (i < cars % SPREAD_TICKS ? 1 : 0),
+                    enemyCars / SPREAD_TICKS + (i < enemyCars % SPREAD_TICKS ? 1 : 0));
+            input.advance();
+            session.update(input);
+        }
+    }
+
+    @Override
+    public double run() {
+        session.collideTraffic();
+        return session.getPairTestsSaved();
+    }
+}
@@ -0,0 +1,31 @@
+import benchmarks.Workload;
+
+/**
+ * One update of a fixed number of other cars, without the rest of the game play tick. The cars are not culled, so
+ * the amount of traffic stays the same however far they drive.
+ */
+public class TrafficUpdateWorkload implements Workload {
+
+    private static final long SEED = 1;
+
+    private EntityWorld world;
+    private MotionSystem motion;
+
+    @Override
+    public void setUp(int size) {
+        AssetCache.setHeadless(true);
+        GameConfig config = GameConfig.load("res/app.properties");
+        world = new EntityWorld();
+        motion = new MotionSystem(world);
+        TrafficSystem traffic = new TrafficSystem(world, motion, config, new GameRng(SEED), new GameRng(SEED + 1));
+        for (int i = 0; i < size; i++) {
+            traffic.spawn(GameObjectType.CAR);
+        }
+    }
+
+    @Override
+    public double run() {
+        motion.update();
+        return world.getY(0);
+    }
+}
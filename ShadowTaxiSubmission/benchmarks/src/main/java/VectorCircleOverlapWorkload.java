@@ -0,0 +1,24 @@
+import java.util.Arrays;
+
+/**
+ * The same batch as CircleOverlapWorkload, tested with the SIMD version of the batch test. Setting up checks that it
+ * finds the same hits as the scalar loop of the game, so the two are only compared on equal results.
+ */
+public class VectorCircleOverlapWorkload extends CircleOverlapWorkload {
+
+    @Override
+    public void setUp(int size) {
+        super.setUp(size);
+        int[] expected = new int[size];
+        int expectedCount = CircleOverlap.touchingScalar(480, 384, RADIUS, xs, ys, radii, count, expected);
+        int hitCount = VectorCircleOverlap.touching(480, 384, RADIUS, xs, ys, radii, count, hits);
+        if (hitCount != expectedCount || !Arrays.equals(hits, 0, hitCount, expected, 0, expectedCount)) {
+            throw new IllegalStateException("The SIMD batch test disagrees with CircleOverlap.touchingScalar");
+        }
+    }
+
+    @Override
+    public double run() {
+        return VectorCircleOverlap.touching(480, 384, RADIUS, xs, ys, radii, count, hits);
+    }
+}
@@ -0,0 +1,242 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the code run every frame, or every time a session starts or ends.
+ * All results are throughput in operations per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotPathBenchmarks {
+
+    /**
+     * One headless game play tick, with the traffic topped up to a fixed number of cars every tick.
+     */
+    @State(Scope.Thread)
+    public static class GamePlay {
+        @Param({"0", "20", "80"})
+        int traffic;
+        Workload workload;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            workload = Workloads.create("GamePlayWorkload", traffic);
+        }
+    }
+
+    /**
+     * One pass of the traffic collision responses, between the taxi, the other cars and the enemy cars, over a fixed
+     * amount of traffic.
+     */
+    @State(Scope.Thread)
+    public static class TrafficCollisions {
+        @Param({"20", "80", "320"})
+        int traffic;
+        Workload workload;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            workload = Workloads.create("TrafficCollisionWorkload", traffic);
+        }
+    }
+
+    /**
+     * One update of the positions and collision state of a fixed number of other cars.
+     */
+    @State(Scope.Thread)
+    public static class TrafficUpdate {
+        @Param({"1000", "50000"})
+        int traffic;
+        Workload workload;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            workload = Workloads.create("TrafficUpdateWorkload", traffic);
+        }
+    }
+
+    /**
+     * Testing the taxi against a batch of cars with the scalar batch test of the game, or with its SIMD version.
+     */
+    @State(Scope.Thread)
+    public static class CircleOverlaps {
+        @Param({"64", "4096"})
+        int cars;
+        @Param({"CircleOverlapWorkload", "VectorCircleOverlapWorkload"})
+        String kernel;
+        Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create(kernel, cars);
+        }
+    }
+
+    /**
+     * Reading the total earnings of a taxi once its trips have been recorded.
+     */
+    @State(Scope.Thread)
+    public static class Earnings {
+        @Param({"10", "1000"})
+        int trips;
+        Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create("EarningsWorkload", trips);
+        }
+    }
+
+    /**
+     * Calculating the expected fee of a batch of travel plans.
+     */
+    @State(Scope.Thread)
+    public static class ExpectedFee {
+        @Param({"100"})
+        int plans;
+        Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create("ExpectedFeeWorkload", plans);
+        }
+    }
+
+    /**
+     * Reading a game objects file.
+     */
+    @State(Scope.Thread)
+    public static class ObjectsFile {
+        @Param({"1000", "100000"})
+        int lines;
+        Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create("ObjectsFileWorkload", lines);
+        }
+    }
+
+    /**
+     * Indexing a game objects file for the level streamer.
+     */
+    @State(Scope.Thread)
+    public static class LevelFile {
+        @Param({"1000", "100000"})
+        int lines;
+        Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create("LevelIndexWorkload", lines);
+        }
+    }
+
+    /**
+     * Opening a level in the binary level format and seeking into it.
+     */
+    @State(Scope.Thread)
+    public static class MappedLevel {
+        @Param({"1000", "100000"})
+        int objects;
+        Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create("MappedLevelWorkload", objects);
+        }
+    }
+
+    /**
+     * Opening the leaderboard of a scores file its index already covers. The file never changes.
+     */
+    @State(Scope.Thread)
+    public static class TopScores {
+        @Param({"1000", "100000"})
+        int scores;
+        Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create("TopScoresWorkload", scores);
+        }
+    }
+
+    /**
+     * Appending a score to a scores file and opening its leaderboard. Every run adds a line, so the file is written
+     * again before every iteration.
+     */
+    @State(Scope.Thread)
+    public static class TopScoresAppend {
+        @Param({"1000", "100000"})
+        int scores;
+        Workload workload;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            workload = Workloads.create("TopScoresAppendWorkload", scores);
+        }
+    }
+
+    @Benchmark
+    public double gamePlayUpdate(GamePlay state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public double trafficCollisions(TrafficCollisions state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public double trafficUpdate(TrafficUpdate state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+    public double circleOverlap(CircleOverlaps state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public double calculateTotalEarnings(Earnings state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public double getExpectedFee(ExpectedFee state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public double readCommaSeperatedFile(ObjectsFile state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public double loadLevelIndex(LevelFile state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public double mapLevel(MappedLevel state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public double getTopScores(TopScores state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public double appendAndGetTopScores(TopScoresAppend state) {
+        return state.workload.run();
+    }
+}
@@ -0,0 +1,22 @@
+package benchmarks;
+
+/**
+ * A piece of game code to benchmark. The game lives in the unnamed package, which JMH benchmarks cannot be in and
+ * named packages cannot import, so each workload is a class in the unnamed package implementing this interface, and
+ * the benchmarks only ever see the interface.
+ */
+public interface Workload {
+
+    /**
+     * Build the state the workload runs against.
+     * @param size The size of the workload, e.g. the number of cars or the number of lines in a file.
+     */
+    void setUp(int size);
+
+    /**
+     * Run the workload once.
+     * @return A result of the run, to be consumed so the run is not optimised away. A primitive, so returning it
+     *         does not add to the allocation rate measured.
+     */
+    double run();
+}
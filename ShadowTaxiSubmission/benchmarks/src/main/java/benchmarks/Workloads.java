@@ -0,0 +1,23 @@
+package benchmarks;
+
+/**
+ * Creates the workloads, which are looked up by name since they live in the unnamed package.
+ */
+public class Workloads {
+
+    /**
+     * Create a workload and set it up.
+     * @param className The name of the workload class.
+     * @param size The size of the workload.
+     * @return The workload, ready to run.
+     */
+    public static Workload create(String className, int size) {
+        try {
+            Workload workload = (Workload) Class.forName(className).getDeclaredConstructor().newInstance();
+            workload.setUp(size);
+            return workload;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create workload " + className, e);
+        }
+    }
+}
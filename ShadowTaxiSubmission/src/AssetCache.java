@@ -0,0 +1,83 @@
+import bagel.Font;
+import bagel.Image;
+
+import java.util.HashMap;
+
+/**
+ * A cache of the images and fonts used by the game, keyed by resource path. Each asset is loaded once and the same
+ * handle is shared by every object that draws it, so spawning objects or drawing effects never decodes and uploads
+ * a texture again. Nothing is ever evicted: the game uses a small fixed set of assets, all preloaded before it starts
+ * and kept for its lifetime.
+ * In headless mode no asset is loaded at all and the handles draw nothing, so the game logic can run without a window.
+ */
+public class AssetCache {
+
+    private static final HashMap<String, Sprite> IMAGES = new HashMap<>();
+    private static final HashMap<String, HashMap<Integer, SpriteFont>> FONTS = new HashMap<>();
+
+    private static boolean isHeadless;
+    private static int nextImageId;
+
+    /**
+     * Switch headless mode on or off. Must be set before any asset is requested.
+     * @param headless true if there is no window and nothing should be loaded or drawn.
+     */
+    public static void setHeadless(boolean headless) {
+        isHeadless = headless;
+    }
+
+    public static boolean isHeadless() {
+        return isHeadless;
+    }
+
+    /**
+     * Load every image and font used by the game, so that nothing has to be loaded once the game is running.
+     * @param config The game configuration, which lists every image and every size the font is drawn in.
+     */
+    public static void preload(GameConfig config) {
+        for (String image : config.getImages()) {
+            getImage(image);
+        }
+        for (int fontSize : config.getFontSizes()) {
+            getFont(config.getFont(), fontSize);
+        }
+    }
+
+    /**
+     * Get the shared image for a resource path, loading it on first use.
+     * @param path The path of the image file.
+     * @return The shared image.
+     */
+    public static Sprite getImage(String path) {
+        Sprite image = IMAGES.get(path);
+        if (image == null) {
+            image = new Sprite(nextImageId++, path, isHeadless ? null : new Image(path));
+            IMAGES.put(path, image);
+        }
+        return image;
+    }
+
+    /**
+     * Get the shared font for a font file and size, loading it on first use.
+     * @param path The path of the font file.
+     * @param size The font size.
+     * @return The shared font.
+     */
+    public static SpriteFont getFont(String path, int size) {
+        HashMap<Integer, SpriteFont> sizes = FONTS.computeIfAbsent(path, key -> new HashMap<>());
+        SpriteFont font = sizes.get(size);
+        if (font == null) {
+            font = new SpriteFont(isHeadless ? null : new Font(path, size));
+            sizes.put(size, font);
+        }
+        return font;
+    }
+
+    /**
+     * Get the number of images currently held by the cache.
+     * @return The number of cached images.
+     */
+    public static int getImageCount() {
+        return IMAGES.size();
+    }
+}
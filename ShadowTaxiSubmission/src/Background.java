@@ -1,83 +1,64 @@
-import bagel.Image;
-import bagel.Input;
-import bagel.Keys;
-
-import java.util.Properties;
-
 /**
- * A class representing the background of the game play.
+ * A class representing the background of the game play. The background stays where it is in the level and the camera
+ * scrolls it, until it has scrolled off the bottom of the screen and is moved up above the other background.
  */
 public class Background {
 
     private final int WINDOW_HEIGHT;
-    private final Image IMAGE;
-    private final int SPEED_Y;
+    private Sprite image;
+    private final Camera CAMERA;
 
     private int x;
-    private int y;
-    private int moveY;
+    private long worldY;
+    private long previousWorldY;  // worldY at the previous tick, for interpolation
 
-    public Background(int x, int y, Properties props, String imageType) {
+    public Background(int x, long worldY, GameConfig config, Camera camera, String imagePath) {
 
         this.x = x;
-        this.y = y;
-        this.moveY = 0;
+        this.worldY = worldY;
+        this.previousWorldY = worldY;
+        this.CAMERA = camera;
 
-        String backgroundImagePath = props.getProperty(imageType);
-        if (backgroundImagePath == null) {
-            throw new IllegalArgumentException("Missing property for image type: " + imageType);
-        }
-
-        this.SPEED_Y = Integer.parseInt(props.getProperty("gameObjects.taxi.speedY"));
-        //this.IMAGE = new Image(props.getProperty("backgroundImage"));
-        this.IMAGE = new Image(backgroundImagePath);
-        this.WINDOW_HEIGHT = Integer.parseInt(props.getProperty("window.height"));
+        this.image = AssetCache.getImage(imagePath);
+        this.WINDOW_HEIGHT = config.getWindowHeight();
     }
 
     /**
-     * Move the background in y direction according to the keyboard input. And render the background image.
-     * @param input The current mouse/keyboard input.
+     * Move the background above the other background once it has scrolled off the bottom of the screen.
+     * @param background The other background.
      */
-    public void update(Input input, Background background) {
-        if(input != null) {
-            adjustToInputMovement(input);
-        }
-
-        move();
-        draw();
-
-        if (y >= WINDOW_HEIGHT * 1.5) {
-            y = background.getY() - WINDOW_HEIGHT;
+    public void update(Background background) {
+        previousWorldY = worldY;
+        if (getY() >= WINDOW_HEIGHT * 1.5) {
+            // move the previous position along with the wrap, so interpolation does not sweep across the screen
+            worldY = background.getWorldY() - WINDOW_HEIGHT;
+            previousWorldY = worldY;
         }
     }
 
     public int getY() {
-        return y;
+        return CAMERA.toScreenY(worldY);
     }
 
-    /**
-     * Move the GameObject object in the y-direction based on the speedY attribute.
-     */
-    public void move() {
-        this.y += SPEED_Y * moveY;
+    public long getWorldY() {
+        return worldY;
     }
 
     /**
-     * Draw the GameObject object into the screen.
+     * Change the image of the background, e.g. when the weather changes. The position is kept, so the scrolling
+     * carries on seamlessly.
+     * @param image The new image.
      */
-    public void draw() {
-        IMAGE.draw(x, y);
+    public void setImage(Sprite image) {
+        this.image = image;
     }
 
     /**
-     * Adjust the movement direction in y-axis of the GameObject based on the keyboard input.
-     * @param input The current mouse/keyboard input.
+     * Submit the background image to the render queue.
+     * @param queue The render queue of the frame.
+     * @param alpha The fraction of the next tick that has passed, to interpolate the scrolling with.
      */
-    public void adjustToInputMovement(Input input) {
-        if (input.wasPressed(Keys.UP)) {
-            moveY = 1;
-        }  else if(input.wasReleased(Keys.UP)) {
-            moveY = 0;
-        }
+    public void draw(RenderQueue queue, double alpha) {
+        image.submit(queue, x, CAMERA.toScreenY(previousWorldY, worldY, alpha), RenderLayer.BACKGROUND);
     }
 }
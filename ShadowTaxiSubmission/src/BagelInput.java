@@ -0,0 +1,34 @@
+import bagel.Input;
+import bagel.Keys;
+
+/**
+ * An InputSource backed by the keyboard input of the bagel window.
+ * The same instance is reused every frame by handing it the frame's input, so wrapping does not allocate.
+ */
+public class BagelInput implements InputSource {
+
+    private Input input;
+
+    /**
+     * Set the bagel input of the current frame.
+     * @param input The current mouse/keyboard input.
+     */
+    public void setInput(Input input) {
+        this.input = input;
+    }
+
+    @Override
+    public boolean isDown(Keys key) {
+        return input.isDown(key);
+    }
+
+    @Override
+    public boolean wasPressed(Keys key) {
+        return input.wasPressed(key);
+    }
+
+    @Override
+    public boolean wasReleased(Keys key) {
+        return input.wasReleased(key);
+    }
+}
@@ -0,0 +1,86 @@
+import bagel.Keys;
+
+/**
+ * The view of the level the screen shows. Passengers, coins, invincible powers, trip end flags, the background and
+ * parked taxis keep a fixed position in world coordinates, and the camera holds the one offset that turns a world
+ * y-coordinate into a screen y-coordinate. Scrolling the level moves the camera alone, so it costs the same however many
+ * objects the level has.
+ * World y-coordinates grow down the screen like screen coordinates, and are the y-coordinates of the level file: at the
+ * start of a level the two are the same. Driving up scrolls the level down the screen, so the offset only grows;
+ * it and every world y-coordinate are a long, so an endless session cannot overflow them.
+ */
+public class Camera {
+
+    private final int SPEED_Y;
+
+    private long scrollY;  // the distance the level has scrolled down the screen
+    private long previousScrollY;  // scrollY at the previous tick, for interpolation
+    private int moveY;
+
+    /**
+     * Constructs a camera at the start of a level.
+     * @param config The game configuration.
+     */
+    public Camera(GameConfig config) {
+        this.SPEED_Y = config.getTaxi().getSpeedY();
+    }
+
+    /**
+     * Scroll the level for one tick: it scrolls from the tick UP is pressed until the tick it is released.
+     * @param input The current mouse/keyboard input.
+     */
+    public void update(InputSource input) {
+        previousScrollY = scrollY;
+        if (input != null) {
+            if (input.wasPressed(Keys.UP)) {
+                moveY = 1;
+            } else if (input.wasReleased(Keys.UP)) {
+                moveY = 0;
+            }
+        }
+        scrollY += SPEED_Y * moveY;
+    }
+
+    /**
+     * Jump to a point of the level, with nothing to interpolate from.
+     * @param scrollY The distance the level has scrolled down the screen.
+     */
+    public void setScrollY(long scrollY) {
+        this.scrollY = scrollY;
+        this.previousScrollY = scrollY;
+    }
+
+    public long getScrollY() {
+        return scrollY;
+    }
+
+    /**
+     * Get the screen y-coordinate of a point of the world. Only meant for points near the screen, whose screen
+     * coordinate fits in an int.
+     * @param worldY The world y-coordinate.
+     * @return The screen y-coordinate.
+     */
+    public int toScreenY(long worldY) {
+        return (int) (worldY + scrollY);
+    }
+
+    /**
+     * Get the screen y-coordinate of a point of the world part of the way between the last two ticks, for drawing.
+     * @param previousWorldY The world y-coordinate at the previous tick.
+     * @param worldY The world y-coordinate at the last tick.
+     * @param alpha The fraction of the next tick that has passed.
+     * @return The interpolated screen y-coordinate.
+     */
+    public double toScreenY(long previousWorldY, long worldY, double alpha) {
+        return SimulationClock.interpolate(previousWorldY + previousScrollY, worldY + scrollY, alpha);
+    }
+
+    /**
+     * Get the point of the world currently shown at a screen y-coordinate.
+     * @param screenY The screen y-coordinate.
+     * @return The world y-coordinate.
+     */
+    public long toWorldY(int screenY) {
+        return screenY - scrollY;
+    }
+}
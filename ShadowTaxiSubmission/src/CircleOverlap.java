@@ -0,0 +1,86 @@
+/**
+ * Circle-overlap tests on squared distances, so no square root is taken: two circles touch when the squared distance
+ * between their centres is at most the square of the sum of their radii.
+ * The batch test checks one circle against many circles kept in parallel arrays, in one pass with no branch on the
+ * result, e.g. the taxi against every car. When the game runs with the jdk.incubator.vector module added, the batch
+ * test goes to VectorCircleOverlap, which tests as many circles at once as the CPU has float lanes; otherwise it runs
+ * the scalar loop. Both give the same hits in the same order.
+ */
+public class CircleOverlap {
+
+    // whether the module of the Vector API was added on the command line, so VectorCircleOverlap can be loaded
+    private static final boolean VECTOR_MODULE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * Check if two points are at most a distance apart.
+     * @param x1 The x-coordinate of the first point.
+     * @param y1 The y-coordinate of the first point.
+     * @param x2 The x-coordinate of the second point.
+     * @param y2 The y-coordinate of the second point.
+     * @param distance The distance.
+     * @return true if the points are at most the distance apart, false otherwise.
+     */
+    public static boolean isWithin(double x1, double y1, double x2, double y2, double distance) {
+        return distanceSquared(x1, y1, x2, y2) <= distance * distance;
+    }
+
+    /**
+     * Get the squared distance between two points.
+     * @param x1 The x-coordinate of the first point.
+     * @param y1 The y-coordinate of the first point.
+     * @param x2 The x-coordinate of the second point.
+     * @param y2 The y-coordinate of the second point.
+     * @return The squared distance.
+     */
+    public static double distanceSquared(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Find the circles of a batch that touch a circle.
+     * @param x The x-coordinate of the centre of the circle.
+     * @param y The y-coordinate of the centre of the circle.
+     * @param radius The radius of the circle.
+     * @param xs The x-coordinates of the centres of the batch.
+     * @param ys The y-coordinates of the centres of the batch.
+     * @param radii The radii of the batch.
+     * @param count The number of circles in the batch.
+     * @param hits Filled with the positions in the batch of the circles that touch, in order. Must hold count ints.
+     * @return The number of circles that touch.
+     */
+    public static int touching(float x, float y, float radius, float[] xs, float[] ys, float[] radii, int count,
+                               int[] hits) {
+        if (VECTOR_MODULE) {
+            return VectorCircleOverlap.touching(x, y, radius, xs, ys, radii, count, hits);
+        }
+        return touchingScalar(x, y, radius, xs, ys, radii, count, hits);
+    }
+
+    /**
+     * Find the circles of a batch that touch a circle, one circle at a time, without the Vector API.
+     * @param x The x-coordinate of the centre of the circle.
+     * @param y The y-coordinate of the centre of the circle.
+     * @param radius The radius of the circle.
+     * @param xs The x-coordinates of the centres of the batch.
+     * @param ys The y-coordinates of the centres of the batch.
+     * @param radii The radii of the batch.
+     * @param count The number of circles in the batch.
+     * @param hits Filled with the positions in the batch of the circles that touch, in order. Must hold count ints.
+     * @return The number of circles that touch.
+     */
+    public static int touchingScalar(float x, float y, float radius, float[] xs, float[] ys, float[] radii,
+                                     int count, int[] hits) {
+        int hitCount = 0;
+        for (int i = 0; i < count; i++) {
+            float dx = xs[i] - x;
+            float dy = ys[i] - y;
+            float reach = radii[i] + radius;
+            // always write the position, and only keep it if the circles touch
+            hits[hitCount] = i;
+            hitCount += dx * dx + dy * dy <= reach * reach ? 1 : 0;
+        }
+        return hitCount;
+    }
+}
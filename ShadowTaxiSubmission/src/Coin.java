@@ -1,34 +1,24 @@
-import bagel.Image;
-import bagel.Input;
-import bagel.Keys;
-
-import java.util.Properties;
-
 /**
  * Class representing coins in the game. Coins can be collected by either the player or the taxi.
  * It will set one level higher priority for the passengers that are waiting to get-in or already in the taxi.
+ * The coin itself is an entity of the world, see PowerUpSystem; this is a handle on it for the taxi that collected it.
+ * A coin whose entity has been removed has run out.
  */
-public class Coin{
+public class Coin {
+    private final EntityWorld WORLD;
+    private final long ENTITY;
     private final int MAX_FRAMES;
-    private final Image IMAGE;
-    private final int SPEED_Y;
-    private final float RADIUS;
-
-    private int x;
-    private int y;
-    private int moveY;
-    private boolean isCollided;
-    private int framesActive = 0;
 
-    public Coin(int x, int y, Properties props) {
-        this.x = x;
-        this.y = y;
-        this.moveY = 0;
-
-        this.SPEED_Y = Integer.parseInt(props.getProperty("gameObjects.taxi.speedY"));
-        this.RADIUS = Float.parseFloat(props.getProperty("gameObjects.coin.radius"));
-        this.IMAGE = new Image(props.getProperty("gameObjects.coin.image"));
-        this.MAX_FRAMES = Integer.parseInt(props.getProperty("gameObjects.coin.maxFrames"));
+    /**
+     * Constructs a handle on a coin.
+     * @param world The world the coin is in.
+     * @param entity The entity number of the coin.
+     * @param maxFrames The number of frames the effect of a coin lasts.
+     */
+    public Coin(EntityWorld world, long entity, int maxFrames) {
+        this.WORLD = world;
+        this.ENTITY = entity;
+        this.MAX_FRAMES = maxFrames;
     }
 
     /**
@@ -37,101 +27,34 @@ public class Coin{
      * @return The new priority of the passenger.
      */
     public Integer applyEffect(Integer priority) {
-        if (framesActive <= MAX_FRAMES && priority > 1) {
+        if (getFramesActive() <= MAX_FRAMES && priority > 1) {
             priority -= 1;
         }
 
         return priority;
     }
 
-    /**
-     * Move the object in y direction according to the keyboard input, and render the coin image, before collision
-     * happens with PowerCollectable objects. Once the collision happens, the coin active time will be increased.
-     * @param input The current mouse/keyboard input.
-     */
-    public void update(Input input) {
-        if(isCollided) {
-            framesActive++;
-        } else {
-            if(input != null) {
-                adjustToInputMovement(input);
-            }
-
-            move();
-            draw();
-        }
-    }
-
-    /**
-     * Move the GameObject object in the y-direction based on the speedY attribute.
-     */
-    public void move() {
-        this.y += SPEED_Y * moveY;
-    }
-
-    /**
-     * Draw the GameObject object into the screen.
-     */
-    public void draw() {
-        IMAGE.draw(x, y);
-    }
-
-    /**
-     * Adjust the movement direction in y-axis of the GameObject based on the keyboard input.
-     * @param input The current mouse/keyboard input.
-     */
-    public void adjustToInputMovement(Input input) {
-        if (input.wasPressed(Keys.UP)) {
-            moveY = 1;
-        }  else if(input.wasReleased(Keys.UP)) {
-            moveY = 0;
-        }
-    }
-
-    /**
-     * Check if the coin has collided with any PowerCollectable objects, and power will be collected by PowerCollectable
-     * object that is collided with.
-     */
-    public void collide(Taxi taxi) {
-        if(hasCollidedWith(taxi)) {
-            taxi.collectPower(this);
-            setIsCollided();
-        }
+    public boolean getIsActive() {
+        int framesActive = getFramesActive();
+        return isCollided() && framesActive <= MAX_FRAMES && framesActive > 0;
     }
 
-    /**
-     * Check if the object is collided with another object based on the radius of the two objects.
-     * @param taxi The taxi object to be checked.
-     * @return True if the two objects are collided, false otherwise.
-     */
-    public boolean hasCollidedWith(Taxi taxi) {
-        // if the distance between the two objects is less than the sum of their radius, they are collided
-        float collisionDistance = RADIUS + taxi.getRadius();
-        float currDistance = (float) Math.sqrt(Math.pow(x - taxi.getX(), 2) + Math.pow(y - taxi.getY(), 2));
-        return currDistance <= collisionDistance;
+    public boolean isCollided() {
+        int index = WORLD.indexOf(ENTITY);
+        return index < 0 || WORLD.hasFlag(index, EntityWorld.COLLECTED);
     }
 
-//    public boolean hasCollidedWith(Driver driver) {
-//        // if the distance between the two objects is less than the sum of their radius, they are collided
-//        float collisionDistance = RADIUS + driver.getRadius();
-//        float currDistance = (float) Math.sqrt(Math.pow(x - driver.getX(), 2) + Math.pow(y - driver.getY(), 2));
-//        return currDistance <= collisionDistance;
-//    }
-
     /**
-     * Mark the status of the object as collided when it's collided with another object.
-     * This will initiate the collision timeout.
+     * Check if the coin was collected and its effect has run out.
+     * @return true if the effect has run out, false otherwise.
      */
-    public void setIsCollided() {
-        this.isCollided = true;
-    }
-
-    public boolean getIsActive() {
-        return isCollided && framesActive <= MAX_FRAMES && framesActive > 0;
+    public boolean hasExpired() {
+        return isCollided() && getFramesActive() > MAX_FRAMES;
     }
 
     public int getFramesActive() {
-        return framesActive;
+        int index = WORLD.indexOf(ENTITY);
+        return index < 0 ? MAX_FRAMES + 1 : WORLD.getTimer(index);
     }
 
     public int getMaxFrames(){
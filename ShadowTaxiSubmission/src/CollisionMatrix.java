@@ -0,0 +1,76 @@
+/**
+ * The collision responses of the game, one routine per pair of object types, looked up by the ordinals of the two
+ * types instead of testing the type of each object. Registering a response for (A, B) also answers (B, A), with the
+ * arguments swapped, so a pair only needs to be resolved once, from whichever side finds it first.
+ * Each type also has a layer mask of the types it has a response with, so a pair that never interacts, like a coin
+ * and a car, is skipped before any distance is measured.
+ * The objects are passed to the responses as ints, e.g. their index in the EntityWorld.
+ */
+public class CollisionMatrix {
+
+    /**
+     * The response to a possible collision between two objects. It checks whether they touch and, if they do,
+     * applies the damage and knockback of the collision.
+     */
+    @FunctionalInterface
+    public interface Response {
+        /**
+         * Resolve a possible collision.
+         * @param a The first object, of the first type the response was registered for.
+         * @param b The second object, of the second type the response was registered for.
+         */
+        void resolve(int a, int b);
+    }
+
+    private static final int TYPE_COUNT = GameObjectType.values().length;
+
+    private final Response[] RESPONSES = new Response[TYPE_COUNT * TYPE_COUNT];
+    private final int[] LAYER_MASKS = new int[TYPE_COUNT];
+
+    /**
+     * Register the response to a collision between two types of object, replacing any registered before.
+     * @param typeA The type of the first object passed to the response.
+     * @param typeB The type of the second object passed to the response.
+     * @param response The response.
+     */
+    public void register(GameObjectType typeA, GameObjectType typeB, Response response) {
+        int a = typeA.ordinal();
+        int b = typeB.ordinal();
+        RESPONSES[a * TYPE_COUNT + b] = response;
+        if (a != b) {
+            RESPONSES[b * TYPE_COUNT + a] = (objectB, objectA) -> response.resolve(objectA, objectB);
+        }
+        LAYER_MASKS[a] |= 1 << b;
+        LAYER_MASKS[b] |= 1 << a;
+    }
+
+    /**
+     * Get the layer mask of a type: bit n is set if the type has a response with the type of ordinal n.
+     * @param type The ordinal of the type.
+     * @return The layer mask, 0 if the type collides with nothing.
+     */
+    public int getLayerMask(int type) {
+        return LAYER_MASKS[type];
+    }
+
+    /**
+     * Check if two types of object have a collision response.
+     * @param typeA The ordinal of the first type.
+     * @param typeB The ordinal of the second type.
+     * @return true if the two types interact, false otherwise.
+     */
+    public boolean canCollide(int typeA, int typeB) {
+        return (LAYER_MASKS[typeA] & (1 << typeB)) != 0;
+    }
+
+    /**
+     * Resolve a possible collision between two objects. Only call for types that can collide.
+     * @param typeA The ordinal of the type of the first object.
+     * @param a The first object.
+     * @param typeB The ordinal of the type of the second object.
+     * @param b The second object.
+     */
+    public void resolve(int typeA, int a, int typeB, int b) {
+        RESPONSES[typeA * TYPE_COUNT + typeB].resolve(a, b);
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * Component is an enum class that contains the parts an entity of the EntityWorld can be made of. Each component is
+ * a set of packed arrays in the world, and an entity has a component when its bit is set in its mask.
+ */
+public enum Component {
+    POSITION,   // x and y-coordinates, with the y-coordinate at the previous tick for interpolation
+    VELOCITY,   // the speed the entity drives up the screen at
+    SPRITE,     // the image drawn at the position, and the layer it is drawn in
+    COLLIDER,   // the radius of the circle the entity collides with
+    HEALTH,     // the health left before the entity is destroyed
+    TIMER,      // a frame count, e.g. the collision timeout of a car or how long a coin has been active
+    SCROLLED;   // the position is a point of the level, scrolled down the screen by the camera
+
+    /**
+     * Get the bit of the component in the mask of an entity.
+     * @return The bit.
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+}
@@ -1,7 +1,3 @@
-
-import java.util.Properties;
-import bagel.Image;
-import bagel.Input;
 import bagel.Keys;
 
 
@@ -13,8 +9,9 @@ import bagel.Keys;
 
 public class Driver {
 
-    private final Properties PROPS;
-    private final Image IMAGE;
+    private static final LogSite ENTER_TAXI_LOG = new LogSite("Driver.enterTaxi", 0);
+
+    private final Sprite IMAGE;
 
     private final float RADIUS;
     private final int WALK_SPEED_X;
@@ -34,51 +31,35 @@ public class Driver {
     private int collisionTimeout;
     private boolean isDead;
     private boolean isInvincible;
-    protected final Image bloodImage;
+    protected final Sprite bloodImage;
 
     /**
      * Constructs a Driver instance with specified initial position and properties.
      *
      * @param x     Initial x-coordinate of the driver.
      * @param y     Initial y-coordinate of the driver.
-     * @param props Properties to configure driver behavior and image.
+     * @param config The game configuration.
      */
 
-    public Driver(int x, int y, Properties props) {
-        this.PROPS = props;
-        this.IMAGE = new Image(props.getProperty("gameObjects.driver.image"));
-        // Parse properties with fallbacks
-        this.WALK_SPEED_X = parseIntProperty(props, "gameObjects.driver.walkSpeedX", 2);
-        this.WALK_SPEED_Y = parseIntProperty(props, "gameObjects.driver.walkSpeedY", 2);
-        this.RADIUS = parseFloatProperty(props, "gameObjects.driver.radius", 10.0f);
-        this.DRIVER_INTAXI_RADIUS = parseIntProperty(props, "gameObjects.driver.taxiGetInRadius", 10);
-        this.SPEED_Y = parseIntProperty(props, "gameObjects.taxi.speedY", 5);
-        this.health = parseIntProperty(props, "gameObjects.driver.health", 100);
+    public Driver(int x, int y, GameConfig config) {
+        GameConfig.DriverConfig driver = config.getDriver();
+        this.IMAGE = AssetCache.getImage(driver.getImage());
+        this.WALK_SPEED_X = driver.getWalkSpeedX();
+        this.WALK_SPEED_Y = driver.getWalkSpeedY();
+        this.RADIUS = driver.getRadius();
+        this.DRIVER_INTAXI_RADIUS = driver.getTaxiGetInRadius();
+        this.SPEED_Y = config.getTaxi().getSpeedY();
+        // the health is kept as a percentage, the property as a fraction of full health
+        this.health = Math.round(driver.getHealth() * 100);
 
         this.x = x;
         this.y = y;
         this.moveY = 0;
-        this.bloodImage = new Image(String.format(PROPS.getProperty("gameObjects.blood.image")));
+        this.bloodImage = AssetCache.getImage(config.getBloodImage());
         this.collisionTimeout = 0;
         this.isDead = false;
     }
 
-    private int parseIntProperty(Properties props, String key, int defaultValue) {
-        try {
-            return Integer.parseInt(props.getProperty(key, String.valueOf(defaultValue)));
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
-    }
-
-    private float parseFloatProperty(Properties props, String key, float defaultValue) {
-        try {
-            return Float.parseFloat(props.getProperty(key, String.valueOf(defaultValue)));
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
-    }
-
     /**
      * Retrieves the x-coordinate of the driver.
      *
@@ -181,7 +162,7 @@ public class Driver {
      * @param newTaxi The taxi instance the driver can interact with.
      */
 
-    public void updateWithTaxi(Input input, Taxi newTaxi) {
+    public void updateWithTaxi(InputSource input, Taxi newTaxi) {
 
         if (!inTaxi) { // Control driver movement only when outside the taxi
             if (input != null) {
@@ -191,19 +172,9 @@ public class Driver {
 
             // Check if close enough to enter the new taxi
             if (!newTaxi.isOriginalTaxi && calculateDistance(newTaxi) <= DRIVER_INTAXI_RADIUS) {
-                System.out.println("Within radius of new taxi, attempting to enter...");
-
                 enterTaxi(newTaxi);
                 //inTaxi = true;
                 //moveWithTaxi(newTaxi);
-            } else {
-                draw();  // Draw the driver if outside the taxi
-            }
-
-            // Game loss condition: Driver goes out of bounds at top of screen
-            if (y < 0) {
-                System.out.println("Game Over: Driver moved out of bounds.");
-
             }
         } else {
             //moveWithTaxi(taxi);
@@ -227,7 +198,7 @@ public class Driver {
      * @param input Input object containing key press information.
      */
 
-    private void adjustToInputMovement(Input input) {
+    private void adjustToInputMovement(InputSource input) {
         if (input.wasPressed(Keys.UP)) {
             moveY = 1;
         } else if (input.wasReleased(Keys.UP)) {
@@ -262,11 +233,15 @@ public class Driver {
     }
 
     /**
-     * Draws the driver's image at the current position.
+     * Submits the driver's image at the current position to the render queue, if the driver is outside the taxi.
+     *
+     * @param queue The render queue of the frame.
      */
 
-    public void draw() {
-        IMAGE.draw(x, y);
+    public void draw(RenderQueue queue) {
+        if (!inTaxi) {
+            IMAGE.submit(queue, x, y, RenderLayer.PEOPLE);
+        }
     }
 
     /**
@@ -286,9 +261,8 @@ public class Driver {
      */
 
     public void enterTaxi(Taxi newTaxi) {
-        //System.out.println("attempting to enter taxi");
         if (!inTaxi && calculateDistance(newTaxi) <= DRIVER_INTAXI_RADIUS) {
-            //System.out.println("Driver is now entering the taxi.");  // Debug log
+            GameLog.debug(ENTER_TAXI_LOG, "driver entered the taxi at (%.0f, %.0f)", x, y);
 
             inTaxi = true;
             inNewTaxi = true;
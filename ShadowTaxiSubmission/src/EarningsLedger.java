@@ -0,0 +1,158 @@
+import java.util.Arrays;
+
+/**
+ * The earnings of a game play session, one entry per completed trip. A trip is recorded when it ends, so the total is
+ * kept as a running sum and reading it costs the same however many trips have been made.
+ * The ledger belongs to the session rather than to a taxi: when the taxi is destroyed, the new taxi records into the
+ * same ledger, so nothing earned before is lost.
+ * Each entry keeps the breakdown of the fee: the distance and priority parts, the penalty for passing the drop-off
+ * point, and the priority the passenger started with, which differs from the priority charged if a coin was
+ * collected during the trip.
+ */
+public class EarningsLedger {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final LogSite TRIP_LOG = new LogSite("EarningsLedger.trip", 0);
+
+    private float[] fees = new float[INITIAL_CAPACITY];
+    private float[] penalties = new float[INITIAL_CAPACITY];
+    private float[] distanceFees = new float[INITIAL_CAPACITY];
+    private float[] priorityFees = new float[INITIAL_CAPACITY];
+    private int[] priorities = new int[INITIAL_CAPACITY];
+    private int[] initialPriorities = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private final GameConfig.TripConfig RATES;
+    private float total;
+    private float totalPenalties;
+    private int coinEffectCount;
+
+    /**
+     * Constructs an empty ledger.
+     * @param rates The fee rates of a trip, to split each fee into its parts.
+     */
+    public EarningsLedger(GameConfig.TripConfig rates) {
+        this.RATES = rates;
+    }
+
+    /**
+     * Record a trip that has just ended.
+     * @param trip The trip, with its fee calculated.
+     */
+    public void record(Trip trip) {
+        if (size == fees.length) {
+            grow();
+        }
+        TravelPlan plan = trip.getPassenger().getTravelPlan();
+        fees[size] = trip.getFee();
+        penalties[size] = trip.getPenalty();
+        distanceFees[size] = RATES.getRatePerY() * plan.getDistanceY();
+        priorityFees[size] = plan.getPriority() * RATES.getPriorityRate(plan.getPriority());
+        priorities[size] = plan.getPriority();
+        initialPriorities[size] = plan.getInitPriority();
+        size++;
+
+        total += trip.getFee();
+        totalPenalties += trip.getPenalty();
+        if (plan.getCoinPowerApplied()) {
+            coinEffectCount++;
+        }
+        GameLog.debug(TRIP_LOG, "trip ended, fee %.2f, total %.2f", trip.getFee(), total);
+    }
+
+    /**
+     * Get the total earnings of the session.
+     * @return The sum of the fees of every trip recorded.
+     */
+    public float getTotal() {
+        return total;
+    }
+
+    /**
+     * Get the total of the penalties taken off the fees.
+     * @return The sum of the penalties of every trip recorded.
+     */
+    public float getTotalPenalties() {
+        return totalPenalties;
+    }
+
+    /**
+     * Get the number of trips whose priority was raised by a coin.
+     * @return The number of trips.
+     */
+    public int getCoinEffectCount() {
+        return coinEffectCount;
+    }
+
+    /**
+     * Get the number of trips recorded.
+     * @return The number of trips, in the order they ended.
+     */
+    public int getTripCount() {
+        return size;
+    }
+
+    /**
+     * Get the fee charged for a trip, after the penalty.
+     * @param trip The index of the trip, in the order the trips ended.
+     * @return The fee.
+     */
+    public float getFee(int trip) {
+        return fees[trip];
+    }
+
+    /**
+     * Get the penalty taken off the fee of a trip.
+     * @param trip The index of the trip, in the order the trips ended.
+     * @return The penalty.
+     */
+    public float getPenalty(int trip) {
+        return penalties[trip];
+    }
+
+    /**
+     * Get the part of the fee of a trip charged for the distance travelled.
+     * @param trip The index of the trip, in the order the trips ended.
+     * @return The distance fee.
+     */
+    public float getDistanceFee(int trip) {
+        return distanceFees[trip];
+    }
+
+    /**
+     * Get the part of the fee of a trip charged for its priority.
+     * @param trip The index of the trip, in the order the trips ended.
+     * @return The priority fee.
+     */
+    public float getPriorityFee(int trip) {
+        return priorityFees[trip];
+    }
+
+    /**
+     * Get the priority a trip was charged at.
+     * @param trip The index of the trip, in the order the trips ended.
+     * @return The priority.
+     */
+    public int getPriority(int trip) {
+        return priorities[trip];
+    }
+
+    /**
+     * Get the priority the passenger of a trip started with.
+     * @param trip The index of the trip, in the order the trips ended.
+     * @return The initial priority.
+     */
+    public int getInitialPriority(int trip) {
+        return initialPriorities[trip];
+    }
+
+    private void grow() {
+        int capacity = fees.length * 2;
+        fees = Arrays.copyOf(fees, capacity);
+        penalties = Arrays.copyOf(penalties, capacity);
+        distanceFees = Arrays.copyOf(distanceFees, capacity);
+        priorityFees = Arrays.copyOf(priorityFees, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        initialPriorities = Arrays.copyOf(initialPriorities, capacity);
+    }
+}
@@ -0,0 +1,349 @@
+import java.util.Arrays;
+
+/**
+ * The entities of a game play session that are kept as plain data rather than objects: the traffic, the coins and
+ * the invincible powers. An entity is a number, and its state is split into components kept in packed parallel
+ * arrays, so the systems that move, collide and draw the entities walk the arrays from start to end instead of
+ * calling a method on each object and testing its type.
+ * The arrays are packed: the entities in play are always at the indices 0 to size - 1, in the order they were
+ * created. Entities are removed by marking them REMOVED and then compacting the world once, which moves every entity
+ * left down over the gaps in one pass, so an index is only good until the next compact. Keeping the order keeps the
+ * systems, and the random numbers they draw, walking the entities in the same order as the lists of objects the game
+ * used to keep. The entity number stays the same for as long as the entity lives, and indexOf finds its current
+ * index. An entity number is a long: the slot
+ * of the entity in its low 32 bits and the generation of the slot in its high 32 bits. A slot is reused once its
+ * entity is removed, with the next generation, so that a number kept past the life of its entity, like the coin the
+ * taxi collected last, is not taken for the entity that reuses the slot. A slot whose generation has run through all
+ * 32 bits is never reused, so an old number can never come round again.
+ */
+public class EntityWorld {
+
+    // flags of an entity, the state shared by the systems
+    public static final int DESTROYED = 1;
+    public static final int COLLECTED = 2;
+    public static final int REMOVED = 4;  // removed from the world by the next compact
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int SLOT_BITS = 32;
+    private static final long SLOT_MASK = (1L << SLOT_BITS) - 1;
+
+    // one entry per entity in play, by index
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private int[] masks = new int[INITIAL_CAPACITY];
+    private GameObjectType[] kinds = new GameObjectType[INITIAL_CAPACITY];
+    private int[] flags = new int[INITIAL_CAPACITY];
+    private int[] createdFrames = new int[INITIAL_CAPACITY];
+    private int[] x = new int[INITIAL_CAPACITY];
+    private long[] y = new long[INITIAL_CAPACITY];
+    private long[] previousY = new long[INITIAL_CAPACITY];
+    private int[] speedY = new int[INITIAL_CAPACITY];
+    private Sprite[] sprites = new Sprite[INITIAL_CAPACITY];
+    private RenderLayer[] layers = new RenderLayer[INITIAL_CAPACITY];
+    private int[] effectFrames = new int[INITIAL_CAPACITY];
+    private float[] radii = new float[INITIAL_CAPACITY];
+    private float[] health = new float[INITIAL_CAPACITY];
+    private int[] timers = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // the index of every entity number in use, by the slot in its low bits
+    private int[] indexOfSlot = new int[INITIAL_CAPACITY];
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeSlotCount;
+    private int slotCount;
+
+    private int currFrame;
+
+    /**
+     * Create an entity with no components.
+     * @param kind The kind of game object the entity is.
+     * @return The index of the entity, good until the next compact.
+     */
+    public int create(GameObjectType kind) {
+        int slot;
+        if (freeSlotCount > 0) {
+            slot = freeSlots[--freeSlotCount];
+        } else {
+            if (slotCount == indexOfSlot.length) {
+                indexOfSlot = Arrays.copyOf(indexOfSlot, slotCount * 2);
+                generations = Arrays.copyOf(generations, slotCount * 2);
+            }
+            slot = slotCount++;
+        }
+        if (size == slots.length) {
+            grow(size * 2);
+        }
+
+        int index = size++;
+        slots[index] = slot;
+        indexOfSlot[slot] = index;
+        masks[index] = 0;
+        kinds[index] = kind;
+        flags[index] = 0;
+        createdFrames[index] = currFrame;
+        effectFrames[index] = 0;
+        timers[index] = 0;
+        return index;
+    }
+
+    /**
+     * Remove every entity marked REMOVED, in one pass: the entities left are moved down over the gaps, keeping their
+     * order, and the slots of the removed ones are freed for reuse.
+     * @return The number of entities removed.
+     */
+    public int compact() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = slots[i];
+            if ((flags[i] & REMOVED) != 0) {
+                freeSlot(slot);
+                continue;
+            }
+            if (kept != i) {
+                move(i, kept);
+            }
+            indexOfSlot[slot] = kept;
+            kept++;
+        }
+        int removed = size - kept;
+        Arrays.fill(sprites, kept, size, null);
+        size = kept;
+        return removed;
+    }
+
+    private void freeSlot(int slot) {
+        indexOfSlot[slot] = -1;
+        // the generation counts up through all 32 bits; once it would wrap to 0 the slot is retired
+        if (++generations[slot] != 0) {
+            if (freeSlotCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+            }
+            freeSlots[freeSlotCount++] = slot;
+        }
+    }
+
+    /**
+     * Get the number of the entity at an index, which stays the same for as long as the entity lives.
+     * @param index The index of the entity.
+     * @return The entity number.
+     */
+    public long entityAt(int index) {
+        int slot = slots[index];
+        return ((long) generations[slot] << SLOT_BITS) | slot;
+    }
+
+    /**
+     * Find the current index of an entity.
+     * @param entity The entity number.
+     * @return The index of the entity, or -1 if it has been destroyed.
+     */
+    public int indexOf(long entity) {
+        long slot = entity & SLOT_MASK;
+        if (slot >= slotCount || generations[(int) slot] != (int) (entity >>> SLOT_BITS)) {
+            return -1;
+        }
+        return indexOfSlot[(int) slot];
+    }
+
+    /**
+     * Set the frame the entities created from now on are created in.
+     * @param currFrame The current frame.
+     */
+    public void setFrame(int currFrame) {
+        this.currFrame = currFrame;
+    }
+
+    public int getFrame() {
+        return currFrame;
+    }
+
+    /**
+     * Get the number of entities in play, which are at the indices below it.
+     * @return The number of entities.
+     */
+    public int size() {
+        return size;
+    }
+
+    public GameObjectType getKind(int index) {
+        return kinds[index];
+    }
+
+    public int getCreatedFrame(int index) {
+        return createdFrames[index];
+    }
+
+    /**
+     * Check if an entity has every component of a mask.
+     * @param index The index of the entity.
+     * @param mask The bits of the components.
+     * @return true if the entity has all of them, false otherwise.
+     */
+    public boolean has(int index, int mask) {
+        return (masks[index] & mask) == mask;
+    }
+
+    public void removeComponent(int index, Component component) {
+        masks[index] &= ~component.bit();
+    }
+
+    public boolean hasFlag(int index, int flag) {
+        return (flags[index] & flag) != 0;
+    }
+
+    public void setFlag(int index, int flag) {
+        flags[index] |= flag;
+    }
+
+    public void clearFlag(int index, int flag) {
+        flags[index] &= ~flag;
+    }
+
+    /**
+     * Give an entity a position, with nothing to interpolate from.
+     * @param index The index of the entity.
+     * @param x The x-coordinate.
+     * @param y The y-coordinate, on the screen, or in the level if the entity is scrolled.
+     * @param isScrolled true if the position is a point of the level the camera scrolls down the screen.
+     */
+    public void addPosition(int index, int x, long y, boolean isScrolled) {
+        masks[index] |= Component.POSITION.bit() | (isScrolled ? Component.SCROLLED.bit() : 0);
+        this.x[index] = x;
+        this.y[index] = y;
+        this.previousY[index] = y;
+    }
+
+    public void addVelocity(int index, int speedY) {
+        masks[index] |= Component.VELOCITY.bit();
+        this.speedY[index] = speedY;
+    }
+
+    public void addSprite(int index, Sprite sprite, RenderLayer layer) {
+        masks[index] |= Component.SPRITE.bit();
+        this.sprites[index] = sprite;
+        this.layers[index] = layer;
+    }
+
+    public void addCollider(int index, float radius) {
+        masks[index] |= Component.COLLIDER.bit();
+        this.radii[index] = radius;
+    }
+
+    public void addHealth(int index, float health) {
+        masks[index] |= Component.HEALTH.bit();
+        this.health[index] = health;
+    }
+
+    public void addTimer(int index, int frames) {
+        masks[index] |= Component.TIMER.bit();
+        this.timers[index] = frames;
+    }
+
+    public int getX(int index) {
+        return x[index];
+    }
+
+    public long getY(int index) {
+        return y[index];
+    }
+
+    public void setY(int index, long y) {
+        this.y[index] = y;
+    }
+
+    public long getPreviousY(int index) {
+        return previousY[index];
+    }
+
+    public void setPreviousY(int index, long previousY) {
+        this.previousY[index] = previousY;
+    }
+
+    public int getSpeedY(int index) {
+        return speedY[index];
+    }
+
+    public void setSpeedY(int index, int speedY) {
+        this.speedY[index] = speedY;
+    }
+
+    public Sprite getSprite(int index) {
+        return sprites[index];
+    }
+
+    public RenderLayer getLayer(int index) {
+        return layers[index];
+    }
+
+    /**
+     * Get the number of ticks an effect of the entity still shows for, e.g. the fire of a destroyed enemy car.
+     * @param index The index of the entity.
+     * @return The number of ticks, 0 if it shows no effect.
+     */
+    public int getEffectFrames(int index) {
+        return effectFrames[index];
+    }
+
+    public void setEffectFrames(int index, int frames) {
+        this.effectFrames[index] = frames;
+    }
+
+    public float getRadius(int index) {
+        return radii[index];
+    }
+
+    public float getHealth(int index) {
+        return health[index];
+    }
+
+    public void setHealth(int index, float health) {
+        this.health[index] = health;
+    }
+
+    public int getTimer(int index) {
+        return timers[index];
+    }
+
+    public void setTimer(int index, int frames) {
+        this.timers[index] = frames;
+    }
+
+    /**
+     * Copy the entity at one index over the entity at another.
+     */
+    private void move(int from, int to) {
+        slots[to] = slots[from];
+        masks[to] = masks[from];
+        kinds[to] = kinds[from];
+        flags[to] = flags[from];
+        createdFrames[to] = createdFrames[from];
+        x[to] = x[from];
+        y[to] = y[from];
+        previousY[to] = previousY[from];
+        speedY[to] = speedY[from];
+        sprites[to] = sprites[from];
+        layers[to] = layers[from];
+        effectFrames[to] = effectFrames[from];
+        radii[to] = radii[from];
+        health[to] = health[from];
+        timers[to] = timers[from];
+    }
+
+    private void grow(int capacity) {
+        slots = Arrays.copyOf(slots, capacity);
+        masks = Arrays.copyOf(masks, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        createdFrames = Arrays.copyOf(createdFrames, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        speedY = Arrays.copyOf(speedY, capacity);
+        sprites = Arrays.copyOf(sprites, capacity);
+        layers = Arrays.copyOf(layers, capacity);
+        effectFrames = Arrays.copyOf(effectFrames, capacity);
+        radii = Arrays.copyOf(radii, capacity);
+        health = Arrays.copyOf(health, capacity);
+        timers = Arrays.copyOf(timers, capacity);
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * FrameCounter is an enum class that contains the counts sampled by the FrameProfiler. The traffic is counted once per
+ * simulation tick, the rest once per rendered frame.
+ */
+public enum FrameCounter {
+    TICKS,              // simulation ticks run in the frame
+    CARS,
+    ENEMY_CARS,
+    LEVEL_OBJECTS,      // passengers, coins and invincible powers in play
+    DRAW_COMMANDS,
+    TEXTURE_SWITCHES
+}
@@ -0,0 +1,20 @@
+/**
+ * FramePhase is an enum class that contains the phases of a game play frame timed by the FrameProfiler.
+ * The phases from WEATHER to COINS make up one simulation tick, in the order GamePlayScreen.update runs them.
+ */
+public enum FramePhase {
+    WEATHER,
+    STREAMING,      // creating and dropping level objects as the level scrolls
+    BACKGROUND,
+    PASSENGERS,
+    TAXI,           // the taxi and the driver
+    POWER_UPS,
+    COLLISIONS,     // traffic against the taxi and against itself
+    SPAWNING,
+    TRAFFIC,
+    COINS,
+    TICK,           // a whole simulation tick
+    RENDER,         // submitting and flushing the sprites
+    HUD,
+    FRAME           // a whole rendered frame, with every tick run in it
+}
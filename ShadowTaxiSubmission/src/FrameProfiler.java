@@ -0,0 +1,209 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Times the phases of every game play frame and samples the entity counts, each into its own histogram, so a slow
+ * phase or a frame-time spike shows up in the percentiles instead of being averaged away.
+ * A phase is timed by taking a timestamp at its start and lapping it at its end; the lap returns the end time, so
+ * phases run back to back need one timestamp each. Timing a phase does not allocate.
+ * The histograms can be saved as CSV or JSON when the session ends, or shown over the game play as an overlay.
+ */
+public class FrameProfiler {
+
+    private static final FramePhase[] PHASES = FramePhase.values();
+    private static final FrameCounter[] COUNTERS = FrameCounter.values();
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    // the overlay text is formatted again twice a second at 60 frames per second, not every frame
+    private static final int OVERLAY_REFRESH_FRAMES = 30;
+    private static final LogSite SAVE_LOG = new LogSite("FrameProfiler.save", 0);
+
+    private final LatencyHistogram[] PHASE_TIMES = new LatencyHistogram[PHASES.length];
+    private final LatencyHistogram[] COUNTS = new LatencyHistogram[COUNTERS.length];
+    private final String[] OVERLAY_LINES = new String[PHASES.length + COUNTERS.length];
+    private int framesSinceOverlay = OVERLAY_REFRESH_FRAMES;
+
+    /**
+     * Constructs a profiler with empty histograms.
+     */
+    public FrameProfiler() {
+        for (int i = 0; i < PHASE_TIMES.length; i++) {
+            PHASE_TIMES[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < COUNTS.length; i++) {
+            COUNTS[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Take the timestamp a phase starts at.
+     * @return The current time in nanoseconds.
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Record the time a phase took and take the timestamp the next phase starts at.
+     * @param phase The phase that ended.
+     * @param start The timestamp the phase started at.
+     * @return The current time in nanoseconds.
+     */
+    public long lap(FramePhase phase, long start) {
+        long now = System.nanoTime();
+        PHASE_TIMES[phase.ordinal()].record(now - start);
+        return now;
+    }
+
+    /**
+     * Record a sample of a count.
+     * @param counter The count sampled.
+     * @param value The value of the count.
+     */
+    public void count(FrameCounter counter, long value) {
+        COUNTS[counter.ordinal()].record(value);
+    }
+
+    public LatencyHistogram getPhaseTimes(FramePhase phase) {
+        return PHASE_TIMES[phase.ordinal()];
+    }
+
+    public LatencyHistogram getCounts(FrameCounter counter) {
+        return COUNTS[counter.ordinal()];
+    }
+
+    /**
+     * Add every time and count recorded by another profiler to this one, e.g. to report several sessions together.
+     * @param other The profiler to add.
+     */
+    public void merge(FrameProfiler other) {
+        for (int i = 0; i < PHASE_TIMES.length; i++) {
+            PHASE_TIMES[i].add(other.PHASE_TIMES[i]);
+        }
+        for (int i = 0; i < COUNTS.length; i++) {
+            COUNTS[i].add(other.COUNTS[i]);
+        }
+    }
+
+    /**
+     * Forget every recorded time and count.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : PHASE_TIMES) {
+            histogram.reset();
+        }
+        for (LatencyHistogram histogram : COUNTS) {
+            histogram.reset();
+        }
+        framesSinceOverlay = OVERLAY_REFRESH_FRAMES;
+    }
+
+    /**
+     * Draw the median, 99th percentile and maximum of every phase time and count, one per line.
+     * @param font The font to draw the text in.
+     * @param x The x-coordinate of the text.
+     * @param y The y-coordinate of the first line.
+     * @param lineHeight The distance between lines.
+     */
+    public void drawOverlay(SpriteFont font, double x, double y, double lineHeight) {
+        if (++framesSinceOverlay >= OVERLAY_REFRESH_FRAMES) {
+            framesSinceOverlay = 0;
+            for (int i = 0; i < PHASES.length; i++) {
+                LatencyHistogram times = PHASE_TIMES[i];
+                OVERLAY_LINES[i] = String.format(Locale.ROOT, "%-11s %7.3f %7.3f %7.3f ms", PHASES[i],
+                        times.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                        times.getValueAtPercentile(99) / NANOS_PER_MILLI, times.getMax() / NANOS_PER_MILLI);
+            }
+            for (int i = 0; i < COUNTERS.length; i++) {
+                LatencyHistogram counts = COUNTS[i];
+                OVERLAY_LINES[PHASES.length + i] = String.format(Locale.ROOT, "%-11s %7d %7d %7d", COUNTERS[i],
+                        counts.getValueAtPercentile(50), counts.getValueAtPercentile(99), counts.getMax());
+            }
+        }
+        for (int i = 0; i < OVERLAY_LINES.length; i++) {
+            font.drawString(OVERLAY_LINES[i], x, y + i * lineHeight);
+        }
+    }
+
+    /**
+     * Save the histograms to a file, as JSON if the file name ends in .json and as CSV otherwise. Phase times are in
+     * nanoseconds.
+     * @param filename The name of the file.
+     */
+    public void save(String filename) {
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(filename)))) {
+            if (filename.endsWith(".json")) {
+                writeJson(out);
+            } else {
+                writeCsv(out);
+            }
+        } catch (IOException e) {
+            GameLog.error(SAVE_LOG, "could not save the frame metrics to " + filename, e);
+        }
+    }
+
+    /**
+     * Write the histograms as CSV, one metric per line.
+     * @param out The writer to write to.
+     */
+    public void writeCsv(PrintWriter out) {
+        out.print("metric,unit,count,min,mean");
+        for (double percentile : PERCENTILES) {
+            out.print(",p" + formatPercentile(percentile));
+        }
+        out.println(",max");
+        for (int i = 0; i < PHASES.length; i++) {
+            writeCsvLine(out, PHASES[i].name(), "ns", PHASE_TIMES[i]);
+        }
+        for (int i = 0; i < COUNTERS.length; i++) {
+            writeCsvLine(out, COUNTERS[i].name(), "count", COUNTS[i]);
+        }
+    }
+
+    /**
+     * Write the histograms as a JSON object with a phases and a counters object, keyed by metric name.
+     * @param out The writer to write to.
+     */
+    public void writeJson(PrintWriter out) {
+        out.println("{");
+        out.println("  \"unit\": \"ns\",");
+        out.println("  \"phases\": {");
+        for (int i = 0; i < PHASES.length; i++) {
+            writeJsonEntry(out, PHASES[i].name(), PHASE_TIMES[i], i == PHASES.length - 1);
+        }
+        out.println("  },");
+        out.println("  \"counters\": {");
+        for (int i = 0; i < COUNTERS.length; i++) {
+            writeJsonEntry(out, COUNTERS[i].name(), COUNTS[i], i == COUNTERS.length - 1);
+        }
+        out.println("  }");
+        out.println("}");
+    }
+
+    private static void writeCsvLine(PrintWriter out, String name, String unit, LatencyHistogram histogram) {
+        out.print(name + "," + unit + "," + histogram.getCount() + "," + histogram.getMin() + ","
+                + String.format(Locale.ROOT, "%.1f", histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            out.print("," + histogram.getValueAtPercentile(percentile));
+        }
+        out.println("," + histogram.getMax());
+    }
+
+    private static void writeJsonEntry(PrintWriter out, String name, LatencyHistogram histogram, boolean isLast) {
+        out.print("    \"" + name + "\": {\"count\": " + histogram.getCount() + ", \"min\": " + histogram.getMin()
+                + ", \"mean\": " + String.format(Locale.ROOT, "%.1f", histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            out.print(", \"p" + formatPercentile(percentile) + "\": " + histogram.getValueAtPercentile(percentile));
+        }
+        out.println(", \"max\": " + histogram.getMax() + (isLast ? "}" : "},"));
+    }
+
+    // 50 -> "50", 99.9 -> "999"
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.floor(percentile)
+                ? Integer.toString((int) percentile) : Double.toString(percentile).replace(".", "");
+    }
+}
@@ -0,0 +1,977 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * The game properties, read and checked once when the game starts. Every value is parsed into a typed field up front,
+ * so nothing looks up or parses a property while the game is running.
+ * The configuration is split into one section per screen and per kind of game object, following the prefixes of the
+ * keys in app.properties. Every missing or malformed property is reported together when the configuration is built,
+ * instead of one at a time when the code reading it first runs.
+ */
+public class GameConfig {
+
+    private final int WINDOW_WIDTH;
+    private final int WINDOW_HEIGHT;
+    private final String FONT;
+    private final LogLevel LOG_LEVEL;
+    private final String LOG_FILE;
+    private final String SMOKE_IMAGE;
+    private final String FIRE_IMAGE;
+    private final String BLOOD_IMAGE;
+
+    private final HomeConfig HOME;
+    private final PlayerInfoConfig PLAYER_INFO;
+    private final GamePlayConfig GAME_PLAY;
+    private final GameEndConfig GAME_END;
+    private final TripConfig TRIP;
+    private final TaxiConfig TAXI;
+    private final CarConfig OTHER_CAR;
+    private final CarConfig ENEMY_CAR;
+    private final PassengerConfig PASSENGER;
+    private final DriverConfig DRIVER;
+    private final PowerUpConfig COIN;
+    private final PowerUpConfig INVINCIBLE_POWER;
+    private final TripEndFlagConfig TRIP_END_FLAG;
+
+    private final List<String> IMAGES;
+    private final List<Integer> FONT_SIZES;
+
+    /**
+     * Build the configuration from the game properties.
+     * @param props The game properties.
+     * @throws IllegalArgumentException If a property is missing or has a value of the wrong type or range; the
+     *                                  message lists every such property.
+     */
+    public GameConfig(Properties props) {
+        Reader reader = new Reader(props);
+        this.WINDOW_WIDTH = reader.positiveInt("window.width");
+        this.WINDOW_HEIGHT = reader.positiveInt("window.height");
+        this.FONT = reader.string("font");
+        this.LOG_LEVEL = reader.logLevel("log.level");
+        this.LOG_FILE = reader.optionalString("log.file");
+        this.SMOKE_IMAGE = reader.image("gameObjects.smoke.image");
+        this.FIRE_IMAGE = reader.image("gameObjects.fire.image");
+        this.BLOOD_IMAGE = reader.image("gameObjects.blood.image");
+
+        this.HOME = new HomeConfig(reader);
+        this.PLAYER_INFO = new PlayerInfoConfig(reader);
+        this.GAME_PLAY = new GamePlayConfig(reader);
+        this.GAME_END = new GameEndConfig(reader);
+        this.TRIP = new TripConfig(reader);
+        this.TAXI = new TaxiConfig(reader);
+        this.OTHER_CAR = CarConfig.otherCar(reader);
+        this.ENEMY_CAR = CarConfig.enemyCar(reader);
+        this.PASSENGER = new PassengerConfig(reader);
+        this.DRIVER = new DriverConfig(reader);
+        this.COIN = new PowerUpConfig(reader, "gameObjects.coin");
+        this.INVINCIBLE_POWER = new PowerUpConfig(reader, "gameObjects.invinciblePower");
+        this.TRIP_END_FLAG = new TripEndFlagConfig(reader);
+
+        reader.failOnErrors();
+        this.IMAGES = Collections.unmodifiableList(new ArrayList<>(reader.IMAGES));
+        this.FONT_SIZES = Collections.unmodifiableList(new ArrayList<>(reader.FONT_SIZES));
+    }
+
+    /**
+     * Read and check a game properties file.
+     * @param filename The name of the properties file.
+     * @return The configuration.
+     */
+    public static GameConfig load(String filename) {
+        return new GameConfig(IOUtils.readPropertiesFile(filename));
+    }
+
+    public int getWindowWidth() {
+        return WINDOW_WIDTH;
+    }
+
+    public int getWindowHeight() {
+        return WINDOW_HEIGHT;
+    }
+
+    public String getFont() {
+        return FONT;
+    }
+
+    public LogLevel getLogLevel() {
+        return LOG_LEVEL;
+    }
+
+    /**
+     * Get the file the log is written to.
+     * @return The name of the log file, or null to write the log to the console.
+     */
+    public String getLogFile() {
+        return LOG_FILE;
+    }
+
+    public String getSmokeImage() {
+        return SMOKE_IMAGE;
+    }
+
+    public String getFireImage() {
+        return FIRE_IMAGE;
+    }
+
+    public String getBloodImage() {
+        return BLOOD_IMAGE;
+    }
+
+    public HomeConfig getHome() {
+        return HOME;
+    }
+
+    public PlayerInfoConfig getPlayerInfo() {
+        return PLAYER_INFO;
+    }
+
+    public GamePlayConfig getGamePlay() {
+        return GAME_PLAY;
+    }
+
+    public GameEndConfig getGameEnd() {
+        return GAME_END;
+    }
+
+    public TripConfig getTrip() {
+        return TRIP;
+    }
+
+    public TaxiConfig getTaxi() {
+        return TAXI;
+    }
+
+    public CarConfig getOtherCar() {
+        return OTHER_CAR;
+    }
+
+    public CarConfig getEnemyCar() {
+        return ENEMY_CAR;
+    }
+
+    public PassengerConfig getPassenger() {
+        return PASSENGER;
+    }
+
+    public DriverConfig getDriver() {
+        return DRIVER;
+    }
+
+    public PowerUpConfig getCoin() {
+        return COIN;
+    }
+
+    public PowerUpConfig getInvinciblePower() {
+        return INVINCIBLE_POWER;
+    }
+
+    public TripEndFlagConfig getTripEndFlag() {
+        return TRIP_END_FLAG;
+    }
+
+    /**
+     * Get every image the game uses, so they can be loaded before the game starts.
+     * @return The paths of the images.
+     */
+    public List<String> getImages() {
+        return IMAGES;
+    }
+
+    /**
+     * Get every size the font is drawn in, so each can be loaded before the game starts.
+     * @return The font sizes.
+     */
+    public List<Integer> getFontSizes() {
+        return FONT_SIZES;
+    }
+
+    /**
+     * The home screen, read from the home.* properties.
+     */
+    public static class HomeConfig {
+
+        private final String BACKGROUND_IMAGE;
+        private final int TITLE_FONT_SIZE;
+        private final int TITLE_Y;
+        private final int INSTRUCTION_FONT_SIZE;
+        private final int INSTRUCTION_Y;
+
+        private HomeConfig(Reader reader) {
+            this.BACKGROUND_IMAGE = reader.image("backgroundImage.home");
+            this.TITLE_FONT_SIZE = reader.fontSize("home.title.fontSize");
+            this.TITLE_Y = reader.integer("home.title.y");
+            this.INSTRUCTION_FONT_SIZE = reader.fontSize("home.instruction.fontSize");
+            this.INSTRUCTION_Y = reader.integer("home.instruction.y");
+        }
+
+        public String getBackgroundImage() {
+            return BACKGROUND_IMAGE;
+        }
+
+        public int getTitleFontSize() {
+            return TITLE_FONT_SIZE;
+        }
+
+        public int getTitleY() {
+            return TITLE_Y;
+        }
+
+        public int getInstructionFontSize() {
+            return INSTRUCTION_FONT_SIZE;
+        }
+
+        public int getInstructionY() {
+            return INSTRUCTION_Y;
+        }
+    }
+
+    /**
+     * The player information screen, read from the playerInfo.* properties.
+     */
+    public static class PlayerInfoConfig {
+
+        private final String BACKGROUND_IMAGE;
+        private final int FONT_SIZE;
+        private final int PLAYER_NAME_Y;
+        private final int PLAYER_NAME_INPUT_Y;
+        private final int START_Y;
+
+        private PlayerInfoConfig(Reader reader) {
+            this.BACKGROUND_IMAGE = reader.image("backgroundImage.playerInfo");
+            this.FONT_SIZE = reader.fontSize("playerInfo.fontSize");
+            this.PLAYER_NAME_Y = reader.integer("playerInfo.playerName.y");
+            this.PLAYER_NAME_INPUT_Y = reader.integer("playerInfo.playerNameInput.y");
+            this.START_Y = reader.integer("playerInfo.start.y");
+        }
+
+        public String getBackgroundImage() {
+            return BACKGROUND_IMAGE;
+        }
+
+        public int getFontSize() {
+            return FONT_SIZE;
+        }
+
+        public int getPlayerNameY() {
+            return PLAYER_NAME_Y;
+        }
+
+        public int getPlayerNameInputY() {
+            return PLAYER_NAME_INPUT_Y;
+        }
+
+        public int getStartY() {
+            return START_Y;
+        }
+    }
+
+    /**
+     * The game play screen and its session settings, read from the gamePlay.* and gameplay.* properties.
+     */
+    public static class GamePlayConfig {
+
+        private final String BACKGROUND_IMAGE;
+        private final String RAINING_BACKGROUND_IMAGE;
+        private final String OBJECTS_FILE;
+        private final String WEATHER_FILE;
+        private final float TARGET;
+        private final int MAX_FRAMES;
+        private final int TICK_RATE;
+        private final int MAX_TICKS_PER_FRAME;
+        private final int STREAM_MARGIN;
+        private final int TRAFFIC_MAX_FRAMES;
+        private final boolean HAS_SEED;
+        private final long SEED;
+        private final String REPLAY_FILE;
+        private final String METRICS_FILE;
+        private final boolean HAS_GENERATED_WEATHER;
+        private final int MIN_SPELL_FRAMES;
+        private final int MAX_SPELL_FRAMES;
+
+        private final int INFO_FONT_SIZE;
+        private final int EARNINGS_X;
+        private final int EARNINGS_Y;
+        private final int TARGET_X;
+        private final int TARGET_Y;
+        private final int MAX_FRAMES_X;
+        private final int MAX_FRAMES_Y;
+        private final int COIN_X;
+        private final int COIN_Y;
+        private final int TRIP_INFO_X;
+        private final int TRIP_INFO_Y;
+        private final int TAXI_HEALTH_X;
+        private final int TAXI_HEALTH_Y;
+        private final int DRIVER_HEALTH_X;
+        private final int DRIVER_HEALTH_Y;
+        private final int PASSENGER_HEALTH_X;
+        private final int PASSENGER_HEALTH_Y;
+        private final int METRICS_FONT_SIZE;
+        private final int METRICS_X;
+        private final int METRICS_Y;
+
+        private GamePlayConfig(Reader reader) {
+            this.BACKGROUND_IMAGE = reader.image("backgroundImage");
+            this.RAINING_BACKGROUND_IMAGE = reader.image("backgroundImage.raining");
+            this.OBJECTS_FILE = reader.string("gamePlay.objectsFile");
+            this.WEATHER_FILE = reader.string("gamePlay.weatherFile");
+            this.TARGET = reader.decimal("gamePlay.target");
+            this.MAX_FRAMES = reader.positiveInt("gamePlay.maxFrames");
+            this.TICK_RATE = reader.positiveInt("gamePlay.tickRate");
+            this.MAX_TICKS_PER_FRAME = reader.positiveInt("gamePlay.maxTicksPerFrame");
+            this.STREAM_MARGIN = reader.integer("gamePlay.streamMargin");
+            this.TRAFFIC_MAX_FRAMES = reader.positiveInt("gameObjects.traffic.maxFrames");
+            this.HAS_SEED = reader.has("gamePlay.seed");
+            this.SEED = HAS_SEED ? reader.longInteger("gamePlay.seed") : 0;
+            this.REPLAY_FILE = reader.optionalString("gamePlay.replayFile");
+            this.METRICS_FILE = reader.optionalString("gamePlay.metricsFile");
+            this.HAS_GENERATED_WEATHER = reader.has("gamePlay.weather.minSpellFrames");
+            this.MIN_SPELL_FRAMES = HAS_GENERATED_WEATHER ? reader.positiveInt("gamePlay.weather.minSpellFrames") : 0;
+            this.MAX_SPELL_FRAMES = HAS_GENERATED_WEATHER ? reader.positiveInt("gamePlay.weather.maxSpellFrames") : 0;
+            reader.check(MIN_SPELL_FRAMES <= MAX_SPELL_FRAMES,
+                    "gamePlay.weather.minSpellFrames is larger than gamePlay.weather.maxSpellFrames");
+
+            this.INFO_FONT_SIZE = reader.fontSize("gameplay.info.fontSize");
+            this.EARNINGS_X = reader.integer("gameplay.earnings.x");
+            this.EARNINGS_Y = reader.integer("gameplay.earnings.y");
+            this.TARGET_X = reader.integer("gameplay.target.x");
+            this.TARGET_Y = reader.integer("gameplay.target.y");
+            this.MAX_FRAMES_X = reader.integer("gameplay.maxFrames.x");
+            this.MAX_FRAMES_Y = reader.integer("gameplay.maxFrames.y");
+            this.COIN_X = reader.integer("gameplay.coin.x");
+            this.COIN_Y = reader.integer("gameplay.coin.y");
+            this.TRIP_INFO_X = reader.integer("gameplay.tripInfo.x");
+            this.TRIP_INFO_Y = reader.integer("gameplay.tripInfo.y");
+            this.TAXI_HEALTH_X = reader.integer("gamePlay.taxiHealth.x");
+            this.TAXI_HEALTH_Y = reader.integer("gamePlay.taxiHealth.y");
+            this.DRIVER_HEALTH_X = reader.integer("gamePlay.driverHealth.x");
+            this.DRIVER_HEALTH_Y = reader.integer("gamePlay.driverHealth.y");
+            this.PASSENGER_HEALTH_X = reader.integer("gamePlay.passengerHealth.x");
+            this.PASSENGER_HEALTH_Y = reader.integer("gamePlay.passengerHealth.y");
+            this.METRICS_FONT_SIZE = reader.fontSize("gamePlay.metrics.fontSize");
+            this.METRICS_X = reader.integer("gamePlay.metrics.x");
+            this.METRICS_Y = reader.integer("gamePlay.metrics.y");
+        }
+
+        public String getBackgroundImage() {
+            return BACKGROUND_IMAGE;
+        }
+
+        public String getRainingBackgroundImage() {
+            return RAINING_BACKGROUND_IMAGE;
+        }
+
+        public String getObjectsFile() {
+            return OBJECTS_FILE;
+        }
+
+        public String getWeatherFile() {
+            return WEATHER_FILE;
+        }
+
+        public float getTarget() {
+            return TARGET;
+        }
+
+        public int getMaxFrames() {
+            return MAX_FRAMES;
+        }
+
+        public int getTickRate() {
+            return TICK_RATE;
+        }
+
+        public int getMaxTicksPerFrame() {
+            return MAX_TICKS_PER_FRAME;
+        }
+
+        public int getStreamMargin() {
+            return STREAM_MARGIN;
+        }
+
+        public int getTrafficMaxFrames() {
+            return TRAFFIC_MAX_FRAMES;
+        }
+
+        /**
+         * Check if every session is played with the same seed.
+         * @return true if a seed is set, false if every session is seeded differently.
+         */
+        public boolean hasSeed() {
+            return HAS_SEED;
+        }
+
+        public long getSeed() {
+            return SEED;
+        }
+
+        /**
+         * Get the file the input of every session is recorded to.
+         * @return The name of the replay file, or null if sessions are not recorded.
+         */
+        public String getReplayFile() {
+            return REPLAY_FILE;
+        }
+
+        /**
+         * Get the file the frame timings of every session are saved to.
+         * @return The name of the metrics file, or null if the timings are not saved.
+         */
+        public String getMetricsFile() {
+            return METRICS_FILE;
+        }
+
+        /**
+         * Check if the weather goes on with random spells once the weather file runs out.
+         * @return true if random spells are generated, false otherwise.
+         */
+        public boolean hasGeneratedWeather() {
+            return HAS_GENERATED_WEATHER;
+        }
+
+        public int getMinSpellFrames() {
+            return MIN_SPELL_FRAMES;
+        }
+
+        public int getMaxSpellFrames() {
+            return MAX_SPELL_FRAMES;
+        }
+
+        public int getInfoFontSize() {
+            return INFO_FONT_SIZE;
+        }
+
+        public int getEarningsX() {
+            return EARNINGS_X;
+        }
+
+        public int getEarningsY() {
+            return EARNINGS_Y;
+        }
+
+        public int getTargetX() {
+            return TARGET_X;
+        }
+
+        public int getTargetY() {
+            return TARGET_Y;
+        }
+
+        public int getMaxFramesX() {
+            return MAX_FRAMES_X;
+        }
+
+        public int getMaxFramesY() {
+            return MAX_FRAMES_Y;
+        }
+
+        public int getCoinX() {
+            return COIN_X;
+        }
+
+        public int getCoinY() {
+            return COIN_Y;
+        }
+
+        public int getTripInfoX() {
+            return TRIP_INFO_X;
+        }
+
+        public int getTripInfoY() {
+            return TRIP_INFO_Y;
+        }
+
+        public int getTaxiHealthX() {
+            return TAXI_HEALTH_X;
+        }
+
+        public int getTaxiHealthY() {
+            return TAXI_HEALTH_Y;
+        }
+
+        public int getDriverHealthX() {
+            return DRIVER_HEALTH_X;
+        }
+
+        public int getDriverHealthY() {
+            return DRIVER_HEALTH_Y;
+        }
+
+        public int getPassengerHealthX() {
+            return PASSENGER_HEALTH_X;
+        }
+
+        public int getPassengerHealthY() {
+            return PASSENGER_HEALTH_Y;
+        }
+
+        public int getMetricsFontSize() {
+            return METRICS_FONT_SIZE;
+        }
+
+        public int getMetricsX() {
+            return METRICS_X;
+        }
+
+        public int getMetricsY() {
+            return METRICS_Y;
+        }
+    }
+
+    /**
+     * The game end screen and the scores file, read from the gameEnd.* properties.
+     */
+    public static class GameEndConfig {
+
+        private final String BACKGROUND_IMAGE;
+        private final String SCORES_FILE;
+        private final int STATUS_FONT_SIZE;
+        private final int STATUS_Y;
+        private final int SCORES_FONT_SIZE;
+        private final int SCORES_Y;
+
+        private GameEndConfig(Reader reader) {
+            this.BACKGROUND_IMAGE = reader.image("backgroundImage.gameEnd");
+            this.SCORES_FILE = reader.string("gameEnd.scoresFile");
+            this.STATUS_FONT_SIZE = reader.fontSize("gameEnd.status.fontSize");
+            this.STATUS_Y = reader.integer("gameEnd.status.y");
+            this.SCORES_FONT_SIZE = reader.fontSize("gameEnd.scores.fontSize");
+            this.SCORES_Y = reader.integer("gameEnd.scores.y");
+        }
+
+        public String getBackgroundImage() {
+            return BACKGROUND_IMAGE;
+        }
+
+        public String getScoresFile() {
+            return SCORES_FILE;
+        }
+
+        public int getStatusFontSize() {
+            return STATUS_FONT_SIZE;
+        }
+
+        public int getStatusY() {
+            return STATUS_Y;
+        }
+
+        public int getScoresFontSize() {
+            return SCORES_FONT_SIZE;
+        }
+
+        public int getScoresY() {
+            return SCORES_Y;
+        }
+    }
+
+    /**
+     * The fee rates of a trip, read from the trip.* properties. The priorities are numbered from 1, each with a
+     * trip.rate.priority key, up to the first number without one.
+     */
+    public static class TripConfig {
+
+        private final float RATE_PER_Y;
+        private final float PENALTY_PER_Y;
+        private final float[] PRIORITY_RATES;
+
+        private TripConfig(Reader reader) {
+            this.RATE_PER_Y = reader.decimal("trip.rate.perY");
+            this.PENALTY_PER_Y = reader.decimal("trip.penalty.perY");
+            int priorities = 0;
+            while (reader.has("trip.rate.priority" + (priorities + 1))) {
+                priorities++;
+            }
+            reader.check(priorities > 0, "missing trip.rate.priority1");
+            this.PRIORITY_RATES = new float[priorities];
+            for (int i = 0; i < priorities; i++) {
+                PRIORITY_RATES[i] = reader.decimal("trip.rate.priority" + (i + 1));
+            }
+        }
+
+        public float getRatePerY() {
+            return RATE_PER_Y;
+        }
+
+        public float getPenaltyPerY() {
+            return PENALTY_PER_Y;
+        }
+
+        /**
+         * Get the rate of a priority.
+         * @param priority The priority, from 1.
+         * @return The fee per priority level of a trip with the priority.
+         */
+        public float getPriorityRate(int priority) {
+            return PRIORITY_RATES[priority - 1];
+        }
+    }
+
+    /**
+     * The taxi, read from the gameObjects.taxi.* properties. Its speedY is the speed the whole level scrolls at.
+     */
+    public static class TaxiConfig {
+
+        private final String IMAGE;
+        private final String DAMAGED_IMAGE;
+        private final float RADIUS;
+        private final int SPEED_X;
+        private final int SPEED_Y;
+
+        private TaxiConfig(Reader reader) {
+            this.IMAGE = reader.image("gameObjects.taxi.image");
+            this.DAMAGED_IMAGE = reader.image("gameObjects.taxi.damagedImage");
+            this.RADIUS = reader.decimal("gameObjects.taxi.radius");
+            this.SPEED_X = reader.integer("gameObjects.taxi.speedX");
+            this.SPEED_Y = reader.integer("gameObjects.taxi.speedY");
+        }
+
+        public String getImage() {
+            return IMAGE;
+        }
+
+        public String getDamagedImage() {
+            return DAMAGED_IMAGE;
+        }
+
+        public float getRadius() {
+            return RADIUS;
+        }
+
+        public int getSpeedX() {
+            return SPEED_X;
+        }
+
+        public int getSpeedY() {
+            return SPEED_Y;
+        }
+    }
+
+    /**
+     * The other cars or the enemy cars, read from the gameObjects.otherCar.* or gameObjects.enemyCar.* properties.
+     * Other cars come in several types, each with its own image; enemy cars all look the same.
+     */
+    public static class CarConfig {
+
+        private final String[] IMAGES;
+        private final float RADIUS;
+        private final float HEALTH;
+        private final float DAMAGE;
+        private final int MIN_SPEED_Y;
+        private final int MAX_SPEED_Y;
+
+        private CarConfig(Reader reader, String prefix, String[] images) {
+            this.IMAGES = images;
+            this.RADIUS = reader.decimal(prefix + ".radius");
+            this.HEALTH = reader.decimal(prefix + ".health");
+            this.DAMAGE = reader.decimal(prefix + ".damage");
+            this.MIN_SPEED_Y = reader.integer(prefix + ".minSpeedY");
+            this.MAX_SPEED_Y = reader.integer(prefix + ".maxSpeedY");
+            reader.check(MIN_SPEED_Y <= MAX_SPEED_Y, prefix + ".minSpeedY is larger than " + prefix + ".maxSpeedY");
+        }
+
+        // the image of each type is the image property formatted with the type number, from 1
+        private static CarConfig otherCar(Reader reader) {
+            String pattern = reader.string("gameObjects.otherCar.image");
+            String[] images = new String[reader.positiveInt("gameObjects.otherCar.types")];
+            for (int i = 0; i < images.length; i++) {
+                images[i] = reader.addImage(String.format(pattern, i + 1));
+            }
+            return new CarConfig(reader, "gameObjects.otherCar", images);
+        }
+
+        private static CarConfig enemyCar(Reader reader) {
+            return new CarConfig(reader, "gameObjects.enemyCar",
+                    new String[]{reader.image("gameObjects.enemyCar.image")});
+        }
+
+        public int getTypeCount() {
+            return IMAGES.length;
+        }
+
+        /**
+         * Get the image of a type of car.
+         * @param type The type, from 0.
+         * @return The path of the image.
+         */
+        public String getImage(int type) {
+            return IMAGES[type];
+        }
+
+        public float getRadius() {
+            return RADIUS;
+        }
+
+        public float getHealth() {
+            return HEALTH;
+        }
+
+        public float getDamage() {
+            return DAMAGE;
+        }
+
+        public int getMinSpeedY() {
+            return MIN_SPEED_Y;
+        }
+
+        public int getMaxSpeedY() {
+            return MAX_SPEED_Y;
+        }
+    }
+
+    /**
+     * The passengers, read from the gameObjects.passenger.* properties.
+     */
+    public static class PassengerConfig {
+
+        private final String IMAGE;
+        private final int WALK_SPEED_X;
+        private final int WALK_SPEED_Y;
+        private final int TAXI_DETECT_RADIUS;
+        private final int FONT_SIZE;
+
+        private PassengerConfig(Reader reader) {
+            this.IMAGE = reader.image("gameObjects.passenger.image");
+            this.WALK_SPEED_X = reader.integer("gameObjects.passenger.walkSpeedX");
+            this.WALK_SPEED_Y = reader.integer("gameObjects.passenger.walkSpeedY");
+            this.TAXI_DETECT_RADIUS = reader.integer("gameObjects.passenger.taxiDetectRadius");
+            this.FONT_SIZE = reader.fontSize("gameObjects.passenger.fontSize");
+        }
+
+        public String getImage() {
+            return IMAGE;
+        }
+
+        public int getWalkSpeedX() {
+            return WALK_SPEED_X;
+        }
+
+        public int getWalkSpeedY() {
+            return WALK_SPEED_Y;
+        }
+
+        public int getTaxiDetectRadius() {
+            return TAXI_DETECT_RADIUS;
+        }
+
+        public int getFontSize() {
+            return FONT_SIZE;
+        }
+    }
+
+    /**
+     * The driver, read from the gameObjects.driver.* properties.
+     */
+    public static class DriverConfig {
+
+        private final String IMAGE;
+        private final int WALK_SPEED_X;
+        private final int WALK_SPEED_Y;
+        private final float RADIUS;
+        private final int TAXI_GET_IN_RADIUS;
+        private final float HEALTH;
+
+        private DriverConfig(Reader reader) {
+            this.IMAGE = reader.image("gameObjects.driver.image");
+            this.WALK_SPEED_X = reader.integer("gameObjects.driver.walkSpeedX");
+            this.WALK_SPEED_Y = reader.integer("gameObjects.driver.walkSpeedY");
+            this.RADIUS = reader.decimal("gameObjects.driver.radius");
+            this.TAXI_GET_IN_RADIUS = reader.integer("gameObjects.driver.taxiGetInRadius");
+            this.HEALTH = reader.decimal("gameObjects.driver.health");
+        }
+
+        public String getImage() {
+            return IMAGE;
+        }
+
+        public int getWalkSpeedX() {
+            return WALK_SPEED_X;
+        }
+
+        public int getWalkSpeedY() {
+            return WALK_SPEED_Y;
+        }
+
+        public float getRadius() {
+            return RADIUS;
+        }
+
+        public int getTaxiGetInRadius() {
+            return TAXI_GET_IN_RADIUS;
+        }
+
+        /**
+         * Get the health the driver starts with.
+         * @return The health, as a fraction of full health.
+         */
+        public float getHealth() {
+            return HEALTH;
+        }
+    }
+
+    /**
+     * A power-up collected by the taxi, the coin or the invincible power, read from its gameObjects.* properties.
+     */
+    public static class PowerUpConfig {
+
+        private final String IMAGE;
+        private final float RADIUS;
+        private final int MAX_FRAMES;
+
+        private PowerUpConfig(Reader reader, String prefix) {
+            this.IMAGE = reader.image(prefix + ".image");
+            this.RADIUS = reader.decimal(prefix + ".radius");
+            this.MAX_FRAMES = reader.positiveInt(prefix + ".maxFrames");
+        }
+
+        public String getImage() {
+            return IMAGE;
+        }
+
+        public float getRadius() {
+            return RADIUS;
+        }
+
+        /**
+         * Get the number of frames the power lasts once collected.
+         * @return The number of frames.
+         */
+        public int getMaxFrames() {
+            return MAX_FRAMES;
+        }
+    }
+
+    /**
+     * The flag at the end of a trip, read from the gameObjects.tripEndFlag.* properties.
+     */
+    public static class TripEndFlagConfig {
+
+        private final String IMAGE;
+        private final float RADIUS;
+
+        private TripEndFlagConfig(Reader reader) {
+            this.IMAGE = reader.image("gameObjects.tripEndFlag.image");
+            this.RADIUS = reader.decimal("gameObjects.tripEndFlag.radius");
+        }
+
+        public String getImage() {
+            return IMAGE;
+        }
+
+        public float getRadius() {
+            return RADIUS;
+        }
+    }
+
+    /**
+     * Reads typed values from the game properties, noting every problem instead of stopping at the first one. A value
+     * that cannot be read is returned as zero or null, and the configuration is not built once any problem is noted.
+     */
+    private static class Reader {
+
+        private final Properties PROPS;
+        private final List<String> ERRORS = new ArrayList<>();
+        private final Set<String> IMAGES = new LinkedHashSet<>();
+        private final Set<Integer> FONT_SIZES = new LinkedHashSet<>();
+
+        private Reader(Properties props) {
+            this.PROPS = props;
+        }
+
+        private boolean has(String key) {
+            String value = PROPS.getProperty(key);
+            return value != null && !value.trim().isEmpty();
+        }
+
+        private String optionalString(String key) {
+            return has(key) ? PROPS.getProperty(key).trim() : null;
+        }
+
+        private String string(String key) {
+            if (!has(key)) {
+                ERRORS.add("missing " + key);
+                return null;
+            }
+            return PROPS.getProperty(key).trim();
+        }
+
+        private int integer(String key) {
+            String value = string(key);
+            try {
+                return value == null ? 0 : Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                ERRORS.add(key + " is not an integer: " + value);
+                return 0;
+            }
+        }
+
+        private int positiveInt(String key) {
+            int errors = ERRORS.size();
+            int value = integer(key);
+            check(value > 0 || ERRORS.size() > errors, key + " is not positive: " + value);
+            return value;
+        }
+
+        private long longInteger(String key) {
+            String value = string(key);
+            try {
+                return value == null ? 0 : Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                ERRORS.add(key + " is not an integer: " + value);
+                return 0;
+            }
+        }
+
+        private float decimal(String key) {
+            String value = string(key);
+            try {
+                return value == null ? 0 : Float.parseFloat(value);
+            } catch (NumberFormatException e) {
+                ERRORS.add(key + " is not a number: " + value);
+                return 0;
+            }
+        }
+
+        private int fontSize(String key) {
+            int size = positiveInt(key);
+            if (size > 0) {
+                FONT_SIZES.add(size);
+            }
+            return size;
+        }
+
+        private String image(String key) {
+            String path = string(key);
+            return path == null ? null : addImage(path);
+        }
+
+        private String addImage(String path) {
+            IMAGES.add(path);
+            return path;
+        }
+
+        private LogLevel logLevel(String key) {
+            String value = optionalString(key);
+            try {
+                return value == null ? LogLevel.WARN : LogLevel.valueOf(value);
+            } catch (IllegalArgumentException e) {
+                ERRORS.add(key + " is not a log level: " + value);
+                return LogLevel.WARN;
+            }
+        }
+
+        private void check(boolean condition, String error) {
+            if (!condition) {
+                ERRORS.add(error);
+            }
+        }
+
+        private void failOnErrors() {
+            if (!ERRORS.isEmpty()) {
+                throw new IllegalArgumentException("Invalid game properties:\n  " + String.join("\n  ", ERRORS));
+            }
+        }
+    }
+}
@@ -1,48 +1,47 @@
 import bagel.*;
 
-import java.util.*;
+import java.util.Properties;
 
 /**
  * A class that represents the game end screen for a win/loss.
  */
 public class GameEndScreen {
 
-    private final Image BACKGROUND_IMAGE;
+    private final Sprite BACKGROUND_IMAGE;
 
     private final String GAME_WON_TXT;
     private final String GAME_LOST_TXT;
     private final String HIGHEST_SCORE_TXT;
 
-    private final Font STATUS_FONT;
-    private final Font SCORES_FONT;
+    private final SpriteFont STATUS_FONT;
+    private final SpriteFont SCORES_FONT;
 
     private final int STATUS_Y;
     private final int SCORES_Y;
 
-    private final Score[] TOP_SCORES;
-    private Score[] scores;
+    private final ScoreStore SCORES;
 
     private boolean isWon;
 
 
-    public GameEndScreen(Properties gameProps, Properties msgProps) {
+    public GameEndScreen(GameConfig config, Properties msgProps, ScoreStore scores) {
+        GameConfig.GameEndConfig gameEnd = config.getGameEnd();
 
-        BACKGROUND_IMAGE = new Image(gameProps.getProperty("backgroundImage.gameEnd"));
+        BACKGROUND_IMAGE = AssetCache.getImage(gameEnd.getBackgroundImage());
 
         GAME_WON_TXT = msgProps.getProperty("gameEnd.won");
         GAME_LOST_TXT = msgProps.getProperty("gameEnd.lost");
         HIGHEST_SCORE_TXT = msgProps.getProperty("gameEnd.highestScores");
 
-        STATUS_Y = Integer.parseInt(gameProps.getProperty("gameEnd.status.y"));
-        SCORES_Y = Integer.parseInt(gameProps.getProperty("gameEnd.scores.y"));
+        STATUS_Y = gameEnd.getStatusY();
+        SCORES_Y = gameEnd.getScoresY();
 
-        String fontFile = gameProps.getProperty("font");
-        STATUS_FONT = new Font(fontFile, Integer.parseInt(gameProps.getProperty("gameEnd.status.fontSize")));
-        SCORES_FONT = new Font(fontFile, Integer.parseInt(gameProps.getProperty("gameEnd.scores.fontSize")));
+        STATUS_FONT = AssetCache.getFont(config.getFont(), gameEnd.getStatusFontSize());
+        SCORES_FONT = AssetCache.getFont(config.getFont(), gameEnd.getScoresFontSize());
 
-        //get top 5 scores
-        populateScores(gameProps.getProperty("gameEnd.scoresFile"));
-        TOP_SCORES = getTopScores();
+        // the top 5 scores are read from the leaderboard every frame, since the score of the game just played is
+        // still being saved when the screen opens
+        SCORES = scores;
     }
 
     public void setIsWon(boolean isWon) {
@@ -73,7 +72,7 @@ public class GameEndScreen {
                 SCORES_Y);
 
         int scoreIdx = 0;
-        for(Score score : TOP_SCORES) {
+        for(Score score : getTopScores()) {
             if(score != null) {
                 String text = score.getPlayerName() + " - " + String.format("%.02f", score.getScore());
                 double x = Window.getWidth() / 2 - SCORES_FONT.getWidth(text)/2;
@@ -89,28 +88,12 @@ public class GameEndScreen {
     }
 
     /**
-     * Populate the scores from a file. The file used to store the scores of previous game plays.
-     * @param filename The name of the file to read the scores from.
-     */
-    public void populateScores(String filename) {
-        ArrayList<String[]> data = IOUtils.readCommaSeperatedFile(filename);
-        scores = new Score[data.size()];
-
-        int scoreIdx = 0;
-        for (String[] line : data) {
-            String username = line[0];
-            double score = Double.parseDouble(line[1]);
-            scores[scoreIdx] = new Score(username, score);
-            scoreIdx++;
-        }
-    }
-
-    /**
-     * Sort the score in descending order and return the top 5 scores.
-     * @return list of Score objects representing the top 5 scores.
+     * Get the top 5 scores from the leaderboard, highest first.
+     * @return list of Score objects representing the top 5 scores, with null for any missing if fewer games were played
+     * or the leaderboard is still being loaded.
      */
     public Score[] getTopScores() {
-        Arrays.sort(scores, (a, b) -> Double.compare(b.getScore(), a.getScore()));
-        return Arrays.copyOfRange(scores, 0, 5);
+        Leaderboard leaderboard = SCORES.getLeaderboard();
+        return leaderboard != null ? leaderboard.getTopScores() : new Score[ScoreStore.TOP_SCORE_COUNT];
     }
 }
@@ -0,0 +1,228 @@
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * The game log. Logging a message only copies its level, site, format and arguments into a ring buffer; a background
+ * thread formats the messages and writes them out, so the game loop never waits on console or file I/O.
+ * A message below the log level costs one comparison, and a message that is logged does not allocate: the format is
+ * a constant and its arguments are primitives, formatted only once the message is written. If the game logs faster
+ * than the messages can be written, the newest messages are dropped and counted instead of blocking the game.
+ */
+public class GameLog {
+
+    // a power of two, so a sequence number is turned into a slot with a mask
+    private static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+    private static final long FLUSH_INTERVAL_MILLIS = 100;
+    private static final Object[] NO_ARGS = {};
+    private static final long START_TIME = System.nanoTime();
+
+    private static final Object LOCK = new Object();
+    private static final LogLevel[] LEVELS = new LogLevel[CAPACITY];
+    private static final LogSite[] SITES = new LogSite[CAPACITY];
+    private static final String[] FORMATS = new String[CAPACITY];
+    private static final double[] FIRST_ARGS = new double[CAPACITY];
+    private static final double[] SECOND_ARGS = new double[CAPACITY];
+    private static final int[] ARG_COUNTS = new int[CAPACITY];
+    private static final int[] SUPPRESSED = new int[CAPACITY];
+    private static final long[] TIMES = new long[CAPACITY];
+    private static final Throwable[] ERRORS = new Throwable[CAPACITY];
+
+    private static volatile int minLevel = LogLevel.WARN.ordinal();
+    private static PrintStream out = System.out;
+
+    // guarded by LOCK: the next sequence number to write and to flush
+    private static long head;
+    private static long tail;
+    private static long dropped;
+    private static Thread flusher;
+
+    /**
+     * Set the log level and output from the game configuration: messages are written to the log file if it is set
+     * and to the console otherwise.
+     * @param config The game configuration.
+     */
+    public static void configure(GameConfig config) {
+        setLevel(config.getLogLevel());
+        String file = config.getLogFile();
+        if (file != null) {
+            try {
+                setOutput(new PrintStream(new FileOutputStream(file, true), false));
+            } catch (FileNotFoundException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public static void setLevel(LogLevel level) {
+        minLevel = level.ordinal();
+    }
+
+    /**
+     * Set the stream messages are written to. Messages already logged are written to the old stream first.
+     * @param stream The stream to write to.
+     */
+    public static void setOutput(PrintStream stream) {
+        flush();
+        synchronized (LOCK) {
+            out = stream;
+        }
+    }
+
+    /**
+     * Check if messages of a level are logged, e.g. before building an argument that is expensive to compute.
+     * @param level The level to check.
+     * @return true if messages of the level are logged, false otherwise.
+     */
+    public static boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= minLevel;
+    }
+
+    public static void debug(LogSite site, String message) {
+        log(LogLevel.DEBUG, site, message, 0, 0, 0, null);
+    }
+
+    public static void debug(LogSite site, String format, double arg) {
+        log(LogLevel.DEBUG, site, format, 1, arg, 0, null);
+    }
+
+    public static void debug(LogSite site, String format, double firstArg, double secondArg) {
+        log(LogLevel.DEBUG, site, format, 2, firstArg, secondArg, null);
+    }
+
+    public static void info(LogSite site, String message) {
+        log(LogLevel.INFO, site, message, 0, 0, 0, null);
+    }
+
+    public static void info(LogSite site, String format, double arg) {
+        log(LogLevel.INFO, site, format, 1, arg, 0, null);
+    }
+
+    public static void warn(LogSite site, String message) {
+        log(LogLevel.WARN, site, message, 0, 0, 0, null);
+    }
+
+    /**
+     * Log an error together with the exception that caused it. The stack trace is written with the message.
+     * @param site The place the error happened.
+     * @param message The message.
+     * @param error The exception that caused the error.
+     */
+    public static void error(LogSite site, String message, Throwable error) {
+        log(LogLevel.ERROR, site, message, 0, 0, 0, error);
+    }
+
+    /**
+     * Write every message logged so far, waiting for it to be written. Call before the game exits, since the
+     * background thread does not keep the game running.
+     */
+    public static void flush() {
+        drain();
+    }
+
+    private static void log(LogLevel level, LogSite site, String format, int argCount, double firstArg,
+                            double secondArg, Throwable error) {
+        if (level.ordinal() < minLevel) {
+            return;
+        }
+        long now = System.nanoTime();
+        synchronized (LOCK) {
+            if (!site.tryAcquire(now)) {
+                return;
+            }
+            if (head - tail == CAPACITY) {
+                dropped++;
+                return;
+            }
+            int slot = (int) (head & MASK);
+            LEVELS[slot] = level;
+            SITES[slot] = site;
+            FORMATS[slot] = format;
+            ARG_COUNTS[slot] = argCount;
+            FIRST_ARGS[slot] = firstArg;
+            SECOND_ARGS[slot] = secondArg;
+            SUPPRESSED[slot] = site.takeSuppressed();
+            TIMES[slot] = now;
+            ERRORS[slot] = error;
+            head++;
+            if (flusher == null) {
+                startFlusher();
+            } else if (head - tail >= CAPACITY / 2) {
+                LOCK.notifyAll();
+            }
+        }
+    }
+
+    private static void startFlusher() {
+        flusher = new Thread(() -> {
+            while (true) {
+                synchronized (LOCK) {
+                    try {
+                        LOCK.wait(FLUSH_INTERVAL_MILLIS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                drain();
+            }
+        }, "GameLog-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // messages are formatted outside the lock, so the game thread is only ever held up by the copy into the buffer;
+    // synchronizing on the class keeps the flusher and an explicit flush from writing the same messages twice
+    private static synchronized void drain() {
+        long end;
+        long lostCount;
+        PrintStream stream;
+        synchronized (LOCK) {
+            end = head;
+            lostCount = dropped;
+            dropped = 0;
+            stream = out;
+        }
+        for (long sequence = tail(); sequence < end; sequence++) {
+            int slot = (int) (sequence & MASK);
+            write(stream, slot);
+            synchronized (LOCK) {
+                SITES[slot] = null;
+                ERRORS[slot] = null;
+                tail = sequence + 1;
+            }
+        }
+        if (lostCount > 0) {
+            stream.println("[WARN] GameLog: " + lostCount + " messages dropped, the log could not keep up");
+        }
+        stream.flush();
+    }
+
+    private static long tail() {
+        synchronized (LOCK) {
+            return tail;
+        }
+    }
+
+    private static void write(PrintStream stream, int slot) {
+        Object[] args;
+        if (ARG_COUNTS[slot] == 0) {
+            args = NO_ARGS;
+        } else if (ARG_COUNTS[slot] == 1) {
+            args = new Object[]{FIRST_ARGS[slot]};
+        } else {
+            args = new Object[]{FIRST_ARGS[slot], SECOND_ARGS[slot]};
+        }
+        String message = args.length == 0 ? FORMATS[slot] : String.format(Locale.ROOT, FORMATS[slot], args);
+        stream.printf(Locale.ROOT, "%10.3f [%s] %s: %s", (TIMES[slot] - START_TIME) / 1e9, LEVELS[slot],
+                SITES[slot].getName(), message);
+        if (SUPPRESSED[slot] > 0) {
+            stream.print(" (" + SUPPRESSED[slot] + " suppressed since the last)");
+        }
+        stream.println();
+        if (ERRORS[slot] != null) {
+            ERRORS[slot].printStackTrace(stream);
+        }
+    }
+}
@@ -1,32 +1,31 @@
-import bagel.Font;
-import bagel.Image;
-import bagel.Input;
-import bagel.Keys;
-
 import java.util.*;
 
 /**
  * Represents the gameplay screen in the game.
  */
 public class GamePlayScreen{
-    private final Properties GAME_PROPS;
+    private final GameConfig CONFIG;
     private final Properties MSG_PROPS;
-    private final ArrayList<Car> cars = new ArrayList<>();
-    private final ArrayList<EnemyCar> enemyCars = new ArrayList<>();
-    // Declare the ArrayList for cars
-
+    // the traffic, coins and invincible powers are entities of one world, updated and drawn by its systems
+    private final EntityWorld WORLD;
+    private final MotionSystem MOTION;
+    private final TrafficSystem TRAFFIC;
+    private final PowerUpSystem POWER_UPS;
+    private final RenderSystem RENDER;
+    private final RenderQueue RENDER_QUEUE = new RenderQueue();  // the draw commands of this screen's frames
 
     // keep track of earning and coin timout
-    private float totalEarnings;
+    private final EarningsLedger EARNINGS;
     private float coinFramesActive;
 
     private int currFrame = 0;
-    private InvinciblePower[] invinciblePowers;
-    // game objects
+    // game objects; the passengers, coins and invincible powers are created as the level scrolls towards them
     private Taxi taxi;
     private Driver driver;
-    private Passenger[] passengers;
-    private Coin[] coins;
+    private LevelStreamer level;
+    // the level is scrolled by moving the camera, the objects in it keep their world coordinates
+    private final Camera CAMERA;
+    private final int COIN_MAX_FRAMES;
 
     private Background background1;
     private Background background2;
@@ -39,9 +38,15 @@ public class GamePlayScreen{
     // vars for save score into the file
     private final String PLAYER_NAME;
     private boolean savedData;
+    private ScoreStore scoreStore;
+
+    // randomness, one stream per subsystem split off the seed of the session
+    private final long SEED;
+    private final GameRng SPAWN_RNG;
+    private final GameRng TAXI_RNG;
 
     // display text vars
-    private final Font INFO_FONT;
+    private final SpriteFont INFO_FONT;
     private final int EARNINGS_Y;
     private final int EARNINGS_X;
     private final int COIN_X;
@@ -63,173 +68,170 @@ public class GamePlayScreen{
     private final int TRIP_INFO_OFFSET_2;
     private final int TRIP_INFO_OFFSET_3;
 
-    // Weather-related
-    private List<WeatherCondition> weatherConditions;
-    private boolean isRaining;
-    private Background rainyBackground;
-    private Background sunnyBackground;
-    private Background currentBackground;
-
-    public GamePlayScreen(Properties gameProps, Properties msgProps, String playerName) {
-        this.GAME_PROPS = gameProps;
-        this.MSG_PROPS = msgProps;
-        this.weatherConditions = loadWeatherConditions(gameProps.getProperty("gamePlay.weatherFile"));
-        //this.sunnyBackground = new Background(512, 384, gameProps.getProperty("backgroundImage.sunny"));
-        //this.rainyBackground = new Background(512, 384, gameProps.getProperty("backgroundImage.raining"));
-        //this.currentBackground = sunnyBackground; // Default background
-
-        this.sunnyBackground = new Background(
-                Integer.parseInt(gameProps.getProperty("window.width")) / 2,
-                Integer.parseInt(gameProps.getProperty("window.height")) / 2,
-                gameProps,
-                "backgroundImage");  // Use the key as a string
-
-        this.rainyBackground = new Background(
-                Integer.parseInt(gameProps.getProperty("window.width")) / 2,
-                Integer.parseInt(gameProps.getProperty("window.height")) / 2,
-                gameProps,
-                "backgroundImage.raining");  // Use the key as a string
-
+    // HUD text, only formatted again when the value behind it changes
+    private final HudText EARNINGS_TEXT;
+    private final HudText TARGET_TEXT;
+    private final HudText REM_FRAMES_TEXT;
+    private final HudText TAXI_HEALTH_TEXT;
+    private final HudText DRIVER_HEALTH_TEXT;
+    private final HudText COIN_FRAMES_TEXT;
+    private final HudText EXPECTED_FEE_TEXT;
+    private final HudText PRIORITY_TEXT;
+    private final HudText PENALTY_TEXT;
+
+    // per-phase timings and entity counts, shown over the game play when the overlay is turned on
+    private final FrameProfiler PROFILER = new FrameProfiler();
+    private final SpriteFont METRICS_FONT;
+    private final int METRICS_X;
+    private final int METRICS_Y;
+    private final int METRICS_LINE_HEIGHT;
+    private boolean isShowingMetrics;
 
-        // Initial background set to sunny
-        this.currentBackground = sunnyBackground;
+    // Weather-related
+    private final WeatherTimeline WEATHER;
+    private final Sprite SUNNY_IMAGE;
+    private final Sprite RAINY_IMAGE;
 
-        // read game objects from file and weather file and populate the game objects and weather conditions
-        ArrayList<String[]> lines = IOUtils.readCommaSeperatedFile(gameProps.getProperty("gamePlay.objectsFile"));
-        populateGameObjects(lines);
+    /**
+     * Constructs a game play session. The seed is read from the gamePlay.seed property; without it every session is
+     * seeded differently.
+     * @param config The game configuration.
+     * @param msgProps The message properties.
+     * @param playerName The name of the player.
+     */
+    public GamePlayScreen(GameConfig config, Properties msgProps, String playerName) {
+        this(config, msgProps, playerName,
+                config.getGamePlay().hasSeed() ? config.getGamePlay().getSeed() : System.nanoTime());
+    }
 
-        this.TARGET = Float.parseFloat(gameProps.getProperty("gamePlay.target"));
-        this.MAX_FRAMES = Integer.parseInt(gameProps.getProperty("gamePlay.maxFrames"));
+    /**
+     * Constructs a game play session with a fixed seed. Two sessions with the same seed and the same input play out
+     * exactly the same.
+     * @param config The game configuration.
+     * @param msgProps The message properties.
+     * @param playerName The name of the player.
+     * @param seed The seed of every random choice made in the session.
+     */
+    public GamePlayScreen(GameConfig config, Properties msgProps, String playerName, long seed) {
+        this.CONFIG = config;
+        this.MSG_PROPS = msgProps;
+        GameConfig.GamePlayConfig gamePlay = config.getGamePlay();
+
+        // the streams are split in a fixed order, so each subsystem sees the same numbers for the same seed
+        this.SEED = seed;
+        GameRng rng = new GameRng(seed);
+        this.SPAWN_RNG = rng.split();
+        this.TAXI_RNG = rng.split();
+        GameRng carRng = rng.split();
+        GameRng enemyCarRng = rng.split();
+        GameRng weatherRng = rng.split();
+
+        // both halves of the scrolling background switch image when the weather changes
+        this.SUNNY_IMAGE = AssetCache.getImage(gamePlay.getBackgroundImage());
+        this.RAINY_IMAGE = AssetCache.getImage(gamePlay.getRainingBackgroundImage());
+        this.WEATHER = WeatherTimeline.load(gamePlay.getWeatherFile());
+        if (gamePlay.hasGeneratedWeather()) {
+            WEATHER.generateAfterSchedule(weatherRng, gamePlay.getMinSpellFrames(), gamePlay.getMaxSpellFrames());
+        }
+        WEATHER.addListener((previous, current, frame) -> {
+            Sprite image = current == WeatherType.RAINING ? RAINY_IMAGE : SUNNY_IMAGE;
+            background1.setImage(image);
+            background2.setImage(image);
+        });
+
+        // read game objects from file and populate the game objects
+        this.CAMERA = new Camera(config);
+        this.EARNINGS = new EarningsLedger(config.getTrip());
+        this.COIN_MAX_FRAMES = config.getCoin().getMaxFrames();
+        this.coinFramesActive = COIN_MAX_FRAMES;
+        // spawned traffic is removed again once destroyed, off-screen or too old, and spawning reuses its slot
+        this.WORLD = new EntityWorld();
+        this.MOTION = new MotionSystem(WORLD);
+        this.TRAFFIC = new TrafficSystem(WORLD, MOTION, config, carRng, enemyCarRng);
+        this.POWER_UPS = new PowerUpSystem(WORLD, config, CAMERA);
+        this.RENDER = new RenderSystem(WORLD, CAMERA);
+        populateGameObjects(LevelIndex.load(gamePlay.getObjectsFile()));
+
+        this.TARGET = gamePlay.getTarget();
+        this.MAX_FRAMES = gamePlay.getMaxFrames();
 
         // display text vars
-        INFO_FONT = new Font(gameProps.getProperty("font"), Integer.parseInt(
-                gameProps.getProperty("gameplay.info.fontSize")));
-        EARNINGS_Y = Integer.parseInt(gameProps.getProperty("gameplay.earnings.y"));
-        EARNINGS_X = Integer.parseInt(gameProps.getProperty("gameplay.earnings.x"));
-        COIN_X = Integer.parseInt(gameProps.getProperty("gameplay.coin.x"));
-        COIN_Y = Integer.parseInt(gameProps.getProperty("gameplay.coin.y"));
-        TARGET_X = Integer.parseInt(gameProps.getProperty("gameplay.target.x"));
-        TARGET_Y = Integer.parseInt(gameProps.getProperty("gameplay.target.y"));
-        MAX_FRAMES_X = Integer.parseInt(gameProps.getProperty("gameplay.maxFrames.x"));
-        MAX_FRAMES_Y = Integer.parseInt(gameProps.getProperty("gameplay.maxFrames.y"));
-
-        TAXI_HEALTH_X = Integer.parseInt(gameProps.getProperty("gamePlay.taxiHealth.x"));
-        DRIVER_HEALTH_X = Integer.parseInt(gameProps.getProperty("gamePlay.driverHealth.x"));
-        TAXI_HEALTH_Y = Integer.parseInt(gameProps.getProperty("gamePlay.taxiHealth.y"));
-        DRIVER_HEALTH_Y = Integer.parseInt(gameProps.getProperty("gamePlay.driverHealth.y"));
-        PASSENGER_HEALTH_X = Integer.parseInt(gameProps.getProperty("gamePlay.passengerHealth.x"));
-        PASSENGER_HEALTH_Y = Integer.parseInt(gameProps.getProperty("gamePlay.passengerHealth.y"));
+        INFO_FONT = AssetCache.getFont(config.getFont(), gamePlay.getInfoFontSize());
+        EARNINGS_TEXT = new HudText(msgProps.getProperty("gamePlay.earnings"), "%.02f");
+        TARGET_TEXT = new HudText(msgProps.getProperty("gamePlay.target"), "%.02f");
+        TARGET_TEXT.setValue(TARGET);
+        REM_FRAMES_TEXT = new HudText(msgProps.getProperty("gamePlay.remFrames"), "%.0f");
+        TAXI_HEALTH_TEXT = new HudText("TAXI ", "%.2f");
+        DRIVER_HEALTH_TEXT = new HudText("DRIVER ", "%.2f");
+        COIN_FRAMES_TEXT = new HudText("", "%.0f");
+        EXPECTED_FEE_TEXT = new HudText(msgProps.getProperty("gamePlay.trip.expectedEarning"), null);
+        PRIORITY_TEXT = new HudText(msgProps.getProperty("gamePlay.trip.priority"), "%.0f");
+        PENALTY_TEXT = new HudText(msgProps.getProperty("gamePlay.trip.penalty"), "%.02f");
+        EARNINGS_Y = gamePlay.getEarningsY();
+        EARNINGS_X = gamePlay.getEarningsX();
+        COIN_X = gamePlay.getCoinX();
+        COIN_Y = gamePlay.getCoinY();
+        TARGET_X = gamePlay.getTargetX();
+        TARGET_Y = gamePlay.getTargetY();
+        MAX_FRAMES_X = gamePlay.getMaxFramesX();
+        MAX_FRAMES_Y = gamePlay.getMaxFramesY();
+
+        TAXI_HEALTH_X = gamePlay.getTaxiHealthX();
+        DRIVER_HEALTH_X = gamePlay.getDriverHealthX();
+        TAXI_HEALTH_Y = gamePlay.getTaxiHealthY();
+        DRIVER_HEALTH_Y = gamePlay.getDriverHealthY();
+        PASSENGER_HEALTH_X = gamePlay.getPassengerHealthX();
+        PASSENGER_HEALTH_Y = gamePlay.getPassengerHealthY();
 
 
         // current trip info vars
-        TRIP_INFO_X = Integer.parseInt(gameProps.getProperty("gameplay.tripInfo.x"));
-        TRIP_INFO_Y = Integer.parseInt(gameProps.getProperty("gameplay.tripInfo.y"));
+        TRIP_INFO_X = gamePlay.getTripInfoX();
+        TRIP_INFO_Y = gamePlay.getTripInfoY();
         TRIP_INFO_OFFSET_1 = 30;
         TRIP_INFO_OFFSET_2 = 60;
         TRIP_INFO_OFFSET_3 = 90;
 
-        this.PLAYER_NAME = playerName;
-    }
+        METRICS_FONT = AssetCache.getFont(config.getFont(), gamePlay.getMetricsFontSize());
+        METRICS_X = gamePlay.getMetricsX();
+        METRICS_Y = gamePlay.getMetricsY();
+        METRICS_LINE_HEIGHT = gamePlay.getMetricsFontSize() + 2;
 
-    private List<WeatherCondition> loadWeatherConditions(String filePath) {
-        List<WeatherCondition> conditions = new ArrayList<>();
-        ArrayList<String[]> lines = IOUtils.readCommaSeperatedFile(filePath);
-        for (String[] line : lines) {
-            String type = line[0];
-            int startFrame = Integer.parseInt(line[1]);
-            int endFrame = Integer.parseInt(line[2]);
-            conditions.add(new WeatherCondition(type, startFrame, endFrame));
-        }
-        return conditions;
-    }
-
-    private void updateWeather() {
-        for (WeatherCondition condition : weatherConditions) {
-            if (currFrame >= condition.getStartFrame() && currFrame <= condition.getEndFrame()) {
-                if (condition.getType().equals("RAINY")) {
-                    currentBackground = rainyBackground;
-                } else {
-                    currentBackground = sunnyBackground;
-                }
-                break;
-            }
-        }
+        this.PLAYER_NAME = playerName;
     }
 
-
-
     /**
-     * Populate the game objects from the lines read from the game objects file.
-     * @param lines list of lines read from the game objects file. lines are processed into String arrays using comma as
-     *             delimiter.
+     * Populate the game objects from the objects read from the game objects file.
+     * @param levelIndex The objects of the level, sorted by y-coordinate.
      */
-    private void populateGameObjects(ArrayList<String[]> lines) {
+    private void populateGameObjects(LevelIndex levelIndex) {
 
         // two background images stacked in y-axis are used to create a scrolling effect
         background1 = new Background(
-                Integer.parseInt(GAME_PROPS.getProperty("window.width")) / 2,
-                Integer.parseInt(GAME_PROPS.getProperty("window.height")) / 2,
-                GAME_PROPS,
-                "backgroundImage"
+                CONFIG.getWindowWidth() / 2,
+                CONFIG.getWindowHeight() / 2,
+                CONFIG,
+                CAMERA,
+                CONFIG.getGamePlay().getBackgroundImage()
         );
         background2 = new Background(
-                Integer.parseInt(GAME_PROPS.getProperty("window.width")) / 2,
-                -1 * Integer.parseInt(GAME_PROPS.getProperty("window.height")) / 2,
-                GAME_PROPS,
-                "backgroundImage"
+                CONFIG.getWindowWidth() / 2,
+                -1 * CONFIG.getWindowHeight() / 2,
+                CONFIG,
+                CAMERA,
+                CONFIG.getGamePlay().getBackgroundImage()
         );
-        //enemyCars.add(new EnemyCar(GAME_PROPS));  // Add one enemy car statically at the beginning
-
-        // Since you haven't learned Lists in Java, we have to use two for loops to iterate over the lines.
-        int passengerCount = 0;
-        int coinCount = 0;
-        int invinciblePowerCount = 0;
-        for(String[] lineElement: lines) {
-            if(lineElement[0].equals(GameObjectType.PASSENGER.name())) {
-                passengerCount++;
-            } else if(lineElement[0].equals(GameObjectType.COIN.name())) {
-                coinCount++;
-            } else if (lineElement[0].equals(GameObjectType.INVINCIBLE_POWER.name())) {  // New case for InvinciblePower
-                invinciblePowerCount++;
-            }
-        }
-        passengers = new Passenger[passengerCount];
-        coins = new Coin[coinCount];
-        invinciblePowers = new InvinciblePower[invinciblePowerCount];
-
-        // process each line in the file
-        int passenger_idx = 0;
-        int coin_idx = 0;
-        int invinciblePower_idx = 0;
-        for(String[] lineElement: lines) {
-            int x = Integer.parseInt(lineElement[1]);
-            int y = Integer.parseInt(lineElement[2]);
-
-            if(lineElement[0].equals(GameObjectType.TAXI.name())) {
-                taxi = new Taxi(x, y, passengerCount, this.GAME_PROPS);
-                //AHHHHH
-                driver = new Driver(x, y, GAME_PROPS);  // pass taxi's x, y to the Driver constructor
-            } else if(lineElement[0].equals(GameObjectType.PASSENGER.name())) {
-                int priority = Integer.parseInt(lineElement[3]);
-                int travelEndX = Integer.parseInt(lineElement[4]);
-                int travelEndY = Integer.parseInt(lineElement[5]);
-                boolean hasUM = Boolean.parseBoolean(lineElement[6]);
-
-                Passenger passenger = new Passenger(x, y, priority, travelEndX, travelEndY, hasUM,  GAME_PROPS);
-                passengers[passenger_idx] = passenger;
-                passenger_idx++;
-
-            } else if(lineElement[0].equals(GameObjectType.COIN.name())) {
-                Coin coinPower = new Coin(x, y, this.GAME_PROPS);
-                coins[coin_idx] = coinPower;
-                coin_idx++;
-
-            } else if (lineElement[0].equals(GameObjectType.INVINCIBLE_POWER.name())) {  // Case for InvinciblePower
-                InvinciblePower invinciblePower = new InvinciblePower(x, y, GAME_PROPS);  // Use coordinates from the file
-                invinciblePowers[invinciblePower_idx] = invinciblePower;
-                invinciblePower_idx++;
-            }
+        //enemyCars.add(new EnemyCar(CONFIG));  // Add one enemy car statically at the beginning
+
+        if (levelIndex.getCount(GameObjectType.TAXI) > 0) {
+            int x = levelIndex.getTaxiX();
+            int y = levelIndex.getTaxiY();
+            taxi = new Taxi(x, y, EARNINGS, this.CONFIG, CAMERA, TAXI_RNG);
+            //AHHHHH
+            driver = new Driver(x, y, CONFIG);  // pass taxi's x, y to the Driver constructor
         }
+
+        // the objects already close to the screen are created straight away, the rest as the level scrolls
+        level = new LevelStreamer(levelIndex, CONFIG, CAMERA, POWER_UPS);
     }
 
     /**
@@ -238,82 +240,64 @@ public class GamePlayScreen{
      * Change the background image and change priorities based on the weather condition
      * Handle collision between game objects
      * Spawn new taxi if the active taxi is destroyed
+     * One call is one fixed simulation tick, so every frame counter counts ticks. Nothing is drawn here; see render.
+     * Every phase of the tick is timed by the profiler.
      * @param input
      * @return true if the game is finished, false otherwise
      */
 
 
-    public boolean update(Input input) {
+    public boolean update(InputSource input) {
+        long tickStart = PROFILER.start();
         currFrame++;
+        WORLD.setFrame(currFrame);
 
-        updateWeather();
+        // Remove traffic that was destroyed or left the screen in the last tick, so it is no longer updated or tested.
+        // The fire of a removed car keeps burning until it runs out, however many ticks run before the next render.
+        TRAFFIC.cull();
+        TRAFFIC.updateEffects();
 
-//        background1.update(input, background2);
-//        background2.update(input, background1);
-        currentBackground.update(input, background2);
-        background2.update(input, currentBackground);
+        WEATHER.update(currFrame);
+        long phaseStart = PROFILER.lap(FramePhase.WEATHER, tickStart);
 
-        for(Passenger passenger: passengers) {
-            passenger.updateWithTaxi(input, taxi);
-        }
-        for (InvinciblePower invinciblePower : invinciblePowers) {
-            invinciblePower.draw();
+        // create the objects the level has scrolled close to, and drop the ones it has scrolled past
+        level.stream();
+        phaseStart = PROFILER.lap(FramePhase.STREAMING, phaseStart);
 
+        // scrolling the level is one move of the camera, however many objects are in it
+        CAMERA.update(input);
+        background1.update(background2);
+        background2.update(background1);
+        phaseStart = PROFILER.lap(FramePhase.BACKGROUND, phaseStart);
+
+        for(Passenger passenger: level.getPassengers()) {
+            passenger.updateWithTaxi(taxi);
         }
+        phaseStart = PROFILER.lap(FramePhase.PASSENGERS, phaseStart);
 
 
         taxi.update(input,driver);
         driver.updateWithTaxi(input, taxi);
+        phaseStart = PROFILER.lap(FramePhase.TAXI, phaseStart);
 
-        for (InvinciblePower invinciblePower : invinciblePowers) {
-            invinciblePower.update(input.isDown(Keys.UP));
-            invinciblePower.collide(taxi);  // Check for collision with taxi
-            //invinciblePower.collide(driver);  // Check for collision with driver
-        }
-
-        // Render cars
-        for (Car car : cars) {
-            car.draw();
-
-            // Handle collision with Taxi
-            car.collide(taxi);
+        POWER_UPS.collideInvinciblePowers(taxi);
+        phaseStart = PROFILER.lap(FramePhase.POWER_UPS, phaseStart);
 
-            // Check for collision with other Cars
-            for (Car otherCar : cars) {
-                if (car != otherCar) {
-                    car.collideWithOtherCar(otherCar);
-                }
-            }
-
-            // Check for collision with EnemyCars
-            for (EnemyCar enemyCar : enemyCars) {
-                car.collideWithEnemyCar(enemyCar);
-            }
-        }
-
-        //Update and render EnemyCars
-        for (EnemyCar enemyCar : enemyCars) {
-            enemyCar.draw();
-
-            enemyCar.collide(taxi);
-        }
+        collideTraffic();
+        phaseStart = PROFILER.lap(FramePhase.COLLISIONS, phaseStart);
 
         // ** Car creation logic **
-        if (new Random().nextInt(1000) % 200 == 0) {  // Randomly create a car
-            cars.add(new Car(GAME_PROPS));
+        if (SPAWN_RNG.nextInt(1000) % 200 == 0) {  // Randomly create a car
+            TRAFFIC.spawn(GameObjectType.CAR);
         }
 
-        if (new Random().nextInt(1000) % 400 == 0) {
-            enemyCars.add(new EnemyCar(GAME_PROPS));
-        }
-        // Update existing cars
-        for (Car car : cars) {
-            car.update();
+        if (SPAWN_RNG.nextInt(1000) % 400 == 0) {
+            TRAFFIC.spawn(GameObjectType.ENEMY_CAR);
         }
+        phaseStart = PROFILER.lap(FramePhase.SPAWNING, phaseStart);
         // Update existing cars
-        for (EnemyCar enemyCar : enemyCars) {
-            enemyCar.update();
-        }
+        MOTION.update();
+        phaseStart = PROFILER.lap(FramePhase.TRAFFIC, phaseStart);
 
 
 
@@ -343,27 +327,59 @@ public class GamePlayScreen{
         //invinciblePower.collide(driver);
 
 
-        totalEarnings = taxi.calculateTotalEarnings();
+        coinFramesActive = POWER_UPS.updateCoins(taxi);
+        PROFILER.lap(FramePhase.COINS, phaseStart);
 
-        if(coins.length > 0) {
-            int minFramesActive = coins[0].getMaxFrames();
-            for(Coin coinPower: coins) {
-                coinPower.update(input);
-                coinPower.collide(taxi);
+        boolean isFinished = isGameOver() || isLevelCompleted();
+        PROFILER.lap(FramePhase.TICK, tickStart);
+        PROFILER.count(FrameCounter.CARS, TRAFFIC.getCount(GameObjectType.CAR));
+        PROFILER.count(FrameCounter.ENEMY_CARS, TRAFFIC.getCount(GameObjectType.ENEMY_CAR));
+        PROFILER.count(FrameCounter.LEVEL_OBJECTS, level.getActiveCount());
+        return isFinished;
 
-                // check if there's active coin and finding the coin with maximum ttl
-                int framesActive = coinPower.getFramesActive();
-                if(coinPower.getIsActive() && minFramesActive > framesActive) {
-                    minFramesActive = framesActive;
-                }
-            }
-            coinFramesActive = minFramesActive;
+    }
+
+    /**
+     * Handle collisions between the traffic and the taxi, and within the traffic.
+     */
+    public void collideTraffic() {
+        TRAFFIC.collide(taxi);
+    }
+
+    /**
+     * Render the current state of the game play. Every image is submitted to the render queue and drawn in layer order
+     * when the queue is flushed; text is drawn after that, so it stays on top.
+     * @param alpha The fraction of the next simulation tick that has passed. Scrolling objects and traffic are drawn
+     *              that far between their positions at the last two ticks, so motion is smooth at any refresh rate.
+     */
+    public void render(double alpha) {
+        long renderStart = PROFILER.start();
+        background1.draw(RENDER_QUEUE, alpha);
+        background2.draw(RENDER_QUEUE, alpha);
+
+        // the coins, invincible powers and traffic
+        RENDER.draw(RENDER_QUEUE, alpha);
+        TRAFFIC.drawEffects(RENDER_QUEUE);
+        for (Passenger passenger : level.getPassengers()) {
+            passenger.draw(RENDER_QUEUE, alpha);
         }
+        driver.draw(RENDER_QUEUE);
+        taxi.draw(RENDER_QUEUE, alpha);
 
-        displayInfo();
+        RENDER_QUEUE.flush();
+        long hudStart = PROFILER.lap(FramePhase.RENDER, renderStart);
 
-        return isGameOver() || isLevelCompleted();
+        for (Passenger passenger : level.getPassengers()) {
+            passenger.drawPriority();
+        }
+        displayInfo();
+        PROFILER.lap(FramePhase.HUD, hudStart);
 
+        PROFILER.count(FrameCounter.DRAW_COMMANDS, RENDER_QUEUE.getLastCommandCount());
+        PROFILER.count(FrameCounter.TEXTURE_SWITCHES, RENDER_QUEUE.getLastTextureSwitches());
+        if (isShowingMetrics) {
+            PROFILER.drawOverlay(METRICS_FONT, METRICS_X, METRICS_Y, METRICS_LINE_HEIGHT);
+        }
     }
 
 
@@ -371,15 +387,17 @@ public class GamePlayScreen{
      * Display the game information on the screen.
      */
     public void displayInfo() {
-        INFO_FONT.drawString(MSG_PROPS.getProperty("gamePlay.earnings") + getTotalEarnings(), EARNINGS_X, EARNINGS_Y);
-        INFO_FONT.drawString(MSG_PROPS.getProperty("gamePlay.target") + String.format("%.02f", TARGET), TARGET_X,
-                TARGET_Y);
-        INFO_FONT.drawString(MSG_PROPS.getProperty("gamePlay.remFrames") + (MAX_FRAMES - currFrame), MAX_FRAMES_X,
-                MAX_FRAMES_Y);
+        EARNINGS_TEXT.setValue(EARNINGS.getTotal());
+        INFO_FONT.drawString(EARNINGS_TEXT.getText(), EARNINGS_X, EARNINGS_Y);
+        INFO_FONT.drawString(TARGET_TEXT.getText(), TARGET_X, TARGET_Y);
+        REM_FRAMES_TEXT.setValue(MAX_FRAMES - currFrame);
+        INFO_FONT.drawString(REM_FRAMES_TEXT.getText(), MAX_FRAMES_X, MAX_FRAMES_Y);
 
         // Display taxi, driver, and passenger health at the top right
-        INFO_FONT.drawString("TAXI " + String.format("%.2f", taxi.getHealth()), TAXI_HEALTH_X, TAXI_HEALTH_Y);
-        INFO_FONT.drawString("DRIVER " + String.format("%.2f", driver.getHealth()), DRIVER_HEALTH_X, DRIVER_HEALTH_Y);
+        TAXI_HEALTH_TEXT.setValue(taxi.getHealth());
+        INFO_FONT.drawString(TAXI_HEALTH_TEXT.getText(), TAXI_HEALTH_X, TAXI_HEALTH_Y);
+        DRIVER_HEALTH_TEXT.setValue(driver.getHealth());
+        INFO_FONT.drawString(DRIVER_HEALTH_TEXT.getText(), DRIVER_HEALTH_X, DRIVER_HEALTH_Y);
         INFO_FONT.drawString("PASSENGER 100.00", PASSENGER_HEALTH_X, PASSENGER_HEALTH_Y);
 
 
@@ -387,8 +405,9 @@ public class GamePlayScreen{
 
 
 
-        if(coins.length > 0 && coins[0].getMaxFrames() != coinFramesActive) {
-            INFO_FONT.drawString(String.valueOf(Math.round(coinFramesActive)), COIN_X, COIN_Y);
+        if(COIN_MAX_FRAMES != coinFramesActive) {
+            COIN_FRAMES_TEXT.setValue(Math.round(coinFramesActive));
+            INFO_FONT.drawString(COIN_FRAMES_TEXT.getText(), COIN_X, COIN_Y);
 
         }
         // Draw the driver if not in the taxi
@@ -400,21 +419,138 @@ public class GamePlayScreen{
             } else {
                 INFO_FONT.drawString(MSG_PROPS.getProperty("gamePlay.onGoingTrip.title"), TRIP_INFO_X, TRIP_INFO_Y);
             }
-            INFO_FONT.drawString(MSG_PROPS.getProperty("gamePlay.trip.expectedEarning")
-                    + lastTrip.getPassenger().getTravelPlan().getExpectedFee(), TRIP_INFO_X, TRIP_INFO_Y
-                    + TRIP_INFO_OFFSET_1);
-            INFO_FONT.drawString(MSG_PROPS.getProperty("gamePlay.trip.priority")
-                    + lastTrip.getPassenger().getTravelPlan().getPriority(), TRIP_INFO_X, TRIP_INFO_Y
-                    + TRIP_INFO_OFFSET_2);
+            EXPECTED_FEE_TEXT.setValue(lastTrip.getPassenger().getTravelPlan().getExpectedFee());
+            INFO_FONT.drawString(EXPECTED_FEE_TEXT.getText(), TRIP_INFO_X, TRIP_INFO_Y + TRIP_INFO_OFFSET_1);
+            PRIORITY_TEXT.setValue(lastTrip.getPassenger().getTravelPlan().getPriority());
+            INFO_FONT.drawString(PRIORITY_TEXT.getText(), TRIP_INFO_X, TRIP_INFO_Y + TRIP_INFO_OFFSET_2);
             if(lastTrip.isComplete()) {
-                INFO_FONT.drawString(MSG_PROPS.getProperty("gamePlay.trip.penalty") + String.format("%.02f",
-                        lastTrip.getPenalty()), TRIP_INFO_X, TRIP_INFO_Y + TRIP_INFO_OFFSET_3);
+                PENALTY_TEXT.setValue(lastTrip.getPenalty());
+                INFO_FONT.drawString(PENALTY_TEXT.getText(), TRIP_INFO_X, TRIP_INFO_Y + TRIP_INFO_OFFSET_3);
             }
         }
     }
 
     public String getTotalEarnings() {
-        return String.format("%.02f", totalEarnings);
+        return String.format("%.02f", EARNINGS.getTotal());
+    }
+
+    /**
+     * Get the earnings of the session, with the breakdown of every completed trip.
+     * @return The earnings ledger.
+     */
+    public EarningsLedger getEarnings() {
+        return EARNINGS;
+    }
+
+    public long getSeed() {
+        return SEED;
+    }
+
+    /**
+     * Get the weather timeline of the session, e.g. to subscribe to the weather changes.
+     * @return The weather timeline.
+     */
+    public WeatherTimeline getWeather() {
+        return WEATHER;
+    }
+
+    public int getCurrFrame() {
+        return currFrame;
+    }
+
+    /**
+     * Get the profiler timing the phases of this session, to save its histograms or to time the whole frame.
+     * @return The profiler of this session.
+     */
+    public FrameProfiler getProfiler() {
+        return PROFILER;
+    }
+
+    /**
+     * Show or hide the per-phase timings and entity counts over the game play.
+     */
+    public void toggleMetricsOverlay() {
+        isShowingMetrics = !isShowingMetrics;
+    }
+
+    /**
+     * Set the score store the final score is saved to when the game ends. Simulated sessions leave it unset, so they
+     * do not fill the scores file with scores no player earned.
+     * @param scoreStore The score store, or null to not save the score.
+     */
+    public void setScoreStore(ScoreStore scoreStore) {
+        this.scoreStore = scoreStore;
+    }
+
+    /**
+     * Get the number of collision pair tests the broadphase grid skipped in the last frame, compared to testing every
+     * car against every other car, enemy car and the taxi.
+     * @return The number of pair tests saved in the last frame.
+     */
+    public int getPairTestsSaved() {
+        return TRAFFIC.getPairTestsSaved();
+    }
+
+    /**
+     * Spawn traffic on top of the random spawning, e.g. to hold the traffic at a fixed density in a load test.
+     * @param carCount The number of other cars to spawn.
+     * @param enemyCarCount The number of enemy cars to spawn.
+     */
+    public void spawnTraffic(int carCount, int enemyCarCount) {
+        for (int i = 0; i < carCount; i++) {
+            TRAFFIC.spawn(GameObjectType.CAR);
+        }
+        for (int i = 0; i < enemyCarCount; i++) {
+            TRAFFIC.spawn(GameObjectType.ENEMY_CAR);
+        }
+    }
+
+    /**
+     * Get the streamer that creates and drops the passengers, coins and invincible powers as the level scrolls.
+     * @return The level streamer.
+     */
+    public LevelStreamer getLevel() {
+        return level;
+    }
+
+    /**
+     * Get the camera the level is viewed through.
+     * @return The camera.
+     */
+    public Camera getCamera() {
+        return CAMERA;
+    }
+
+    public int getCarCount() {
+        return TRAFFIC.getCount(GameObjectType.CAR);
+    }
+
+    public int getEnemyCarCount() {
+        return TRAFFIC.getCount(GameObjectType.ENEMY_CAR);
+    }
+
+    /**
+     * Get the world the traffic, coins and invincible powers are entities of.
+     * @return The entity world.
+     */
+    public EntityWorld getWorld() {
+        return WORLD;
+    }
+
+    /**
+     * Get the traffic, e.g. for the spawned count and high-water mark metrics.
+     * @return The traffic system.
+     */
+    public TrafficSystem getTraffic() {
+        return TRAFFIC;
+    }
+
+    /**
+     * Get the coins and invincible powers in play.
+     * @return The power-up system.
+     */
+    public PowerUpSystem getPowerUps() {
+        return POWER_UPS;
     }
 
     /**
@@ -425,9 +561,9 @@ public class GamePlayScreen{
         // Game is over if the current frame is greater than the max frames
         boolean isGameOver = currFrame >= MAX_FRAMES;
 
-        if(currFrame >= MAX_FRAMES && !savedData) {
+        if(currFrame >= MAX_FRAMES && scoreStore != null && !savedData) {
             savedData = true;
-            IOUtils.writeLineToFile(GAME_PROPS.getProperty("gameEnd.scoresFile"), PLAYER_NAME + "," + totalEarnings);
+            scoreStore.submit(PLAYER_NAME, EARNINGS.getTotal());
         }
         return isGameOver;
     }
@@ -438,10 +574,10 @@ public class GamePlayScreen{
      */
     public boolean isLevelCompleted() {
         // Level is completed if the total earnings is greater than or equal to the target earnings
-        boolean isLevelCompleted = totalEarnings >= TARGET;
-        if(isLevelCompleted && !savedData) {
+        boolean isLevelCompleted = EARNINGS.getTotal() >= TARGET;
+        if(isLevelCompleted && scoreStore != null && !savedData) {
             savedData = true;
-            IOUtils.writeLineToFile(GAME_PROPS.getProperty("gameEnd.scoresFile"), PLAYER_NAME + "," + totalEarnings);
+            scoreStore.submit(PLAYER_NAME, EARNINGS.getTotal());
         }
         return isLevelCompleted;
     }
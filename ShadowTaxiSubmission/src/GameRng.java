@@ -0,0 +1,65 @@
+import java.util.SplittableRandom;
+
+/**
+ * The source of randomness for the game play. A session creates one root generator from a seed and splits an
+ * independent stream off it for every subsystem that needs random numbers, e.g. spawning, other cars and the taxi.
+ * A subsystem drawing more or fewer numbers therefore does not shift the numbers seen by the others, and a session
+ * started with the same seed and the same input plays out exactly the same. Drawing a number does not allocate.
+ */
+public class GameRng {
+
+    private final SplittableRandom RANDOM;
+
+    /**
+     * Constructs a root generator.
+     * @param seed The seed of the session.
+     */
+    public GameRng(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private GameRng(SplittableRandom random) {
+        this.RANDOM = random;
+    }
+
+    /**
+     * Split off an independent stream for a subsystem. Streams must be split in the same order every session for
+     * the session to be reproducible.
+     * @return The new stream.
+     */
+    public GameRng split() {
+        return new GameRng(RANDOM.split());
+    }
+
+    /**
+     * Get a random integer from 0 (inclusive) to the bound (exclusive).
+     * @param bound The upper bound, must be positive.
+     * @return The random integer.
+     */
+    public int nextInt(int bound) {
+        return RANDOM.nextInt(bound);
+    }
+
+    /**
+     * Get a random integer from the origin (inclusive) to the bound (exclusive).
+     * @param origin The lower bound.
+     * @param bound The upper bound, must be greater than the origin.
+     * @return The random integer.
+     */
+    public int nextInt(int origin, int bound) {
+        return RANDOM.nextInt(origin, bound);
+    }
+
+    public boolean nextBoolean() {
+        return RANDOM.nextBoolean();
+    }
+
+    /**
+     * Pick a random element of an array.
+     * @param values The array to pick from, must not be empty.
+     * @return The picked element.
+     */
+    public int pick(int[] values) {
+        return values[RANDOM.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.Properties;
+
+/**
+ * Replays a recorded game play session without a window, as fast as the game logic allows.
+ * The session is rebuilt from the seed in the input log and driven by the recorded input, so it plays out exactly as
+ * it did when it was recorded. Replaying it several times gives a fixed workload for comparing frame times between
+ * builds, or for reproducing a slow session reported by a player.
+ */
+public class HeadlessReplay {
+
+    private static final int DEFAULT_REPEATS = 1;
+
+    /**
+     * Replay a recorded session a number of times and report its outcome, followed by the throughput.
+     * @param args The input log to replay, optionally followed by the number of times to replay it and a file to save
+     *             the tick timings of every replay to, as CSV or, if it ends in .json, as JSON.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("usage: HeadlessReplay <input log> [repeats] [metrics file]");
+            System.exit(-1);
+        }
+        InputLog log = InputLog.load(args[0]);
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REPEATS;
+        String metricsFile = args.length > 2 ? args[2] : null;
+
+        GameConfig config = GameConfig.load("res/app.properties");
+        Properties messageProps = IOUtils.readPropertiesFile("res/message_en.properties");
+        GameLog.configure(config);
+        AssetCache.setHeadless(true);
+
+        System.out.println("replaying " + log.getTickCount() + " ticks (" + log.getRunCount() + " input runs), seed "
+                + log.getSeed());
+
+        long totalTicks = 0;
+        FrameProfiler profiler = new FrameProfiler();
+        long start = System.nanoTime();
+        for (int i = 0; i < repeats; i++) {
+            GamePlayScreen session = new GamePlayScreen(config, messageProps, "replay", log.getSeed());
+            ReplayInput input = new ReplayInput(log);
+
+            boolean isFinished = false;
+            while (!isFinished) {
+                input.advance();
+                if (input.isFinished()) {
+                    break;
+                }
+                isFinished = session.update(input);
+            }
+
+            totalTicks += session.getCurrFrame();
+            long trafficSpawned = session.getTraffic().getSpawnedCount(GameObjectType.CAR)
+                    + session.getTraffic().getSpawnedCount(GameObjectType.ENEMY_CAR);
+            System.out.println("replay " + i + ": earnings " + session.getTotalEarnings() + ", ticks "
+                    + session.getCurrFrame() + ", traffic spawned " + trafficSpawned
+                    + (isFinished ? "" : " (recording ended before the game)"));
+            profiler.merge(session.getProfiler());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d replays, %d ticks in %.2f s: %.0f ticks/s%n",
+                repeats, totalTicks, seconds, totalTicks / seconds);
+        LatencyHistogram tickTimes = profiler.getPhaseTimes(FramePhase.TICK);
+        System.out.printf("tick time p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                tickTimes.getValueAtPercentile(50) / 1e3, tickTimes.getValueAtPercentile(99) / 1e3,
+                tickTimes.getMax() / 1e3);
+        if (metricsFile != null) {
+            profiler.save(metricsFile);
+        }
+        GameLog.flush();
+    }
+}
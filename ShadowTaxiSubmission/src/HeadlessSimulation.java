@@ -0,0 +1,96 @@
+import bagel.Keys;
+
+import java.util.Properties;
+
+/**
+ * Runs game play sessions without a window, as fast as the game logic allows.
+ * No assets are loaded and nothing is drawn; the taxi is driven by a scripted input instead of the keyboard, and
+ * scores are not written to the scores file. Useful for soak testing the game logic and measuring its throughput.
+ * Before the sessions, one scripted trip picks up the first passenger of the level and drops them off, and the run
+ * fails if it earns nothing, so a change that breaks picking up, the trip or the fee is caught, not just a crash.
+ */
+public class HeadlessSimulation {
+
+    private static final int DEFAULT_SESSIONS = 10;
+    private static final long DEFAULT_SEED = 1;
+    private static final int DRIVE_FRAMES = 120;
+    private static final int STOP_FRAMES = 60;
+
+    // the first passenger waits in the lane at x 280, 700 pixels up the road, for a trip 700 pixels further up. The
+    // taxi starts at x 500 and steers 1 pixel a frame, and drives up 5 pixels a frame. A key is released a frame
+    // before the next one is pressed, since the taxi only handles one key change a frame
+    private static final int TRIP_STEER_FRAMES = 220;
+    private static final int TRIP_DRIVE_FRAMES = 140;
+    private static final int TRIP_WAIT_FRAMES = 60;  // the passenger walks to the stopped taxi and gets in
+    private static final int TRIP_FRAMES = 1000;
+
+    /**
+     * Run a number of sessions one after another and report the outcome of each, followed by the throughput.
+     * Session i is seeded with the seed plus i, so running again with the same arguments gives the same outcomes.
+     * @param args Optionally, the number of sessions to run, followed by the seed.
+     */
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SESSIONS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SEED;
+
+        GameConfig config = GameConfig.load("res/app.properties");
+        Properties messageProps = IOUtils.readPropertiesFile("res/message_en.properties");
+        GameLog.configure(config);
+        AssetCache.setHeadless(true);
+
+        if (!runTrip(config, messageProps, seed)) {
+            System.err.println("the scripted trip earned nothing");
+            System.exit(-1);
+        }
+
+        long totalFrames = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            GamePlayScreen session = new GamePlayScreen(config, messageProps, "simulation-" + i, seed + i);
+            ScriptedInput input = ScriptedInput.cruise(DRIVE_FRAMES, STOP_FRAMES);
+
+            boolean isFinished = false;
+            while (!isFinished) {
+                input.advance();
+                isFinished = session.update(input);
+            }
+
+            totalFrames += session.getCurrFrame();
+            long trafficSpawned = session.getTraffic().getSpawnedCount(GameObjectType.CAR)
+                    + session.getTraffic().getSpawnedCount(GameObjectType.ENEMY_CAR);
+            System.out.println("session " + i + " (seed " + session.getSeed() + "): earnings "
+                    + session.getTotalEarnings() + ", frames " + session.getCurrFrame() + ", traffic spawned "
+                    + trafficSpawned + (session.isLevelCompleted() ? ", won" : ", lost"));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d sessions, %d frames in %.2f s: %.1f sessions/min, %.0f frames/s%n",
+                sessions, totalFrames, seconds, sessions * 60 / seconds, totalFrames / seconds);
+        GameLog.flush();
+    }
+
+    /**
+     * Run the scripted trip with the first passenger and report what it earned.
+     * @param config The game configuration.
+     * @param messageProps The game messages.
+     * @param seed The seed of the session.
+     * @return true if the trip earned anything, false otherwise.
+     */
+    private static boolean runTrip(GameConfig config, Properties messageProps, long seed) {
+        GamePlayScreen session = new GamePlayScreen(config, messageProps, "simulation-trip", seed);
+        int pickUpFrame = TRIP_STEER_FRAMES + 1 + TRIP_DRIVE_FRAMES + TRIP_WAIT_FRAMES;
+        ScriptedInput input = new ScriptedInput()
+                .hold(Keys.LEFT, 0, TRIP_STEER_FRAMES - 1)
+                .hold(Keys.UP, TRIP_STEER_FRAMES + 1, TRIP_STEER_FRAMES + TRIP_DRIVE_FRAMES)
+                .hold(Keys.UP, pickUpFrame, pickUpFrame + TRIP_DRIVE_FRAMES - 1);
+
+        boolean isFinished = false;
+        while (!isFinished && session.getCurrFrame() < TRIP_FRAMES) {
+            input.advance();
+            isFinished = session.update(input);
+        }
+        System.out.println("trip (seed " + session.getSeed() + "): earnings " + session.getTotalEarnings()
+                + ", frames " + session.getCurrFrame());
+        return session.getEarnings().getTotal() > 0;
+    }
+}
@@ -7,26 +7,25 @@ import java.util.Properties;
  * */
 public class HomeScreen {
 
-    private final Image BACKGROUND_IMAGE;
+    private final Sprite BACKGROUND_IMAGE;
     private final String TITLE;
     private final String INSTRUCTION;
-    private final Font TITLE_FONT;
-    private final Font INSTRUCTION_FONT;
+    private final SpriteFont TITLE_FONT;
+    private final SpriteFont INSTRUCTION_FONT;
     private final int TITLE_Y;
     private final int INSTRUCTION_Y;
 
-    public HomeScreen(Properties gameProps, Properties msgProps) {
-        BACKGROUND_IMAGE = new Image(gameProps.getProperty("backgroundImage.home"));
+    public HomeScreen(GameConfig config, Properties msgProps) {
+        GameConfig.HomeConfig home = config.getHome();
+        BACKGROUND_IMAGE = AssetCache.getImage(home.getBackgroundImage());
 
         TITLE = msgProps.getProperty("home.title");
-        TITLE_FONT = new Font(gameProps.getProperty("font"),
-                Integer.parseInt(gameProps.getProperty("home.title.fontSize")));
-        TITLE_Y = Integer.parseInt(gameProps.getProperty("home.title.y"));
+        TITLE_FONT = AssetCache.getFont(config.getFont(), home.getTitleFontSize());
+        TITLE_Y = home.getTitleY();
 
         INSTRUCTION = msgProps.getProperty("home.instruction");
-        INSTRUCTION_FONT = new Font(gameProps.getProperty("font"),
-                Integer.parseInt(gameProps.getProperty("home.instruction.fontSize")));
-        INSTRUCTION_Y = Integer.parseInt(gameProps.getProperty("home.instruction.y"));
+        INSTRUCTION_FONT = AssetCache.getFont(config.getFont(), home.getInstructionFontSize());
+        INSTRUCTION_Y = home.getInstructionY();
     }
 
     /**
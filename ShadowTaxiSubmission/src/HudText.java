@@ -0,0 +1,61 @@
+/**
+ * A line of HUD text made of a fixed label followed by a value, e.g. "TAXI 100.00".
+ * The formatted text is memoised and only rebuilt when the value changes, so drawing an unchanged value every frame
+ * does not format or concatenate any strings.
+ */
+public class HudText {
+
+    private final String LABEL;
+    private final String FORMAT;
+
+    private double value;
+    private boolean isDirty;
+    private String text;
+
+    /**
+     * Constructs a HUD text field.
+     * @param label The fixed text shown before the value.
+     * @param format The String.format pattern for the value (applied to a double). If null, the value is shown the
+     *               way a float is converted to a string.
+     */
+    public HudText(String label, String format) {
+        this.LABEL = label;
+        this.FORMAT = format;
+        this.isDirty = true;
+    }
+
+    /**
+     * Set the value shown after the label. The text is marked dirty only if the value is different.
+     * @param value The new value.
+     * @return true if the value changed, false otherwise.
+     */
+    public boolean setValue(double value) {
+        if (!isDirty && Double.compare(this.value, value) == 0) {
+            return false;
+        }
+        this.value = value;
+        this.isDirty = true;
+        return true;
+    }
+
+    /**
+     * Get the text to draw, formatting it again only if the value has changed since it was last formatted.
+     * @return The label followed by the formatted value.
+     */
+    public String getText() {
+        if (isDirty) {
+            String formatted = FORMAT == null ? String.valueOf((float) value) : String.format(FORMAT, value);
+            text = LABEL + formatted;
+            isDirty = false;
+        }
+        return text;
+    }
+
+    /**
+     * Check if the value has changed since the text was last formatted.
+     * @return true if the text needs formatting again, false otherwise.
+     */
+    public boolean isDirty() {
+        return isDirty;
+    }
+}
@@ -0,0 +1,185 @@
+import bagel.Keys;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * A recording of the keyboard input of a game play session, one entry per simulation tick, together with the seed of
+ * the session. Since a session is fully determined by its seed and its input, replaying the log reproduces the
+ * session exactly.
+ * The state of a tick is packed into 12 bits (down, pressed and released for each of the keys the game play reads),
+ * and consecutive ticks with the same state are stored as one run, so a long drive down the road takes a few bytes.
+ */
+public class InputLog {
+
+    private static final int MAGIC = 0x53544C47;  // "STLG"
+    private static final int VERSION = 1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final int DOWN_BIT = 0;
+    private static final int PRESSED_BIT = 1;
+    private static final int RELEASED_BIT = 2;
+    private static final int BITS_PER_KEY = 3;
+    private static final LogSite SAVE_LOG = new LogSite("InputLog.save", 0);
+
+    private final long SEED;
+    private short[] runStates = new short[INITIAL_CAPACITY];
+    private int[] runLengths = new int[INITIAL_CAPACITY];
+    private int runCount;
+    private int tickCount;
+
+    /**
+     * Constructs an empty log.
+     * @param seed The seed of the session being recorded.
+     */
+    public InputLog(long seed) {
+        this.SEED = seed;
+    }
+
+    /**
+     * Record the input of the next tick.
+     * @param input The input the tick is run with.
+     */
+    public void record(InputSource input) {
+        short state = encode(input);
+        if (runCount > 0 && runStates[runCount - 1] == state) {
+            runLengths[runCount - 1]++;
+        } else {
+            if (runCount == runStates.length) {
+                runStates = Arrays.copyOf(runStates, runCount * 2);
+                runLengths = Arrays.copyOf(runLengths, runCount * 2);
+            }
+            runStates[runCount] = state;
+            runLengths[runCount] = 1;
+            runCount++;
+        }
+        tickCount++;
+    }
+
+    public long getSeed() {
+        return SEED;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public int getRunCount() {
+        return runCount;
+    }
+
+    int getRunState(int run) {
+        return runStates[run];
+    }
+
+    int getRunLength(int run) {
+        return runLengths[run];
+    }
+
+    /**
+     * Write the log to a file.
+     * @param filename The name of the file.
+     */
+    public void save(String filename) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(SEED);
+            out.writeInt(tickCount);
+            out.writeInt(runCount);
+            for (int i = 0; i < runCount; i++) {
+                out.writeShort(runStates[i]);
+                writeVarInt(out, runLengths[i]);
+            }
+        } catch (IOException e) {
+            GameLog.error(SAVE_LOG, "could not save the input log to " + filename, e);
+        }
+    }
+
+    /**
+     * Read a log from a file.
+     * @param filename The name of the file.
+     * @return The log.
+     */
+    public static InputLog load(String filename) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException(filename + " is not an input log");
+            }
+            InputLog log = new InputLog(in.readLong());
+            int tickCount = in.readInt();
+            int runCount = in.readInt();
+            log.runStates = new short[Math.max(runCount, 1)];
+            log.runLengths = new int[Math.max(runCount, 1)];
+            for (int i = 0; i < runCount; i++) {
+                log.runStates[i] = in.readShort();
+                log.runLengths[i] = readVarInt(in);
+            }
+            log.runCount = runCount;
+            log.tickCount = tickCount;
+            return log;
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+        return null;
+    }
+
+    /**
+     * Pack the state of the keys the game play reads into the bits of a tick.
+     * @param input The input to read.
+     * @return The packed state.
+     */
+    static short encode(InputSource input) {
+        int state = 0;
+        for (int i = 0; i < LatchedInput.KEYS.length; i++) {
+            Keys key = LatchedInput.KEYS[i];
+            int shift = i * BITS_PER_KEY;
+            state |= (input.isDown(key) ? 1 : 0) << (shift + DOWN_BIT);
+            state |= (input.wasPressed(key) ? 1 : 0) << (shift + PRESSED_BIT);
+            state |= (input.wasReleased(key) ? 1 : 0) << (shift + RELEASED_BIT);
+        }
+        return (short) state;
+    }
+
+    static boolean isDown(int state, Keys key) {
+        return hasBit(state, key, DOWN_BIT);
+    }
+
+    static boolean wasPressed(int state, Keys key) {
+        return hasBit(state, key, PRESSED_BIT);
+    }
+
+    static boolean wasReleased(int state, Keys key) {
+        return hasBit(state, key, RELEASED_BIT);
+    }
+
+    private static boolean hasBit(int state, Keys key, int bit) {
+        for (int i = 0; i < LatchedInput.KEYS.length; i++) {
+            if (LatchedInput.KEYS[i] == key) {
+                return (state >> (i * BITS_PER_KEY + bit) & 1) != 0;
+            }
+        }
+        // keys the game play does not read are never recorded
+        return false;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
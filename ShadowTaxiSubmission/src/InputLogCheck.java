@@ -0,0 +1,60 @@
+import bagel.Keys;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Checks that an input log comes back from its file exactly as it was recorded: the same seed, the same number of
+ * ticks and the same runs, each with the same key state and length.
+ * The recorded script has runs of a single tick around each key change as well as long holds, so run lengths of one
+ * byte and of several bytes are both written and read back.
+ */
+public class InputLogCheck {
+
+    private static final long SEED = 1;
+    private static final int TICKS = 2000;
+
+    /**
+     * Record a scripted input, save it, load it back and compare. Exits with an error if anything differs.
+     * @param args Not used.
+     */
+    public static void main(String[] args) throws IOException {
+        ScriptedInput input = new ScriptedInput()
+                .hold(Keys.LEFT, 0, 299)
+                .hold(Keys.UP, 301, 400)
+                .hold(Keys.RIGHT, 350, 352)
+                .hold(Keys.UP, 405, 405);
+        InputLog recorded = new InputLog(SEED);
+        for (int i = 0; i < TICKS; i++) {
+            input.advance();
+            recorded.record(input);
+        }
+
+        File file = File.createTempFile("InputLogCheck", ".log");
+        file.deleteOnExit();
+        recorded.save(file.getPath());
+        InputLog loaded = InputLog.load(file.getPath());
+
+        if (loaded.getSeed() != recorded.getSeed() || loaded.getTickCount() != recorded.getTickCount()
+                || loaded.getRunCount() != recorded.getRunCount()) {
+            fail("the loaded log has seed " + loaded.getSeed() + ", " + loaded.getTickCount() + " ticks and "
+                    + loaded.getRunCount() + " runs, recorded were seed " + recorded.getSeed() + ", "
+                    + recorded.getTickCount() + " ticks and " + recorded.getRunCount() + " runs");
+        }
+        for (int i = 0; i < recorded.getRunCount(); i++) {
+            if (loaded.getRunState(i) != recorded.getRunState(i)
+                    || loaded.getRunLength(i) != recorded.getRunLength(i)) {
+                fail("run " + i + " was recorded as state " + recorded.getRunState(i) + " for "
+                        + recorded.getRunLength(i) + " ticks, loaded as state " + loaded.getRunState(i) + " for "
+                        + loaded.getRunLength(i) + " ticks");
+            }
+        }
+        System.out.println("input log round trip: " + recorded.getTickCount() + " ticks in " + recorded.getRunCount()
+                + " runs, " + file.length() + " bytes");
+    }
+
+    private static void fail(String message) {
+        System.err.println(message);
+        System.exit(-1);
+    }
+}
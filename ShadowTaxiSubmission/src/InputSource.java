@@ -0,0 +1,33 @@
+import bagel.Keys;
+
+/**
+ * The InputSource interface defines the keyboard state the game play logic reads every frame.
+ * It is implemented by the real bagel window input as well as by scripted input, so the same game logic can be driven
+ * without a window.
+ */
+public interface InputSource {
+
+    /**
+     * Checks if a key is currently held down.
+     *
+     * @param key The key to check.
+     * @return true if the key is down; false otherwise.
+     */
+    boolean isDown(Keys key);
+
+    /**
+     * Checks if a key was pressed in this frame.
+     *
+     * @param key The key to check.
+     * @return true if the key went down in this frame; false otherwise.
+     */
+    boolean wasPressed(Keys key);
+
+    /**
+     * Checks if a key was released in this frame.
+     *
+     * @param key The key to check.
+     * @return true if the key went up in this frame; false otherwise.
+     */
+    boolean wasReleased(Keys key);
+}
@@ -0,0 +1,58 @@
+import bagel.Keys;
+
+/**
+ * An InputSource that holds on to key presses and releases until a simulation tick has seen them.
+ * With a fixed-timestep clock a rendered frame can run no tick at all, or several. Reading the keyboard directly, a
+ * press in a frame without a tick would be lost and a press in a frame with two ticks would be seen twice. Instead,
+ * the keyboard is latched once per rendered frame and its presses and releases are consumed by the next tick.
+ */
+public class LatchedInput implements InputSource {
+
+    // the keys the game play reads
+    static final Keys[] KEYS = {Keys.UP, Keys.DOWN, Keys.LEFT, Keys.RIGHT};
+
+    private final boolean[] DOWN = new boolean[Keys.values().length];
+    private final boolean[] PRESSED = new boolean[Keys.values().length];
+    private final boolean[] RELEASED = new boolean[Keys.values().length];
+
+    /**
+     * Latch the keyboard of the current frame. Presses and releases are added to the ones not yet consumed.
+     * @param source The keyboard input of the current frame.
+     */
+    public void latch(InputSource source) {
+        for (Keys key : KEYS) {
+            int index = key.ordinal();
+            DOWN[index] = source.isDown(key);
+            PRESSED[index] |= source.wasPressed(key);
+            RELEASED[index] |= source.wasReleased(key);
+        }
+    }
+
+    /**
+     * Mark the latched presses and releases as seen. Called after every simulation tick.
+     */
+    public void consume() {
+        for (Keys key : KEYS) {
+            PRESSED[key.ordinal()] = false;
+            RELEASED[key.ordinal()] = false;
+        }
+    }
+
+    @Override
+    public boolean isDown(Keys key) {
+        return DOWN[key.ordinal()];
+    }
+
+    @Override
+    public boolean wasPressed(Keys key) {
+        // if the key was pressed and released before a tick saw either, only the last one counts
+        int index = key.ordinal();
+        return PRESSED[index] && (DOWN[index] || !RELEASED[index]);
+    }
+
+    @Override
+    public boolean wasReleased(Keys key) {
+        int index = key.ordinal();
+        return RELEASED[index] && (!DOWN[index] || !PRESSED[index]);
+    }
+}
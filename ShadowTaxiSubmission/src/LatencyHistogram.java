@@ -0,0 +1,124 @@
+import java.util.Arrays;
+
+/**
+ * A histogram of non-negative values, e.g. phase times in nanoseconds or entity counts, with log-linear buckets in the
+ * style of an HDR histogram. Every power of two is split into the same number of equal buckets, so any recorded value
+ * is known to within about 6% of itself, from a single nanosecond up to hours, in a fixed table of counts.
+ * Recording a value does not allocate.
+ */
+public class LatencyHistogram {
+
+    // 2^4 = 16 buckets per power of two
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] COUNTS = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Record a value. Negative values are recorded as 0.
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        COUNTS[indexOf(value)]++;
+        count++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Add every value recorded by another histogram to this one.
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            COUNTS[i] += other.COUNTS[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Get the value below which the given fraction of the recorded values lie. The value is the upper bound of the
+     * bucket it falls into, so it is never lower than the exact percentile.
+     * @param percentile The percentile, from 0 to 100.
+     * @return The value at the percentile, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += COUNTS[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, upperBoundOf(i)));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Forget every recorded value.
+     */
+    public void reset() {
+        Arrays.fill(COUNTS, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    // values below SUB_BUCKETS get a bucket each; above that, the bucket is picked by the position of the highest bit
+    // and the SUB_BUCKET_BITS bits below it
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = SUB_BUCKETS + index % SUB_BUCKETS;
+        long upperBound = ((mantissa + 1) << shift) - 1;
+        // the bound of the highest bucket does not fit in a long
+        return upperBound < 0 ? Long.MAX_VALUE : upperBound;
+    }
+}
@@ -0,0 +1,463 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * The leaderboard of every game play, kept as an append-only log of scores with a persisted index beside it.
+ * The log is the scores file, one "name,score" line per game play, which the game only ever appends to.
+ * The index file (the scores file name with ".idx" added) holds only the top scores and how much of the log they
+ * cover, so opening the leaderboard reads a handful of lines and then only the lines appended since, and the game end
+ * screen does not read and sort every score ever made.
+ * The top scores are a min-heap of fixed size, so adding a score costs O(log K) for K top scores.
+ * The best score of every player is kept out of the index, in the bests file (the scores file name with ".best"
+ * added), which is only written when the log is compacted and only read when a best score is asked for. Once the log
+ * has grown to several times the size it was compacted to, it is compacted down to the best score of every player
+ * and the top scores.
+ * Every file but the log is replaced whole: it is written to a temporary file, forced to disk, and only then moved
+ * over the old one, so a crash leaves either the old file or the new one.
+ */
+public class Leaderboard {
+
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String BESTS_SUFFIX = ".best";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String INDEX_HEADER = "leaderboard";
+    private static final String BESTS_HEADER = "leaderboard-bests";
+    private static final int INDEX_VERSION = 2;
+    private static final String TOP_RECORD = "T";
+    private static final String BEST_RECORD = "B";
+
+    // compact once the log has this many lines and has grown to more than four times the lines it was compacted to
+    private static final long COMPACT_MIN_ROWS = 10000;
+    private static final int COMPACT_RATIO = 4;
+
+    private static final LogSite INDEX_LOG = new LogSite("Leaderboard.index", 0);
+    private static final LogSite ROW_LOG = new LogSite("Leaderboard.row", 1000);
+
+    // lowest first: a lower score, or the same score made later, is the first to leave the top scores
+    private static final Comparator<Entry> RANK = (a, b) -> {
+        int byScore = Double.compare(a.SCORE.getScore(), b.SCORE.getScore());
+        return byScore != 0 ? byScore : Long.compare(b.ROW, a.ROW);
+    };
+
+    private final String LOG_FILE;
+    private final String INDEX_FILE;
+    private final String BESTS_FILE;
+    private final int TOP_COUNT;
+    private final PriorityQueue<Entry> TOP;
+    private Map<String, Entry> bests;  // null until a best score is asked for
+
+    private long logLength;  // bytes of the log covered, always the end of a complete line
+    private long rowCount;
+    // the log as it was when last compacted, which the bests file covers
+    private long compactedLength;
+    private long compactedRows;
+
+    private Leaderboard(String logFile, int topCount) {
+        this.LOG_FILE = logFile;
+        this.INDEX_FILE = logFile + INDEX_SUFFIX;
+        this.BESTS_FILE = logFile + BESTS_SUFFIX;
+        this.TOP_COUNT = topCount;
+        this.TOP = new PriorityQueue<>(topCount + 1, RANK);
+    }
+
+    /**
+     * Open the leaderboard of a scores file, bringing its index up to date with the lines appended since it was saved.
+     * The index is rebuilt from the whole file if it is missing, cannot be read, or no longer matches the file.
+     * @param filename The name of the scores file.
+     * @param topCount The number of top scores to keep.
+     * @return The leaderboard.
+     */
+    public static Leaderboard open(String filename, int topCount) {
+        Leaderboard leaderboard = new Leaderboard(filename, topCount);
+        File log = new File(filename);
+        long length = log.length();
+        // an index covering more than the file is for a file that has since been replaced
+        boolean isIndexed = leaderboard.readIndex() && leaderboard.logLength <= length;
+        if (!isIndexed) {
+            leaderboard.clear();
+        }
+        long indexedLength = leaderboard.logLength;
+        if (length > indexedLength) {
+            leaderboard.readLog();
+        }
+
+        if (leaderboard.rowCount >= COMPACT_MIN_ROWS
+                && leaderboard.rowCount > COMPACT_RATIO * leaderboard.compactedRows) {
+            leaderboard.compact();
+        } else if (!isIndexed || leaderboard.logLength != indexedLength) {
+            leaderboard.writeIndex();
+        }
+        return leaderboard;
+    }
+
+    /**
+     * Add a score to the leaderboard. The score is not written to the scores file: it is for a line already there.
+     * @param score The score.
+     */
+    public void add(Score score) {
+        add(new Entry(score, rowCount));
+        rowCount++;
+    }
+
+    /**
+     * Get the top scores, highest first, with the earlier score first when two are equal.
+     * @return An array of the number of top scores kept, padded with null if there are fewer scores.
+     */
+    public Score[] getTopScores() {
+        Entry[] entries = TOP.toArray(new Entry[0]);
+        Arrays.sort(entries, RANK.reversed());
+        Score[] scores = new Score[TOP_COUNT];
+        for (int i = 0; i < entries.length; i++) {
+            scores[i] = entries[i].SCORE;
+        }
+        return scores;
+    }
+
+    /**
+     * Get the best score of a player. The first call reads the bests file and the lines of the log after it.
+     * @param playerName The name of the player.
+     * @return The highest score of the player, or null if the player has no score.
+     */
+    public Score getBestScore(String playerName) {
+        Entry best = loadBests().get(playerName);
+        return best == null ? null : best.SCORE;
+    }
+
+    /**
+     * Get the number of players with a score. The first call reads the bests file and the lines of the log after it.
+     * @return The number of players.
+     */
+    public int getPlayerCount() {
+        return loadBests().size();
+    }
+
+    /**
+     * Get the number of scores in the scores file.
+     * @return The number of lines of the scores file.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Format a score as a line of the scores file, with the score to the cent as the game shows it.
+     * @param playerName The name of the player.
+     * @param score The score.
+     * @return The line, without a line break.
+     */
+    public static String formatScore(String playerName, double score) {
+        return playerName + "," + String.format(Locale.ROOT, "%.02f", score);
+    }
+
+    private void add(Entry entry) {
+        if (TOP.size() < TOP_COUNT) {
+            TOP.add(entry);
+        } else if (TOP_COUNT > 0 && RANK.compare(entry, TOP.peek()) > 0) {
+            TOP.poll();
+            TOP.add(entry);
+        }
+        if (bests != null) {
+            addBest(entry);
+        }
+    }
+
+    private void addBest(Entry entry) {
+        String playerName = entry.SCORE.getPlayerName();
+        Entry best = bests.get(playerName);
+        if (best == null || RANK.compare(entry, best) > 0) {
+            bests.put(playerName, entry);
+        }
+    }
+
+    private void clear() {
+        TOP.clear();
+        bests = null;
+        logLength = 0;
+        rowCount = 0;
+        compactedLength = 0;
+        compactedRows = 0;
+    }
+
+    /**
+     * Read the lines of the log after the part already covered.
+     */
+    private void readLog() {
+        logLength = readLog(logLength, Long.MAX_VALUE, rowCount, (score, row) -> {
+            add(new Entry(score, row));
+            rowCount = row + 1;
+        });
+    }
+
+    /**
+     * Read the complete lines of the log from one offset up to another. A last line with no line break is left for
+     * the next time, since it may be a line still being written.
+     * @param from The offset of the first line, the end of a complete line.
+     * @param to The offset to stop at, the end of a complete line.
+     * @param firstRow The row of the first score read.
+     * @param handler Given every score read, with its row.
+     * @return The offset after the last complete line read.
+     */
+    private long readLog(long from, long to, long firstRow, ObjLongConsumer<Score> handler) {
+        long offset = from;
+        long row = firstRow;
+        try (FileInputStream file = new FileInputStream(LOG_FILE)) {
+            file.getChannel().position(from);
+            InputStream in = new BufferedInputStream(file);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while (offset < to && (b = in.read()) != -1) {
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                offset += line.size() + 1;
+                Score score = parseScore(line.toString(StandardCharsets.UTF_8.name()).trim());
+                if (score != null) {
+                    handler.accept(score, row++);
+                } else if (line.size() > 0) {
+                    GameLog.warn(ROW_LOG, "skipped a malformed line in the scores file");
+                }
+                line.reset();
+            }
+        } catch (FileNotFoundException e) {
+            // no game has been played yet
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(-1);
+        }
+        return offset;
+    }
+
+    private static Score parseScore(String line) {
+        int comma = line.lastIndexOf(',');
+        if (comma < 0) {
+            return null;
+        }
+        try {
+            return new Score(line.substring(0, comma), Double.parseDouble(line.substring(comma + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // a record of the index or the bests file: record type, row, then the score, whose player name may hold a comma
+    private static String formatRecord(String type, Entry entry) {
+        return type + "," + entry.ROW + "," + formatScore(entry.SCORE.getPlayerName(), entry.SCORE.getScore()) + "\n";
+    }
+
+    private static Entry parseRecord(String type, String line) {
+        int first = line.indexOf(',');
+        int second = line.indexOf(',', first + 1);
+        Score score = parseScore(line.substring(second + 1));
+        if (score == null || !line.substring(0, first).equals(type)) {
+            return null;
+        }
+        return new Entry(score, Long.parseLong(line.substring(first + 1, second)));
+    }
+
+    /**
+     * Read the saved index.
+     * @return true if the index was read, false if it is missing or cannot be used and must be rebuilt.
+     */
+    private boolean readIndex() {
+        File index = new File(INDEX_FILE);
+        if (!index.exists()) {
+            return false;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(index), StandardCharsets.UTF_8))) {
+            String[] header = reader.readLine().split(",");
+            if (!header[0].equals(INDEX_HEADER) || Integer.parseInt(header[1]) != INDEX_VERSION
+                    || Integer.parseInt(header[2]) != TOP_COUNT) {
+                return false;
+            }
+            logLength = Long.parseLong(header[3]);
+            rowCount = Long.parseLong(header[4]);
+            compactedLength = Long.parseLong(header[5]);
+            compactedRows = Long.parseLong(header[6]);
+            if (compactedLength > logLength || compactedRows > rowCount) {
+                return false;
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Entry entry = parseRecord(TOP_RECORD, line);
+                if (entry == null) {
+                    return false;
+                }
+                TOP.add(entry);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            GameLog.warn(INDEX_LOG, "the scores index cannot be read, rebuilding it from the scores file");
+            return false;
+        }
+    }
+
+    /**
+     * Save the index. If it cannot be saved the old one is kept, and the next open reads more of the log.
+     */
+    private void writeIndex() {
+        StringBuilder index = new StringBuilder();
+        index.append(String.join(",", INDEX_HEADER, String.valueOf(INDEX_VERSION), String.valueOf(TOP_COUNT),
+                String.valueOf(logLength), String.valueOf(rowCount), String.valueOf(compactedLength),
+                String.valueOf(compactedRows))).append('\n');
+        for (Entry entry : TOP) {
+            index.append(formatRecord(TOP_RECORD, entry));
+        }
+        try {
+            replaceFile(INDEX_FILE, index);
+        } catch (IOException e) {
+            GameLog.error(INDEX_LOG, "could not save the scores index", e);
+        }
+    }
+
+    /**
+     * Get the best score of every player: the bests file as of the last compaction, with the lines of the log after
+     * it. If the bests file is missing or is not for the compaction the index records, the whole log is read instead.
+     */
+    private Map<String, Entry> loadBests() {
+        if (bests != null) {
+            return bests;
+        }
+        bests = new HashMap<>();
+        long from = 0;
+        long firstRow = 0;
+        if (compactedLength > 0 && readBests()) {
+            from = compactedLength;
+            firstRow = compactedRows;
+        } else {
+            bests.clear();
+        }
+        readLog(from, logLength, firstRow, (score, row) -> addBest(new Entry(score, row)));
+        return bests;
+    }
+
+    /**
+     * Read the bests file into the best scores.
+     * @return true if it was read, false if it is missing or is not for the last compaction.
+     */
+    private boolean readBests() {
+        File file = new File(BESTS_FILE);
+        if (!file.exists()) {
+            return false;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String[] header = reader.readLine().split(",");
+            if (!header[0].equals(BESTS_HEADER) || Integer.parseInt(header[1]) != INDEX_VERSION
+                    || Long.parseLong(header[2]) != compactedLength || Long.parseLong(header[3]) != compactedRows) {
+                return false;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Entry entry = parseRecord(BEST_RECORD, line);
+                if (entry == null) {
+                    return false;
+                }
+                bests.put(entry.SCORE.getPlayerName(), entry);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            GameLog.warn(INDEX_LOG, "the best scores cannot be read, rebuilding them from the scores file");
+            return false;
+        }
+    }
+
+    /**
+     * Rewrite the log with only the lines that can still make the leaderboard, in the order they were made, then
+     * rebuild the index and the bests file from it. If the log cannot be rewritten it is left as it was.
+     */
+    private void compact() {
+        TreeMap<Long, Score> kept = new TreeMap<>();
+        for (Entry entry : loadBests().values()) {
+            kept.put(entry.ROW, entry.SCORE);
+        }
+        for (Entry entry : TOP) {
+            kept.put(entry.ROW, entry.SCORE);
+        }
+
+        StringBuilder log = new StringBuilder();
+        for (Score score : kept.values()) {
+            log.append(formatScore(score.getPlayerName(), score.getScore())).append('\n');
+        }
+        try {
+            replaceFile(LOG_FILE, log);
+        } catch (IOException e) {
+            GameLog.error(INDEX_LOG, "could not compact the scores file", e);
+            writeIndex();
+            return;
+        }
+        GameLog.info(INDEX_LOG, "compacted the scores file to %.0f lines", kept.size());
+
+        // read the compacted log back, so the rows are numbered by its lines
+        clear();
+        bests = new HashMap<>();
+        readLog();
+        compactedLength = logLength;
+        compactedRows = rowCount;
+
+        // the index records the compaction, so it goes last: until it is saved the bests file is not used
+        StringBuilder bestsFile = new StringBuilder();
+        bestsFile.append(String.join(",", BESTS_HEADER, String.valueOf(INDEX_VERSION),
+                String.valueOf(compactedLength), String.valueOf(compactedRows))).append('\n');
+        for (Entry entry : bests.values()) {
+            bestsFile.append(formatRecord(BEST_RECORD, entry));
+        }
+        try {
+            replaceFile(BESTS_FILE, bestsFile);
+        } catch (IOException e) {
+            GameLog.error(INDEX_LOG, "could not save the best scores", e);
+        }
+        writeIndex();
+    }
+
+    /**
+     * Replace a file with new contents: write them to a temporary file beside it, force that to disk, and only then
+     * move it over the file. If any step fails the temporary file is deleted and the file is left as it was.
+     * @param filename The name of the file.
+     * @param contents The new contents.
+     * @throws IOException If the contents could not be written, forced or moved into place.
+     */
+    private static void replaceFile(String filename, CharSequence contents) throws IOException {
+        Path temp = Paths.get(filename + TEMP_SUFFIX);
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(contents));
+                while (bytes.hasRemaining()) {
+                    out.write(bytes);
+                }
+                out.force(true);
+            }
+            Files.move(temp, Paths.get(filename), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * A score with the line of the log it is on, which breaks ties between equal scores.
+     */
+    private static class Entry {
+        private final Score SCORE;
+        private final long ROW;
+
+        private Entry(Score score, long row) {
+            this.SCORE = score;
+            this.ROW = row;
+        }
+    }
+}
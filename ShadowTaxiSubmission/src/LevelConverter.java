@@ -0,0 +1,21 @@
+/**
+ * Converts a game objects file in the comma-separated format to the binary level format, so the game can map the
+ * level instead of parsing it at startup. Set gamePlay.objectsFile to the converted file to play it.
+ */
+public class LevelConverter {
+
+    /**
+     * Convert a game objects file.
+     * @param args The game objects file to read, followed by the level file to write, ending in .lvl.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || !args[1].endsWith(".lvl")) {
+            System.err.println("usage: LevelConverter <game objects file> <level file>.lvl");
+            System.exit(-1);
+        }
+        LevelIndex level = LevelIndex.load(args[0]);
+        level.save(args[1]);
+        GameLog.flush();
+        System.out.println("converted " + level.size() + " objects to " + args[1]);
+    }
+}
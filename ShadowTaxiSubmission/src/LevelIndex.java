@@ -0,0 +1,354 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The objects of a level, sorted by y-coordinate from the bottom of the level to the top. No game object is created
+ * here: the LevelStreamer creates each one when the scrolling brings it close to the screen, so a level of any size
+ * starts in the time it takes to open the file.
+ * A level is held in the binary level format, which is read straight from the file through a memory mapping, so
+ * opening a level does no parsing and an object is read from its record only when it is needed. A game objects file in
+ * the comma-separated text format is parsed and converted to the binary format in memory. All values are
+ * little-endian 32-bit integers:
+ * <pre>
+ * header    magic "STLV", version, flags (bit 0: has a taxi), taxi x, taxi y, object count,
+ *           passenger count, coin count, invincible power count, reserved
+ * index     per object, sorted by y largest first: y, object type ordinal &lt;&lt; 24 | record number
+ * records   per passenger: x, y, priority, trip end x, trip end y, has umbrella (0 or 1)
+ *           per coin: x, y
+ *           per invincible power: x, y
+ * </pre>
+ * The records of each type are stored in index order, so they are sorted by y as well.
+ * The taxi is not part of the sorted objects, it is always on screen.
+ */
+public class LevelIndex {
+
+    private static final int MAGIC = 0x564C5453;  // "STLV" read little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+    private static final int INDEX_ENTRY_SIZE = 8;
+    private static final int TYPE_SHIFT = 24;
+    private static final int RECORD_MASK = (1 << TYPE_SHIFT) - 1;
+    private static final int HAS_TAXI_FLAG = 1;
+    private static final GameObjectType[] TYPES = GameObjectType.values();
+    private static final LogSite SAVE_LOG = new LogSite("LevelIndex.save", 0);
+    // the types with records, in the order of their sections, and the size of their records in bytes
+    private static final GameObjectType[] RECORD_TYPES =
+            {GameObjectType.PASSENGER, GameObjectType.COIN, GameObjectType.INVINCIBLE_POWER};
+    private static final int[] RECORD_SIZES = {24, 8, 8};
+
+    private final ByteBuffer BUFFER;
+    private final int SIZE;
+    private final int[] TYPE_COUNTS = new int[TYPES.length];
+    private final int[] SECTION_OFFSETS = new int[TYPES.length];
+    private final int[] RECORD_SIZE = new int[TYPES.length];
+
+    private LevelIndex(ByteBuffer buffer) throws IOException {
+        this.BUFFER = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("not a level file");
+        }
+        this.SIZE = buffer.getInt(20);
+        if (SIZE < 0) {
+            throw new IOException("level file has a negative object count");
+        }
+        TYPE_COUNTS[GameObjectType.TAXI.ordinal()] = (buffer.getInt(8) & HAS_TAXI_FLAG) != 0 ? 1 : 0;
+
+        // in long, so counts from a damaged file cannot overflow past the truncation check
+        long offset = HEADER_SIZE + (long) SIZE * INDEX_ENTRY_SIZE;
+        for (int i = 0; i < RECORD_TYPES.length; i++) {
+            int type = RECORD_TYPES[i].ordinal();
+            TYPE_COUNTS[type] = buffer.getInt(24 + 4 * i);
+            if (TYPE_COUNTS[type] < 0 || TYPE_COUNTS[type] > RECORD_MASK + 1) {
+                throw new IOException("level file has a bad " + RECORD_TYPES[i] + " count");
+            }
+            SECTION_OFFSETS[type] = (int) offset;
+            RECORD_SIZE[type] = RECORD_SIZES[i];
+            offset += (long) TYPE_COUNTS[type] * RECORD_SIZES[i];
+        }
+        if (buffer.capacity() < offset) {
+            throw new IOException("level file is truncated");
+        }
+    }
+
+    /**
+     * Open a level. A file ending in .lvl is memory-mapped in the binary level format; any other file is read as a
+     * game objects file in the comma-separated format.
+     * @param filename The name of the level file.
+     * @return The objects of the level.
+     */
+    public static LevelIndex load(String filename) {
+        try {
+            return filename.endsWith(".lvl") ? map(filename) : new LevelIndex(parse(filename));
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+        return null;
+    }
+
+    /**
+     * Write the level in the binary level format.
+     * @param filename The name of the file to write.
+     */
+    public void save(String filename) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer contents = BUFFER.duplicate();
+            contents.clear();
+            while (contents.hasRemaining()) {
+                channel.write(contents);
+            }
+        } catch (IOException e) {
+            GameLog.error(SAVE_LOG, "could not save the level to " + filename, e);
+        }
+    }
+
+    // the mapping stays valid after the channel is closed
+    private static LevelIndex map(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            return new LevelIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Parse a game objects file in the comma-separated format. Each line is an object type followed by its x and
+     * y-coordinates; a passenger line is followed by the priority, the x and y-coordinates of the end of the trip and
+     * whether the passenger has an umbrella. Lines of other types, such as the driver, are skipped.
+     */
+    private static ByteBuffer parse(String filename) throws IOException {
+        CsvObjects objects = new CsvObjects();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    objects.add(line.split(","));
+                }
+            }
+        }
+        return objects.toLevel();
+    }
+
+    /**
+     * Get the number of objects of the level, not counting the taxi.
+     * @return The number of objects.
+     */
+    public int size() {
+        return SIZE;
+    }
+
+    /**
+     * Get the number of objects of a type in the level.
+     * @param type The type of object.
+     * @return The number of objects of the type.
+     */
+    public int getCount(GameObjectType type) {
+        return TYPE_COUNTS[type.ordinal()];
+    }
+
+    /**
+     * Find the first object at or above a y-coordinate, i.e. the first object with a y-coordinate no larger than it.
+     * A binary search over the index, so the streamer can start anywhere in a level without walking through it.
+     * @param y The y-coordinate.
+     * @return The index of the object, or the number of objects if every object is below the y-coordinate.
+     */
+    public int indexOfY(int y) {
+        int low = 0;
+        int high = SIZE;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getY(middle) > y) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public GameObjectType getType(int index) {
+        return TYPES[reference(index) >>> TYPE_SHIFT];
+    }
+
+    public int getX(int index) {
+        return BUFFER.getInt(recordOffset(index));
+    }
+
+    public int getY(int index) {
+        return BUFFER.getInt(HEADER_SIZE + index * INDEX_ENTRY_SIZE);
+    }
+
+    public int getPriority(int index) {
+        return BUFFER.getInt(recordOffset(index) + 8);
+    }
+
+    public int getTravelEndX(int index) {
+        return BUFFER.getInt(recordOffset(index) + 12);
+    }
+
+    public int getTravelEndY(int index) {
+        return BUFFER.getInt(recordOffset(index) + 16);
+    }
+
+    public boolean hasUM(int index) {
+        return BUFFER.getInt(recordOffset(index) + 20) != 0;
+    }
+
+    public int getTaxiX() {
+        return BUFFER.getInt(12);
+    }
+
+    public int getTaxiY() {
+        return BUFFER.getInt(16);
+    }
+
+    private int reference(int index) {
+        return BUFFER.getInt(HEADER_SIZE + index * INDEX_ENTRY_SIZE + 4);
+    }
+
+    private int recordOffset(int index) {
+        int reference = reference(index);
+        int type = reference >>> TYPE_SHIFT;
+        return SECTION_OFFSETS[type] + (reference & RECORD_MASK) * RECORD_SIZE[type];
+    }
+
+    /**
+     * The objects of a game objects file as they are parsed, before they are sorted and laid out in the binary level
+     * format.
+     */
+    private static class CsvObjects {
+
+        private static final int INITIAL_CAPACITY = 64;
+        private static final int INDEX_BITS = 31;
+        private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+        private byte[] types = new byte[INITIAL_CAPACITY];
+        private int[] xs = new int[INITIAL_CAPACITY];
+        private int[] ys = new int[INITIAL_CAPACITY];
+        private int[] priorities = new int[INITIAL_CAPACITY];
+        private int[] travelEndXs = new int[INITIAL_CAPACITY];
+        private int[] travelEndYs = new int[INITIAL_CAPACITY];
+        private boolean[] hasUMs = new boolean[INITIAL_CAPACITY];
+        private int size;
+
+        private final int[] TYPE_COUNTS = new int[TYPES.length];
+        private boolean hasTaxi;
+        private int taxiX;
+        private int taxiY;
+
+        private void add(String[] lineElement) throws IOException {
+            int x = Integer.parseInt(lineElement[1]);
+            int y = Integer.parseInt(lineElement[2]);
+
+            GameObjectType type;
+            if (lineElement[0].equals(GameObjectType.TAXI.name())) {
+                hasTaxi = true;
+                taxiX = x;
+                taxiY = y;
+                return;
+            } else if (lineElement[0].equals(GameObjectType.PASSENGER.name())) {
+                type = GameObjectType.PASSENGER;
+            } else if (lineElement[0].equals(GameObjectType.COIN.name())) {
+                type = GameObjectType.COIN;
+            } else if (lineElement[0].equals(GameObjectType.INVINCIBLE_POWER.name())) {
+                type = GameObjectType.INVINCIBLE_POWER;
+            } else {
+                return;
+            }
+            // the record number of an object has to fit in the low bits of its index entry
+            if (TYPE_COUNTS[type.ordinal()] > RECORD_MASK) {
+                throw new IOException("a level holds at most " + (RECORD_MASK + 1) + " objects of type " + type);
+            }
+
+            if (size == types.length) {
+                grow();
+            }
+            types[size] = (byte) type.ordinal();
+            xs[size] = x;
+            ys[size] = y;
+            if (type == GameObjectType.PASSENGER) {
+                priorities[size] = Integer.parseInt(lineElement[3]);
+                travelEndXs[size] = Integer.parseInt(lineElement[4]);
+                travelEndYs[size] = Integer.parseInt(lineElement[5]);
+                hasUMs[size] = Boolean.parseBoolean(lineElement[6]);
+            }
+            TYPE_COUNTS[type.ordinal()]++;
+            size++;
+        }
+
+        // objects are sorted by y, largest first, through a key holding the flipped y in the high bits and the
+        // position in the file in the low bits; objects with the same y therefore keep their file order
+        private ByteBuffer toLevel() throws IOException {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (((long) Integer.MAX_VALUE - ys[i]) << INDEX_BITS) | i;
+            }
+            Arrays.sort(keys);
+
+            long length = HEADER_SIZE + (long) size * INDEX_ENTRY_SIZE;
+            int[] sectionOffsets = new int[TYPES.length];
+            int[] recordSizes = new int[TYPES.length];
+            for (int i = 0; i < RECORD_TYPES.length; i++) {
+                int type = RECORD_TYPES[i].ordinal();
+                if (TYPE_COUNTS[type] > RECORD_MASK + 1) {
+                    throw new IOException("a level holds at most " + (RECORD_MASK + 1) + " objects of type "
+                            + RECORD_TYPES[i]);
+                }
+                sectionOffsets[type] = (int) length;
+                recordSizes[type] = RECORD_SIZES[i];
+                length += (long) TYPE_COUNTS[type] * RECORD_SIZES[i];
+            }
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("level is too large for the binary level format");
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, hasTaxi ? HAS_TAXI_FLAG : 0);
+            buffer.putInt(12, taxiX);
+            buffer.putInt(16, taxiY);
+            buffer.putInt(20, size);
+            for (int i = 0; i < RECORD_TYPES.length; i++) {
+                buffer.putInt(24 + 4 * i, TYPE_COUNTS[RECORD_TYPES[i].ordinal()]);
+            }
+
+            int[] recordCounts = new int[TYPES.length];
+            for (int i = 0; i < size; i++) {
+                int from = (int) (keys[i] & INDEX_MASK);
+                int type = types[from];
+                int record = recordCounts[type]++;
+                buffer.putInt(HEADER_SIZE + i * INDEX_ENTRY_SIZE, ys[from]);
+                buffer.putInt(HEADER_SIZE + i * INDEX_ENTRY_SIZE + 4, (type << TYPE_SHIFT) | record);
+
+                int offset = sectionOffsets[type] + record * recordSizes[type];
+                buffer.putInt(offset, xs[from]);
+                buffer.putInt(offset + 4, ys[from]);
+                if (type == GameObjectType.PASSENGER.ordinal()) {
+                    buffer.putInt(offset + 8, priorities[from]);
+                    buffer.putInt(offset + 12, travelEndXs[from]);
+                    buffer.putInt(offset + 16, travelEndYs[from]);
+                    buffer.putInt(offset + 20, hasUMs[from] ? 1 : 0);
+                }
+            }
+            return buffer;
+        }
+
+        private void grow() {
+            int capacity = types.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            travelEndXs = Arrays.copyOf(travelEndXs, capacity);
+            travelEndYs = Arrays.copyOf(travelEndYs, capacity);
+            hasUMs = Arrays.copyOf(hasUMs, capacity);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * Checks that a level converted from a game objects file to the binary level format and opened again holds the same
+ * objects as the file, in the same order: sorted by y from the bottom of the level to the top, with objects of the
+ * same y in file order.
+ * The expected objects are read from the file here with a plain split and a stable sort, apart from the parsing and
+ * the layout of LevelIndex, and the level is compared both as parsed and as read back from the .lvl file.
+ */
+public class LevelIndexCheck {
+
+    private static final String DEFAULT_LEVEL = "res/gameObjects.csv";
+
+    /**
+     * Convert a game objects file, open the result and compare. Exits with an error if anything differs.
+     * @param args Optionally, the game objects file to check.
+     */
+    public static void main(String[] args) throws IOException {
+        String filename = args.length > 0 ? args[0] : DEFAULT_LEVEL;
+        ArrayList<String[]> expected = new ArrayList<>();
+        String[] taxi = null;
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] lineElement = line.split(",");
+                if (lineElement[0].equals(GameObjectType.TAXI.name())) {
+                    taxi = lineElement;
+                } else if (lineElement[0].equals(GameObjectType.PASSENGER.name())
+                        || lineElement[0].equals(GameObjectType.COIN.name())
+                        || lineElement[0].equals(GameObjectType.INVINCIBLE_POWER.name())) {
+                    expected.add(lineElement);
+                }
+            }
+        }
+        expected.sort(Comparator.comparingInt((String[] lineElement) -> Integer.parseInt(lineElement[2])).reversed());
+
+        LevelIndex parsed = LevelIndex.load(filename);
+        File file = File.createTempFile("LevelIndexCheck", ".lvl");
+        file.deleteOnExit();
+        parsed.save(file.getPath());
+        LevelIndex mapped = LevelIndex.load(file.getPath());
+
+        compare("parsed", parsed, expected, taxi);
+        compare("mapped", mapped, expected, taxi);
+        System.out.println("level round trip: " + expected.size() + " objects of " + filename + ", "
+                + file.length() + " bytes");
+    }
+
+    private static void compare(String name, LevelIndex level, ArrayList<String[]> expected, String[] taxi) {
+        if (level.size() != expected.size()) {
+            fail(name + " level has " + level.size() + " objects, the file has " + expected.size());
+        }
+        if (taxi != null && (level.getTaxiX() != Integer.parseInt(taxi[1])
+                || level.getTaxiY() != Integer.parseInt(taxi[2]))) {
+            fail(name + " level has the taxi at " + level.getTaxiX() + "," + level.getTaxiY());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            String[] lineElement = expected.get(i);
+            GameObjectType type = GameObjectType.valueOf(lineElement[0]);
+            boolean isSame = level.getType(i) == type
+                    && level.getX(i) == Integer.parseInt(lineElement[1])
+                    && level.getY(i) == Integer.parseInt(lineElement[2]);
+            if (isSame && type == GameObjectType.PASSENGER) {
+                isSame = level.getPriority(i) == Integer.parseInt(lineElement[3])
+                        && level.getTravelEndX(i) == Integer.parseInt(lineElement[4])
+                        && level.getTravelEndY(i) == Integer.parseInt(lineElement[5])
+                        && level.hasUM(i) == Boolean.parseBoolean(lineElement[6]);
+            }
+            if (!isSame) {
+                fail(name + " level object " + i + " is a " + level.getType(i) + " at " + level.getX(i) + ","
+                        + level.getY(i) + ", the file has " + String.join(",", lineElement));
+            }
+        }
+    }
+
+    private static void fail(String message) {
+        System.err.println(message);
+        System.exit(-1);
+    }
+}
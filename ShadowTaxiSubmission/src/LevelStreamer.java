@@ -0,0 +1,128 @@
+import java.util.ArrayList;
+
+/**
+ * Creates the passengers, coins and invincible powers of a level as the camera brings them close to the top of the
+ * screen, and drops them again once they have scrolled past the bottom and can no longer take part in the game.
+ * Only the objects near the screen are updated and drawn, so the cost of a frame does not grow with the size of the
+ * level. The coins and invincible powers are entities of the world, created through the PowerUpSystem.
+ * The objects are created at their world coordinates, which are the coordinates of the level, so an object created
+ * late is exactly where it would have been had it been created with the level.
+ */
+public class LevelStreamer {
+
+    private final GameConfig CONFIG;
+    private final LevelIndex LEVEL;
+    private final Camera CAMERA;
+    private final PowerUpSystem POWER_UPS;
+    private final int SPAWN_TOP;
+    private final int RETIRE_BOTTOM;
+
+    private final ArrayList<Passenger> PASSENGERS = new ArrayList<>();
+
+    private int cursor;  // the next object of the level, sorted by y-coordinate, to create
+    private int retiredCount;
+
+    /**
+     * Constructs a streamer at the start of a level, creating the objects that are already close to the screen.
+     * @param level The objects of the level.
+     * @param config The game configuration.
+     * @param camera The camera the level is viewed through.
+     * @param powerUps The system the coins and invincible powers are created in.
+     */
+    public LevelStreamer(LevelIndex level, GameConfig config, Camera camera, PowerUpSystem powerUps) {
+        this.CONFIG = config;
+        this.LEVEL = level;
+        this.CAMERA = camera;
+        this.POWER_UPS = powerUps;
+        int margin = config.getGamePlay().getStreamMargin();
+        this.SPAWN_TOP = -margin;
+        this.RETIRE_BOTTOM = config.getWindowHeight() + margin;
+        stream();
+    }
+
+    /**
+     * Drop the objects that have scrolled past the bottom of the screen and create the ones that have come close to
+     * the top. Called at the start of a tick, before the objects are updated.
+     */
+    public void stream() {
+        retire();
+        while (cursor < LEVEL.size() && LEVEL.getY(cursor) + CAMERA.getScrollY() >= SPAWN_TOP) {
+            spawn(cursor);
+            cursor++;
+        }
+    }
+
+    /**
+     * Jump to a point of the level, moving the camera as if the level had scrolled down by the given distance. The
+     * objects in play are dropped and the cursor is placed with a binary search over the level, so seeking costs the
+     * same anywhere in a level of any size. The objects already below the screen at that point are skipped rather
+     * than created.
+     * @param scrollY The distance the level has scrolled down.
+     */
+    public void seek(long scrollY) {
+        retiredCount += getActiveCount();
+        PASSENGERS.clear();
+        POWER_UPS.clear();
+        CAMERA.setScrollY(scrollY);
+        // past either end of the level's y-coordinates, every object or none of them is below the screen
+        long bottomY = Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, RETIRE_BOTTOM - scrollY));
+        cursor = LEVEL.indexOfY((int) bottomY);
+        stream();
+    }
+
+    public ArrayList<Passenger> getPassengers() {
+        return PASSENGERS;
+    }
+
+    /**
+     * Get the number of objects currently created.
+     * @return The number of passengers, coins and invincible powers in play.
+     */
+    public int getActiveCount() {
+        return PASSENGERS.size() + POWER_UPS.getCoinCount() + POWER_UPS.getInvinciblePowerCount();
+    }
+
+    /**
+     * Get the total number of objects dropped after scrolling past the screen.
+     * @return The number of retired objects.
+     */
+    public int getRetiredCount() {
+        return retiredCount;
+    }
+
+    private void spawn(int index) {
+        int x = LEVEL.getX(index);
+        int y = LEVEL.getY(index);
+        switch (LEVEL.getType(index)) {
+            case PASSENGER:
+                PASSENGERS.add(new Passenger(x, y, LEVEL.getPriority(index), LEVEL.getTravelEndX(index),
+                        LEVEL.getTravelEndY(index), LEVEL.hasUM(index), CONFIG, CAMERA));
+                break;
+            case COIN:
+                POWER_UPS.spawnCoin(x, y);
+                break;
+            default:
+                POWER_UPS.spawnInvinciblePower(x, y);
+        }
+    }
+
+    // an object is only dropped once nothing in the game can still need it: a passenger that never got in, or that
+    // has reached the end of its trip; see PowerUpSystem.retire for the coins and invincible powers. The order of the
+    // passengers kept does not change.
+    private void retire() {
+        int kept = 0;
+        for (int i = 0; i < PASSENGERS.size(); i++) {
+            Passenger passenger = PASSENGERS.get(i);
+            if (passenger.getY() > RETIRE_BOTTOM && (passenger.isWaiting() || passenger.hasReachedFlag())) {
+                continue;
+            }
+            PASSENGERS.set(kept++, passenger);
+        }
+        if (kept < PASSENGERS.size()) {
+            retiredCount += PASSENGERS.size() - kept;
+            PASSENGERS.subList(kept, PASSENGERS.size()).clear();
+        }
+
+        retiredCount += POWER_UPS.retire(RETIRE_BOTTOM);
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * LogLevel is an enum class that contains the levels of the game log, from the most to the least verbose.
+ * A message is logged only if its level is at or above the level the log is set to; OFF logs nothing.
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF
+}
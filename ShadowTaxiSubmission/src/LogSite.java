@@ -0,0 +1,51 @@
+/**
+ * A place in the code that writes to the game log, e.g. the taxi being destroyed. Each site is declared once as a
+ * constant of the class that logs from it and is rate limited on its own: a site logging every tick is written at
+ * most once per interval, and the messages dropped in between are counted and reported with the next one written.
+ */
+public class LogSite {
+
+    private final String NAME;
+    private final long MIN_INTERVAL_NANOS;
+
+    private long lastLogged = Long.MIN_VALUE;
+    private int suppressed;
+
+    /**
+     * Constructs a log site.
+     * @param name The name the messages of the site are logged under, e.g. "Taxi.destroyed".
+     * @param minIntervalMillis The least time between two messages of the site, or 0 for no limit.
+     */
+    public LogSite(String name, long minIntervalMillis) {
+        this.NAME = name;
+        this.MIN_INTERVAL_NANOS = minIntervalMillis * 1_000_000;
+    }
+
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Check whether a message of the site may be written now. A message that may not is counted as suppressed.
+     * @param now The current time in nanoseconds.
+     * @return true if the message should be written, false if it is dropped.
+     */
+    boolean tryAcquire(long now) {
+        if (MIN_INTERVAL_NANOS > 0 && lastLogged != Long.MIN_VALUE && now - lastLogged < MIN_INTERVAL_NANOS) {
+            suppressed++;
+            return false;
+        }
+        lastLogged = now;
+        return true;
+    }
+
+    /**
+     * Get the number of messages suppressed since the last one written, and start counting again.
+     * @return The number of suppressed messages.
+     */
+    int takeSuppressed() {
+        int count = suppressed;
+        suppressed = 0;
+        return count;
+    }
+}
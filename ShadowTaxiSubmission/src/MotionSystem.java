@@ -0,0 +1,79 @@
+/**
+ * Moves every entity of the world with a position and a velocity up the screen by its speed, once per tick.
+ * An entity with a timer running is recovering from a collision instead: it stands still until the last frames of
+ * the timer, backs away in the direction it came from, then drives on at a new random speed.
+ */
+public class MotionSystem {
+
+    private static final int MOVING = Component.POSITION.bit() | Component.VELOCITY.bit();
+    private static final int COLLISION_KNOCKBACK_FRAMES = 10;
+
+    private final EntityWorld WORLD;
+
+    // the random speed range of every kind of moving entity, by the ordinal of its kind
+    private final GameRng[] SPEED_RNG = new GameRng[GameObjectType.values().length];
+    private final int[] MIN_SPEED_Y = new int[GameObjectType.values().length];
+    private final int[] MAX_SPEED_Y = new int[GameObjectType.values().length];
+
+    /**
+     * Constructs the system.
+     * @param world The world the entities are in.
+     */
+    public MotionSystem(EntityWorld world) {
+        this.WORLD = world;
+    }
+
+    /**
+     * Set the range the speed of a kind of entity is picked from, when it is spawned and after every collision.
+     * @param kind The kind of entity.
+     * @param rng Random number stream for the speeds.
+     * @param minSpeedY The lowest speed.
+     * @param maxSpeedY The highest speed.
+     */
+    public void setSpeedRange(GameObjectType kind, GameRng rng, int minSpeedY, int maxSpeedY) {
+        SPEED_RNG[kind.ordinal()] = rng;
+        MIN_SPEED_Y[kind.ordinal()] = minSpeedY;
+        MAX_SPEED_Y[kind.ordinal()] = maxSpeedY;
+    }
+
+    /**
+     * Pick a random speed for a kind of entity.
+     * @param kind The kind of entity.
+     * @return The speed.
+     */
+    public int rollSpeed(GameObjectType kind) {
+        int k = kind.ordinal();
+        return SPEED_RNG[k].nextInt(MIN_SPEED_Y[k], MAX_SPEED_Y[k] + 1);
+    }
+
+    /**
+     * Move every moving entity that is not destroyed by one tick.
+     */
+    public void update() {
+        int timed = Component.TIMER.bit();
+        for (int i = 0; i < WORLD.size(); i++) {
+            if (!WORLD.has(i, MOVING)) {
+                continue;
+            }
+            long y = WORLD.getY(i);
+            WORLD.setPreviousY(i, y);
+            if (WORLD.hasFlag(i, EntityWorld.DESTROYED)) {
+                continue;
+            }
+
+            int speedY = WORLD.getSpeedY(i);
+            if (WORLD.has(i, timed) && WORLD.getTimer(i) > 0) {
+                int timeout = WORLD.getTimer(i) - 1;
+                WORLD.setTimer(i, timeout);
+                if (timeout <= COLLISION_KNOCKBACK_FRAMES) {
+                    WORLD.setY(i, y + speedY * (timeout > 0 ? -1 : 1));
+                }
+                if (timeout == 0) {
+                    WORLD.setSpeedY(i, rollSpeed(WORLD.getKind(i)));
+                }
+            } else {
+                WORLD.setY(i, y - speedY);
+            }
+        }
+    }
+}
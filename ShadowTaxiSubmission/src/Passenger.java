@@ -1,14 +1,7 @@
-import bagel.Font;
-import bagel.Image;
-import bagel.Input;
-import bagel.Keys;
-
-import java.util.Properties;
-
 public class Passenger {
 
     private final int TAXI_DETECT_RADIUS;
-    private final Properties PROPS;
+    private final GameConfig CONFIG;
     private final TravelPlan TRAVEL_PLAN;
 
     private final int WALK_SPEED_X;
@@ -20,35 +13,42 @@ public class Passenger {
     private boolean isGetInTaxi;
     private Trip trip;
 
-    private final Image IMAGE;
-    private final int SPEED_Y;
+    private final Sprite IMAGE;
+    private final SpriteFont FONT;
+    private final HudText PRIORITY_TEXT;
+    private final HudText EXPECTED_FEE_TEXT;
+    private final Camera CAMERA;
 
     private int x;
-    private int y;
-    private int moveY;
+    private long worldY;  // the camera scrolls the passenger down the screen, the passenger only moves by walking
+    private long previousWorldY;  // worldY at the previous tick, for interpolation
 
     private boolean reachedFlag;
     private boolean hasUM;
     public float health = 100;
 
-    public Passenger(int x, int y, int priority, int endX, int distanceY, boolean hasUM, Properties props) {
+    public Passenger(int x, long worldY, int priority, int endX, int distanceY, boolean hasUM, GameConfig config,
+                     Camera camera) {
 
-        this.WALK_SPEED_X = Integer.parseInt(props.getProperty("gameObjects.passenger.walkSpeedX"));
-        this.WALK_SPEED_Y = Integer.parseInt(props.getProperty("gameObjects.passenger.walkSpeedY"));
-        this.PROPS = props;
+        this.WALK_SPEED_X = config.getPassenger().getWalkSpeedX();
+        this.WALK_SPEED_Y = config.getPassenger().getWalkSpeedY();
+        this.CONFIG = config;
 
-        this.TRAVEL_PLAN = new TravelPlan(endX, distanceY, priority, props);
-        this.TAXI_DETECT_RADIUS = Integer.parseInt(props.getProperty("gameObjects.passenger.taxiDetectRadius"));
+        this.TRAVEL_PLAN = new TravelPlan(endX, distanceY, priority, config.getTrip());
+        this.TAXI_DETECT_RADIUS = config.getPassenger().getTaxiDetectRadius();
 
         this.x = x;
-        this.y = y;
-        this.moveY = 0;
+        this.worldY = worldY;
+        this.previousWorldY = worldY;
+        this.CAMERA = camera;
         this.PRIORITY_OFFSET = 30;
         this.EXPECTED_FEE_OFFSET = 100;
         this.hasUM = hasUM;
 
-        this.SPEED_Y = Integer.parseInt(props.getProperty("gameObjects.taxi.speedY"));
-        this.IMAGE = new Image(props.getProperty("gameObjects.passenger.image"));
+        this.IMAGE = AssetCache.getImage(config.getPassenger().getImage());
+        this.FONT = AssetCache.getFont(config.getFont(), config.getPassenger().getFontSize());
+        this.PRIORITY_TEXT = new HudText("", "%.0f");
+        this.EXPECTED_FEE_TEXT = new HudText("", null);
     }
 
     public int getX() {
@@ -56,11 +56,19 @@ public class Passenger {
     }
 
     public int getY() {
-        return y;
+        return CAMERA.toScreenY(worldY);
     }
 
     public void setY(int y) {
-        this.y = y;
+        this.worldY = CAMERA.toWorldY(y);
+    }
+
+    /**
+     * Check if the passenger is still waiting for a taxi, i.e. has not got in or started a trip.
+     * @return true if the passenger is waiting, false otherwise.
+     */
+    public boolean isWaiting() {
+        return !isGetInTaxi && trip == null;
     }
 
     public TravelPlan getTravelPlan() {
@@ -68,28 +76,14 @@ public class Passenger {
     }
 
     /**
-     * Update the passenger status, move according to the input, active taxi and trip status.
+     * Update the passenger status, move according to the active taxi and trip status.
      * Initiate the trip if the passenger is in the taxi.
-     * See move method below to understand the movement of the passenger better.
-     * @param input The current mouse/keyboard input.
+     * See move method below to understand the movement of the passenger better. The scrolling of the level is left to
+     * the camera: a passenger out of the taxi goes down the screen when the taxi moves up without moving itself.
      * @param taxi The active taxi in the game play.
      */
-    public void updateWithTaxi(Input input, Taxi taxi) {
-        // if the passenger is not in the taxi or the trip is completed, update the passenger status based on keyboard
-        // input. This means the passenger is go down when taxi moves up.
-        if(!isGetInTaxi || (trip != null && trip.isComplete())) {
-            if(input != null) {
-                adjustToInputMovement(input);
-            }
-
-            move();
-            draw();
-        }
-
-        // if the passenger is not in the taxi and there's no trip initiated, draw the priority number on the passenger.
-        if(!isGetInTaxi && trip == null) {
-            drawPriority();
-        }
+    public void updateWithTaxi(Taxi taxi) {
+        previousWorldY = worldY;
 
         if(adjacentToObject(taxi) && !isGetInTaxi && trip == null) {
             // if the passenger has not started the trip yet,
@@ -100,40 +94,31 @@ public class Passenger {
             // if the passenger is in the taxi, initiate the trip and move the passenger along with the taxi.
             if(trip == null) {
                 //Create new trip
-                getTravelPlan().setStartY(y);
-                trip = new Trip(this, taxi, PROPS);
+                getTravelPlan().setStartY(worldY);
+                trip = new Trip(this, taxi, CONFIG, CAMERA);
                 taxi.setTrip(trip);
             }
 
             move(taxi);
-            draw();
 
         } else if(!isGetInTaxi && trip != null && trip.isComplete()) {
             move(taxi);
-            draw();
         }
     }
 
     /**
-     * Draw the priority number on the passenger.
-     */
-    private void drawPriority() {
-        Font font = new Font(PROPS.getProperty("font"),
-                Integer.parseInt(PROPS.getProperty("gameObjects.passenger.fontSize")));
-        font.drawString(String.valueOf(TRAVEL_PLAN.getPriority()), x - PRIORITY_OFFSET, y);
-        font.drawString(String.valueOf(TRAVEL_PLAN.getExpectedFee()), x - EXPECTED_FEE_OFFSET, y);
-    }
-
-    /**
-     * Adjust the movement direction in y-axis of the GameObject based on the keyboard input.
-     * @param input The current mouse/keyboard input.
+     * Draw the priority number on the passenger, if the passenger is not in the taxi and there's no trip initiated.
+     * The text is only formatted again when the priority or fee changes. Text is drawn straight to the screen, so this
+     * is called after the render queue is flushed to keep it above the images.
      */
-    private void adjustToInputMovement(Input input) {
-        if (input.wasPressed(Keys.UP)) {
-            moveY = 1;
-        }  else if(input.wasReleased(Keys.UP)) {
-            moveY = 0;
+    public void drawPriority() {
+        if(isGetInTaxi || trip != null) {
+            return;
         }
+        PRIORITY_TEXT.setValue(TRAVEL_PLAN.getPriority());
+        FONT.drawString(PRIORITY_TEXT.getText(), x - PRIORITY_OFFSET, getY());
+        EXPECTED_FEE_TEXT.setValue(TRAVEL_PLAN.getExpectedFee());
+        FONT.drawString(EXPECTED_FEE_TEXT.getText(), x - EXPECTED_FEE_OFFSET, getY());
     }
 
     /**
@@ -163,17 +148,12 @@ public class Passenger {
     }
 
     /**
-     * Move the GameObject object in the y-direction based on the speedY attribute.
-     */
-    private void move() {
-        this.y += SPEED_Y * moveY;
-    }
-
-    /**
-     * Draw the GameObject object into the screen.
+     * Submit the GameObject object to the render queue.
+     * @param queue The render queue of the frame.
+     * @param alpha The fraction of the next tick that has passed, to interpolate the position with.
      */
-    private void draw() {
-        IMAGE.draw(x, y);
+    public void draw(RenderQueue queue, double alpha) {
+        IMAGE.submit(queue, x, CAMERA.toScreenY(previousWorldY, worldY, alpha), RenderLayer.PEOPLE);
     }
 
     /**
@@ -181,7 +161,7 @@ public class Passenger {
      */
     private void walk() {
         x += + WALK_SPEED_X * walkDirectionX;
-        y += + WALK_SPEED_Y * walkDirectionY;
+        worldY += + WALK_SPEED_Y * walkDirectionY;
     }
 
     /**
@@ -190,7 +170,7 @@ public class Passenger {
      */
     private void moveWithTaxi(Taxi taxi) {
         x = taxi.getX();
-        y = taxi.getY();
+        worldY = CAMERA.toWorldY(taxi.getY());
     }
 
     /**
@@ -210,6 +190,7 @@ public class Passenger {
      * Determine the walk direction in y-axis of the passenger based on the x direction of the object.
      */
     private void walkYDirectionObj(int otherY) {
+        int y = getY();
         if (otherY > y) {
             walkDirectionY = 1;
         } else if (otherY < y) {
@@ -229,7 +210,7 @@ public class Passenger {
     public boolean hasReachedFlag() {
         if(trip != null) {
             TripEndFlag tef = trip.getTripEndFlag();
-            if(tef.getX() == x && tef.getY() == y) {
+            if(tef.getX() == x && tef.getWorldY() == worldY) {
                 reachedFlag = true;
             }
             return reachedFlag;
@@ -246,11 +227,11 @@ public class Passenger {
         // Check if Taxi is stopped and health > 0
         boolean taxiStopped = !taxi.isMovingX() && !taxi.isMovingY();
         // Check if Taxi is in the passenger's detect radius
-        float currDistance = (float) Math.sqrt(Math.pow(taxi.getX() - x, 2) + Math.pow(taxi.getY() - y, 2));
+        boolean isInDetectRadius = CircleOverlap.isWithin(taxi.getX(), taxi.getY(), x, getY(), TAXI_DETECT_RADIUS);
         // Check if Taxi is not having another trip
         boolean isHavingAnotherTrip = taxi.getTrip() != null && taxi.getTrip().getPassenger() != this;
 
-        return currDistance <= TAXI_DETECT_RADIUS && taxiStopped && !isHavingAnotherTrip;
+        return isInDetectRadius && taxiStopped && !isHavingAnotherTrip;
     }
 
     /**
@@ -262,7 +243,7 @@ public class Passenger {
     public void setIsGetInTaxi(Taxi taxi) {
         if(taxi == null) {
             isGetInTaxi = false;
-        } else if((float) Math.sqrt(Math.pow(taxi.getX() - x, 2) + Math.pow(taxi.getY() - y, 2)) <= 1) {
+        } else if(CircleOverlap.isWithin(taxi.getX(), taxi.getY(), x, getY(), 1)) {
             isGetInTaxi = true;
         }
     }
@@ -7,27 +7,27 @@ import java.util.Properties;
  */
 public class PlayerInfoScreen{
 
-    private final Image BACKGROUND_IMAGE;
+    private final Sprite BACKGROUND_IMAGE;
     private final String PI_PLAYER_NAME;
     private final String PI_START_GAME;
-    private final Font PI_FONT;
+    private final SpriteFont PI_FONT;
     private final int PLAYER_NAME_Y;
     private final int PLAYER_NAME_INPUT_Y;
     private final int START_GAME_Y;
     private String playerName;
     private final DrawOptions FONT_STYLE;
 
-    public PlayerInfoScreen(Properties gameProps, Properties msgProps) {
+    public PlayerInfoScreen(GameConfig config, Properties msgProps) {
+        GameConfig.PlayerInfoConfig playerInfo = config.getPlayerInfo();
 
-        BACKGROUND_IMAGE = new Image(gameProps.getProperty("backgroundImage.playerInfo"));
+        BACKGROUND_IMAGE = AssetCache.getImage(playerInfo.getBackgroundImage());
 
         PI_PLAYER_NAME = msgProps.getProperty("playerInfo.playerName");
         PI_START_GAME = msgProps.getProperty("playerInfo.start");
-        PI_FONT = new Font(gameProps.getProperty("font"),
-                Integer.parseInt(gameProps.getProperty("playerInfo.fontSize")));
-        PLAYER_NAME_Y = Integer.parseInt(gameProps.getProperty("playerInfo.playerName.y"));
-        PLAYER_NAME_INPUT_Y = Integer.parseInt(gameProps.getProperty("playerInfo.playerNameInput.y"));
-        START_GAME_Y = Integer.parseInt(gameProps.getProperty("playerInfo.start.y"));
+        PI_FONT = AssetCache.getFont(config.getFont(), playerInfo.getFontSize());
+        PLAYER_NAME_Y = playerInfo.getPlayerNameY();
+        PLAYER_NAME_INPUT_Y = playerInfo.getPlayerNameInputY();
+        START_GAME_Y = playerInfo.getStartY();
 
         FONT_STYLE = new DrawOptions();
         FONT_STYLE.setBlendColour(0.0, 0.0, 0.0);
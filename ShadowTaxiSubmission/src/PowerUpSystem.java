@@ -0,0 +1,175 @@
+/**
+ * Spawns, collects and retires the power-ups of the level: the coins and the invincible powers, which are entities of
+ * the world with a position in the level, a sprite and a collider. A coin also has a timer, counting the frames since
+ * it was collected. The power-ups are drawn by the RenderSystem until they are collected.
+ * The taxi keeps the coin it collected last as a Coin, a handle on the coin entity.
+ */
+public class PowerUpSystem {
+
+    private final EntityWorld WORLD;
+    private final Camera CAMERA;
+    private final Sprite COIN_IMAGE;
+    private final float COIN_RADIUS;
+    private final int COIN_MAX_FRAMES;
+    private final Sprite INVINCIBLE_POWER_IMAGE;
+    private final float INVINCIBLE_POWER_RADIUS;
+    private final int INVINCIBLE_POWER_MAX_FRAMES;
+
+    private int coinCount;
+    private int invinciblePowerCount;
+
+    /**
+     * Constructs the system with the coin and invincible power settings of the game configuration.
+     * @param world The world the power-ups are in.
+     * @param config The game configuration.
+     * @param camera The camera the level is viewed through.
+     */
+    public PowerUpSystem(EntityWorld world, GameConfig config, Camera camera) {
+        this.WORLD = world;
+        this.CAMERA = camera;
+        this.COIN_IMAGE = AssetCache.getImage(config.getCoin().getImage());
+        this.COIN_RADIUS = config.getCoin().getRadius();
+        this.COIN_MAX_FRAMES = config.getCoin().getMaxFrames();
+        this.INVINCIBLE_POWER_IMAGE = AssetCache.getImage(config.getInvinciblePower().getImage());
+        this.INVINCIBLE_POWER_RADIUS = config.getInvinciblePower().getRadius();
+        this.INVINCIBLE_POWER_MAX_FRAMES = config.getInvinciblePower().getMaxFrames();
+    }
+
+    /**
+     * Spawn a coin.
+     * @param x The x-coordinate of the coin.
+     * @param worldY The world y-coordinate of the coin.
+     */
+    public void spawnCoin(int x, long worldY) {
+        int i = WORLD.create(GameObjectType.COIN);
+        WORLD.addPosition(i, x, worldY, true);
+        WORLD.addSprite(i, COIN_IMAGE, RenderLayer.GROUND);
+        WORLD.addCollider(i, COIN_RADIUS);
+        WORLD.addTimer(i, 0);
+        coinCount++;
+    }
+
+    /**
+     * Spawn an invincible power.
+     * @param x The x-coordinate of the invincible power.
+     * @param worldY The world y-coordinate of the invincible power.
+     */
+    public void spawnInvinciblePower(int x, long worldY) {
+        int i = WORLD.create(GameObjectType.INVINCIBLE_POWER);
+        WORLD.addPosition(i, x, worldY, true);
+        WORLD.addSprite(i, INVINCIBLE_POWER_IMAGE, RenderLayer.GROUND);
+        WORLD.addCollider(i, INVINCIBLE_POWER_RADIUS);
+        invinciblePowerCount++;
+    }
+
+    /**
+     * Make the taxi invincible when it drives over an invincible power that has not been collected.
+     * @param taxi The taxi.
+     */
+    public void collideInvinciblePowers(Taxi taxi) {
+        for (int i = 0; i < WORLD.size(); i++) {
+            if (WORLD.getKind(i) == GameObjectType.INVINCIBLE_POWER && !WORLD.hasFlag(i, EntityWorld.COLLECTED)
+                    && isTouching(i, taxi)) {
+                taxi.setInvincible(INVINCIBLE_POWER_MAX_FRAMES);
+                WORLD.setFlag(i, EntityWorld.COLLECTED);
+            }
+        }
+    }
+
+    /**
+     * Count another frame for every collected coin, and give the taxi every coin it drives over.
+     * @param taxi The taxi.
+     * @return The fewest frames any active coin has been active for, or the frames a coin lasts if none is active.
+     */
+    public int updateCoins(Taxi taxi) {
+        int minFramesActive = COIN_MAX_FRAMES;
+        for (int i = 0; i < WORLD.size(); i++) {
+            if (WORLD.getKind(i) != GameObjectType.COIN) {
+                continue;
+            }
+            boolean isCollected = WORLD.hasFlag(i, EntityWorld.COLLECTED);
+            if (isCollected) {
+                WORLD.setTimer(i, WORLD.getTimer(i) + 1);
+            }
+            // a collected coin can be driven over again, and becomes the taxi's coin again
+            if (isTouching(i, taxi)) {
+                taxi.collectPower(new Coin(WORLD, WORLD.entityAt(i), COIN_MAX_FRAMES));
+                WORLD.setFlag(i, EntityWorld.COLLECTED);
+                isCollected = true;
+            }
+
+            int framesActive = WORLD.getTimer(i);
+            if (isCollected && framesActive > 0 && framesActive <= COIN_MAX_FRAMES && framesActive < minFramesActive) {
+                minFramesActive = framesActive;
+            }
+        }
+        return minFramesActive;
+    }
+
+    /**
+     * Remove the power-ups nothing in the game can still need: a coin that was never collected and has scrolled past
+     * the bottom of the screen, or whose effect has run out, and an invincible power that was collected or missed.
+     * @param bottomY The screen y-coordinate below which the power-ups are past the screen.
+     * @return The number of power-ups removed.
+     */
+    public int retire(int bottomY) {
+        int removed = 0;
+        for (int i = 0; i < WORLD.size(); i++) {
+            GameObjectType kind = WORLD.getKind(i);
+            boolean isRetired;
+            if (kind == GameObjectType.COIN) {
+                isRetired = WORLD.hasFlag(i, EntityWorld.COLLECTED)
+                        ? WORLD.getTimer(i) > COIN_MAX_FRAMES : CAMERA.toScreenY(WORLD.getY(i)) > bottomY;
+            } else if (kind == GameObjectType.INVINCIBLE_POWER) {
+                isRetired = WORLD.hasFlag(i, EntityWorld.COLLECTED) || CAMERA.toScreenY(WORLD.getY(i)) > bottomY;
+            } else {
+                isRetired = false;
+            }
+
+            if (isRetired) {
+                remove(i);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            WORLD.compact();
+        }
+        return removed;
+    }
+
+    /**
+     * Remove every power-up.
+     */
+    public void clear() {
+        for (int i = 0; i < WORLD.size(); i++) {
+            GameObjectType kind = WORLD.getKind(i);
+            if (kind == GameObjectType.COIN || kind == GameObjectType.INVINCIBLE_POWER) {
+                remove(i);
+            }
+        }
+        WORLD.compact();
+    }
+
+    private void remove(int i) {
+        if (WORLD.getKind(i) == GameObjectType.COIN) {
+            coinCount--;
+        } else {
+            invinciblePowerCount--;
+        }
+        WORLD.setFlag(i, EntityWorld.REMOVED);
+    }
+
+    private boolean isTouching(int i, Taxi taxi) {
+        // if the distance between the two objects is less than the sum of their radius, they are collided
+        return CircleOverlap.isWithin(WORLD.getX(i), CAMERA.toScreenY(WORLD.getY(i)), taxi.getX(), taxi.getY(),
+                WORLD.getRadius(i) + taxi.getRadius());
+    }
+
+    public int getCoinCount() {
+        return coinCount;
+    }
+
+    public int getInvinciblePowerCount() {
+        return invinciblePowerCount;
+    }
+}
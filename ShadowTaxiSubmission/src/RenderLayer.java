@@ -0,0 +1,11 @@
+/**
+ * RenderLayer is an enum class that contains the layers the game play screen is drawn in, from the bottom up.
+ * Everything in a layer is drawn before anything in the layer above it, whatever order it was submitted in.
+ */
+public enum RenderLayer {
+    BACKGROUND,
+    GROUND,     // coins, power-ups and trip end flags
+    PEOPLE,     // passengers and the driver
+    VEHICLES,   // the taxi and the other cars
+    EFFECTS     // smoke, fire and blood
+}
@@ -0,0 +1,102 @@
+import java.util.Arrays;
+
+/**
+ * A list of draw commands for the current frame. Objects submit their sprites while the frame is rendered instead of
+ * drawing them straight away, and flush draws the whole list in one go: sorted by layer, then by texture so that
+ * sprites sharing a texture are drawn back to back, then in submission order. The draw order is therefore fixed by
+ * the layers alone and does not depend on the order the objects happen to be rendered in.
+ * Commands are kept in parallel primitive arrays that are reused every frame, so submitting does not allocate.
+ * Each game play screen owns its queue and hands it to everything it draws, so two screens, or a simulation run on
+ * another thread, never share a list of commands.
+ */
+public class RenderQueue {
+
+    private static final int INITIAL_CAPACITY = 128;
+    private static final int LAYER_SHIFT = 56;
+    private static final int SPRITE_SHIFT = 32;
+    private static final long SEQUENCE_MASK = 0xFFFFFFFFL;
+
+    private Sprite[] sprites = new Sprite[INITIAL_CAPACITY];
+    private double[] xs = new double[INITIAL_CAPACITY];
+    private double[] ys = new double[INITIAL_CAPACITY];
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private int lastCommandCount;
+    private int lastTextureSwitches;
+
+    /**
+     * Add a draw command to the list of the current frame.
+     * @param sprite The sprite to draw.
+     * @param x The x-coordinate of the centre of the sprite.
+     * @param y The y-coordinate of the centre of the sprite.
+     * @param layer The layer to draw the sprite in.
+     */
+    public void submit(Sprite sprite, double x, double y, RenderLayer layer) {
+        if (size == keys.length) {
+            grow();
+        }
+        sprites[size] = sprite;
+        xs[size] = x;
+        ys[size] = y;
+        // the sort key orders by layer, then texture, then submission; the low bits double as the command index
+        keys[size] = ((long) layer.ordinal() << LAYER_SHIFT) | ((long) sprite.getId() << SPRITE_SHIFT) | size;
+        size++;
+    }
+
+    /**
+     * Draw every command submitted since the last flush in layer and texture order, and empty the list.
+     */
+    public void flush() {
+        Arrays.sort(keys, 0, size);
+
+        int textureSwitches = 0;
+        Sprite previous = null;
+        for (int i = 0; i < size; i++) {
+            int index = (int) (keys[i] & SEQUENCE_MASK);
+            Sprite sprite = sprites[index];
+            if (sprite != previous) {
+                textureSwitches++;
+                previous = sprite;
+            }
+            sprite.draw(xs[index], ys[index]);
+        }
+
+        lastCommandCount = size;
+        lastTextureSwitches = textureSwitches;
+        Arrays.fill(sprites, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Drop every command submitted since the last flush without drawing it.
+     */
+    public void clear() {
+        Arrays.fill(sprites, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Get the number of draw commands in the last flushed frame.
+     * @return The number of draw commands.
+     */
+    public int getLastCommandCount() {
+        return lastCommandCount;
+    }
+
+    /**
+     * Get the number of times the last flushed frame switched from one texture to another.
+     * @return The number of texture switches.
+     */
+    public int getLastTextureSwitches() {
+        return lastTextureSwitches;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        sprites = Arrays.copyOf(sprites, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+}
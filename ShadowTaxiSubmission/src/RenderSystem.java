@@ -0,0 +1,40 @@
+/**
+ * Submits every entity of the world with a position and a sprite to the render queue, unless it is destroyed or has
+ * been collected. Scrolled entities are drawn through the camera.
+ */
+public class RenderSystem {
+
+    private static final int DRAWN = Component.POSITION.bit() | Component.SPRITE.bit();
+    private static final int HIDDEN = EntityWorld.DESTROYED | EntityWorld.COLLECTED;
+
+    private final EntityWorld WORLD;
+    private final Camera CAMERA;
+
+    /**
+     * Constructs the system.
+     * @param world The world the entities are in.
+     * @param camera The camera the level is viewed through.
+     */
+    public RenderSystem(EntityWorld world, Camera camera) {
+        this.WORLD = world;
+        this.CAMERA = camera;
+    }
+
+    /**
+     * Submit the entities to the render queue.
+     * @param queue The render queue of the frame.
+     * @param alpha The fraction of the next tick that has passed, to interpolate the positions with.
+     */
+    public void draw(RenderQueue queue, double alpha) {
+        int scrolled = Component.SCROLLED.bit();
+        for (int i = 0; i < WORLD.size(); i++) {
+            if (!WORLD.has(i, DRAWN) || WORLD.hasFlag(i, HIDDEN)) {
+                continue;
+            }
+            double y = WORLD.has(i, scrolled)
+                    ? CAMERA.toScreenY(WORLD.getPreviousY(i), WORLD.getY(i), alpha)
+                    : SimulationClock.interpolate(WORLD.getPreviousY(i), WORLD.getY(i), alpha);
+            WORLD.getSprite(i).submit(queue, WORLD.getX(i), y, WORLD.getLayer(i));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import bagel.Keys;
+
+/**
+ * An InputSource that plays back an InputLog, one recorded tick per advance.
+ * Once the log runs out no key is touched any more.
+ */
+public class ReplayInput implements InputSource {
+
+    private final InputLog LOG;
+
+    private int run;
+    private int tickInRun;
+    private int state;
+    private int tick;
+
+    /**
+     * Constructs a replay from the start of a log.
+     * @param log The log to play back.
+     */
+    public ReplayInput(InputLog log) {
+        this.LOG = log;
+        this.tickInRun = -1;
+    }
+
+    /**
+     * Move the replay on to the next recorded tick. Must be called once before every update of the game.
+     */
+    public void advance() {
+        tick++;
+        tickInRun++;
+        while (run < LOG.getRunCount() && tickInRun >= LOG.getRunLength(run)) {
+            run++;
+            tickInRun = 0;
+        }
+        state = run < LOG.getRunCount() ? LOG.getRunState(run) : 0;
+    }
+
+    /**
+     * Check whether every recorded tick has been played back.
+     * @return true if the replay is past the end of the log, false otherwise.
+     */
+    public boolean isFinished() {
+        return tick > LOG.getTickCount();
+    }
+
+    @Override
+    public boolean isDown(Keys key) {
+        return InputLog.isDown(state, key);
+    }
+
+    @Override
+    public boolean wasPressed(Keys key) {
+        return InputLog.wasPressed(state, key);
+    }
+
+    @Override
+    public boolean wasReleased(Keys key) {
+        return InputLog.wasReleased(state, key);
+    }
+}
@@ -0,0 +1,290 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Saves the scores of finished game plays to the scores file on a background thread, so the frame that ends a session
+ * only puts the score on a queue.
+ * Scores waiting on the queue are written together: the batch is first written to a write-ahead log (the scores file
+ * name with ".wal" added) with a checksum and the length of the scores file it is appended at, and forced to disk.
+ * Only then is it appended to the scores file, which is forced too, and the write-ahead log cleared. If the game dies
+ * part of the way through, the next start finds the batch in the write-ahead log and writes it again over whatever
+ * part of it reached the scores file, so the scores file never keeps a partial line. A batch whose checksum does not
+ * match was itself cut short and was never appended, so it is dropped.
+ * The writer thread also keeps the leaderboard of the scores file, reopening it after every batch, so the game end
+ * screen shows the new score as soon as it is saved without touching the disk itself.
+ */
+public class ScoreStore {
+
+    static final String WAL_SUFFIX = ".wal";
+    private static final int QUEUE_CAPACITY = 64;
+    public static final int TOP_SCORE_COUNT = 5;
+
+    // magic, the length of the scores file the batch is appended at, the length of the batch, then its checksum
+    private static final int BATCH_MAGIC = 0x53434F52;  // "SCOR"
+    private static final int BATCH_HEADER_BYTES = 4 + 8 + 4 + 8;
+
+    private static final LogSite WRITE_LOG = new LogSite("ScoreStore.write", 0);
+    private static final LogSite RECOVER_LOG = new LogSite("ScoreStore.recover", 0);
+
+    private final String SCORES_FILE;
+    private final String WAL_FILE;
+    private final ArrayBlockingQueue<String> QUEUE = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Object LOCK = new Object();
+
+    // guarded by LOCK: the number of scores submitted and the number written or given up on
+    private long submitted;
+    private long completed;
+
+    private volatile Leaderboard leaderboard;
+
+    private ScoreStore(String scoresFile) {
+        this.SCORES_FILE = scoresFile;
+        this.WAL_FILE = scoresFile + WAL_SUFFIX;
+    }
+
+    /**
+     * Open the score store of a scores file and start its writer thread, which first recovers any batch left in the
+     * write-ahead log by the last run and then loads the leaderboard.
+     * @param filename The name of the scores file.
+     * @return The score store.
+     */
+    public static ScoreStore open(String filename) {
+        ScoreStore store = new ScoreStore(filename);
+        Thread writer = new Thread(store::run, "ScoreStore-writer");
+        writer.setDaemon(true);
+        writer.start();
+        return store;
+    }
+
+    /**
+     * Queue the final score of a game play to be saved. Only waits if the queue is full, which needs more game plays
+     * to finish than the writer has been able to save.
+     * @param playerName The name of the player.
+     * @param score The score.
+     */
+    public void submit(String playerName, float score) {
+        synchronized (LOCK) {
+            submitted++;
+        }
+        String line = Leaderboard.formatScore(playerName, score) + "\n";
+        if (!QUEUE.offer(line)) {
+            GameLog.warn(WRITE_LOG, "the score queue is full, waiting for the writer");
+            try {
+                QUEUE.put(line);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                synchronized (LOCK) {
+                    completed++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait for every score submitted so far to be saved. Call before the game exits, since the writer thread does not
+     * keep the game running.
+     */
+    public void flush() {
+        synchronized (LOCK) {
+            while (completed < submitted) {
+                try {
+                    LOCK.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the leaderboard of the scores file, as of the last batch saved.
+     * @return The leaderboard, or null while it is still being loaded.
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    private void run() {
+        recover();
+        leaderboard = Leaderboard.open(SCORES_FILE, TOP_SCORE_COUNT);
+        ArrayList<String> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(QUEUE.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            QUEUE.drainTo(batch);
+            write(batch);
+            leaderboard = Leaderboard.open(SCORES_FILE, TOP_SCORE_COUNT);
+            synchronized (LOCK) {
+                completed += batch.size();
+                LOCK.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Write a batch of score lines: to the write-ahead log, then to the scores file. If the scores file cannot be
+     * written, the batch stays in the write-ahead log and is written when the game next starts.
+     */
+    private void write(ArrayList<String> batch) {
+        // a batch left over from a failed write goes first, so clearing the log after this one does not lose it
+        if (new File(WAL_FILE).length() > 0) {
+            recover();
+        }
+        StringBuilder lines = new StringBuilder();
+        for (String line : batch) {
+            lines.append(line);
+        }
+        byte[] payload = lines.toString().getBytes(StandardCharsets.UTF_8);
+
+        try (FileChannel wal = FileChannel.open(new File(WAL_FILE).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+             FileChannel scores = FileChannel.open(new File(SCORES_FILE).toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE)) {
+            long offset = scores.size();
+            wal.position(wal.size());
+            writeFully(wal, encodeBatch(offset, payload));
+            wal.force(true);
+
+            scores.position(offset);
+            writeFully(scores, ByteBuffer.wrap(payload));
+            scores.force(true);
+
+            wal.truncate(0);
+            wal.force(true);
+        } catch (IOException e) {
+            GameLog.error(WRITE_LOG, "could not save the scores, they are kept in the write-ahead log", e);
+        }
+    }
+
+    /**
+     * Write every complete batch left in the write-ahead log into the scores file, then clear the log. Also cuts off
+     * a partial last line of a scores file written before the write-ahead log was used, so the next score is not
+     * appended to it.
+     */
+    private void recover() {
+        File walFile = new File(WAL_FILE);
+        File scoresFile = new File(SCORES_FILE);
+        if (!walFile.exists() && !scoresFile.exists()) {
+            return;
+        }
+        try (FileChannel wal = FileChannel.open(walFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileChannel scores = FileChannel.open(scoresFile.toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int recovered = 0;
+            long consumed = 0;
+            ByteBuffer header = ByteBuffer.allocate(BATCH_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (readFully(wal, header)) {
+                header.flip();
+                long offset = header.getInt() == BATCH_MAGIC ? header.getLong() : -1;
+                int length = header.getInt();
+                long checksum = header.getLong();
+                header.clear();
+                if (offset < 0 || length < 0 || length > wal.size() - wal.position()) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                if (!readFully(wal, payload) || checksum(payload.array()) != checksum) {
+                    break;
+                }
+                payload.flip();
+                // write the batch again at the place it was meant to go, over any part of it already there
+                if (offset > scores.size()) {
+                    offset = scores.size();
+                }
+                scores.truncate(offset);
+                scores.position(offset);
+                writeFully(scores, payload);
+                recovered++;
+                consumed = wal.position();
+            }
+            if (consumed < wal.size()) {
+                GameLog.warn(RECOVER_LOG, "dropped an incomplete batch of scores from the write-ahead log");
+            }
+
+            long complete = endOfLastLine(scores);
+            if (complete < scores.size()) {
+                GameLog.warn(RECOVER_LOG, "cut a partial line off the end of the scores file");
+                scores.truncate(complete);
+            }
+            scores.force(true);
+            wal.truncate(0);
+            wal.force(true);
+            if (recovered > 0) {
+                GameLog.info(RECOVER_LOG, "recovered %.0f batches of scores from the write-ahead log", recovered);
+            }
+        } catch (IOException e) {
+            GameLog.error(RECOVER_LOG, "could not recover the scores from the write-ahead log", e);
+        }
+    }
+
+    /**
+     * Lay out a batch of score lines as it is written to the write-ahead log.
+     * @param offset The length of the scores file the batch is appended at.
+     * @param payload The score lines of the batch.
+     * @return The header and the lines, ready to write.
+     */
+    static ByteBuffer encodeBatch(long offset, byte[] payload) {
+        ByteBuffer batch = ByteBuffer.allocate(BATCH_HEADER_BYTES + payload.length).order(ByteOrder.LITTLE_ENDIAN);
+        batch.putInt(BATCH_MAGIC);
+        batch.putLong(offset);
+        batch.putInt(payload.length);
+        batch.putLong(checksum(payload));
+        batch.put(payload);
+        batch.flip();
+        return batch;
+    }
+
+    private static long checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return crc.getValue();
+    }
+
+    /**
+     * Find the end of the last line break of a file, scanning back from its end.
+     */
+    private static long endOfLastLine(FileChannel file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long end = file.size();
+        while (end > 0) {
+            long start = Math.max(0, end - buffer.capacity());
+            buffer.clear().limit((int) (end - start));
+            file.read(buffer, start);
+            for (int i = (int) (end - start) - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Checks the recovery of the score store from a run that died while saving a batch of scores.
+ * The write-ahead log is left holding a complete batch, of which only the first half reached the scores file, and
+ * after it a batch cut off half way through its payload. Opening the store must drop the cut-off batch and write the
+ * complete one exactly once, over its own partial copy, and clear the log; opening it again must change nothing.
+ */
+public class ScoreStoreCheck {
+
+    private static final String[] SAVED = {"NK,530.50", "DCD,541.25"};
+    private static final String[] COMPLETE = {"MANYA,547.00", "JO,12.75"};
+    private static final String[] CUT_OFF = {"LOST,99.00", "GONE,98.00"};
+    private static final long RECOVERY_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * Leave a write-ahead log as a crash would, open the store on it and compare the scores file. Exits with an error
+     * if anything differs.
+     * @param args Not used.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        File directory = Files.createTempDirectory("ScoreStoreCheck").toFile();
+        File scoresFile = new File(directory, "scores.csv");
+        File walFile = new File(directory, "scores.csv" + ScoreStore.WAL_SUFFIX);
+
+        byte[] saved = lines(SAVED);
+        byte[] complete = lines(COMPLETE);
+        byte[] cutOff = lines(CUT_OFF);
+        try (FileOutputStream scores = new FileOutputStream(scoresFile)) {
+            scores.write(saved);
+            scores.write(complete, 0, complete.length / 2);
+        }
+        try (FileOutputStream wal = new FileOutputStream(walFile)) {
+            wal.write(bytes(ScoreStore.encodeBatch(saved.length, complete)));
+            byte[] batch = bytes(ScoreStore.encodeBatch(saved.length + complete.length, cutOff));
+            wal.write(batch, 0, batch.length - cutOff.length / 2);
+        }
+
+        byte[] expected = Arrays.copyOf(saved, saved.length + complete.length);
+        System.arraycopy(complete, 0, expected, saved.length, complete.length);
+        recover(scoresFile);
+        check("after recovery", scoresFile, walFile, expected);
+        recover(scoresFile);
+        check("after opening again", scoresFile, walFile, expected);
+
+        System.out.println("score store recovery: kept " + COMPLETE.length + " scores of the complete batch, dropped "
+                + CUT_OFF.length + " of the cut-off batch");
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+        GameLog.flush();
+    }
+
+    // the writer thread recovers the write-ahead log before it loads the leaderboard
+    private static void recover(File scoresFile) throws InterruptedException {
+        ScoreStore store = ScoreStore.open(scoresFile.getPath());
+        long deadline = System.currentTimeMillis() + RECOVERY_TIMEOUT_MILLIS;
+        while (store.getLeaderboard() == null) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("the score store did not open within " + RECOVERY_TIMEOUT_MILLIS + " ms");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static void check(String name, File scoresFile, File walFile, byte[] expected) throws IOException {
+        byte[] scores = Files.readAllBytes(scoresFile.toPath());
+        if (!Arrays.equals(scores, expected)) {
+            fail("the scores file " + name + " is\n" + new String(scores, StandardCharsets.UTF_8) + "expected\n"
+                    + new String(expected, StandardCharsets.UTF_8));
+        }
+        if (walFile.length() != 0) {
+            fail("the write-ahead log " + name + " still holds " + walFile.length() + " bytes");
+        }
+    }
+
+    private static byte[] lines(String[] scores) {
+        return (String.join("\n", scores) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static void fail(String message) {
+        System.err.println(message);
+        System.exit(-1);
+    }
+}
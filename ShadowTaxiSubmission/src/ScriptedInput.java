@@ -0,0 +1,91 @@
+import bagel.Keys;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * An InputSource that plays back a script of key holds instead of reading a keyboard.
+ * A hold keeps a key down for a range of frames, and the script can repeat with a fixed period. Pressed and released
+ * events are derived from the held state of the previous frame, the same way a real keyboard produces them.
+ * A script without holds is a no-op input where no key is ever touched.
+ */
+public class ScriptedInput implements InputSource {
+
+    private static final Keys[] KEYS = Keys.values();
+
+    private final ArrayList<int[]> HOLDS = new ArrayList<>();
+    private final boolean[] DOWN = new boolean[KEYS.length];
+    private final boolean[] PREVIOUSLY_DOWN = new boolean[KEYS.length];
+    private final int PERIOD;
+
+    private int frame = -1;
+
+    /**
+     * Constructs a script that runs once.
+     */
+    public ScriptedInput() {
+        this(0);
+    }
+
+    /**
+     * Constructs a script that starts again every period frames.
+     * @param period The length of the script in frames, or 0 if the script does not repeat.
+     */
+    public ScriptedInput(int period) {
+        this.PERIOD = period;
+    }
+
+    /**
+     * Create a script that drives forward for a number of frames, then stops for a number of frames, over and over.
+     * Stopping gives passengers in range a chance to get in and trips a chance to end.
+     * @param driveFrames The number of frames UP is held.
+     * @param stopFrames The number of frames UP is released.
+     * @return The script.
+     */
+    public static ScriptedInput cruise(int driveFrames, int stopFrames) {
+        return new ScriptedInput(driveFrames + stopFrames).hold(Keys.UP, 0, driveFrames - 1);
+    }
+
+    /**
+     * Add a hold to the script.
+     * @param key The key to hold down.
+     * @param fromFrame The first frame the key is down (inclusive).
+     * @param toFrame The last frame the key is down (inclusive).
+     * @return This script, so holds can be chained.
+     */
+    public ScriptedInput hold(Keys key, int fromFrame, int toFrame) {
+        HOLDS.add(new int[] {key.ordinal(), fromFrame, toFrame});
+        return this;
+    }
+
+    /**
+     * Move the script on to the next frame. Must be called once before every update of the game.
+     */
+    public void advance() {
+        frame++;
+        int scriptFrame = PERIOD > 0 ? frame % PERIOD : frame;
+
+        System.arraycopy(DOWN, 0, PREVIOUSLY_DOWN, 0, DOWN.length);
+        Arrays.fill(DOWN, false);
+        for (int[] hold : HOLDS) {
+            if (scriptFrame >= hold[1] && scriptFrame <= hold[2]) {
+                DOWN[hold[0]] = true;
+            }
+        }
+    }
+
+    @Override
+    public boolean isDown(Keys key) {
+        return DOWN[key.ordinal()];
+    }
+
+    @Override
+    public boolean wasPressed(Keys key) {
+        return DOWN[key.ordinal()] && !PREVIOUSLY_DOWN[key.ordinal()];
+    }
+
+    @Override
+    public boolean wasReleased(Keys key) {
+        return !DOWN[key.ordinal()] && PREVIOUSLY_DOWN[key.ordinal()];
+    }
+}
@@ -4,23 +4,44 @@ import java.util.Properties;
 
 public class   ShadowTaxi extends AbstractGame {
 
-    private final Properties GAME_PROPS;
+    private final GameConfig CONFIG;
     private final Properties MESSAGE_PROPS;
+    // scores are saved and the leaderboard kept on a background thread, so ending a session never waits on the disk
+    private final ScoreStore SCORES;
 
     private HomeScreen homeScreen;
     private GamePlayScreen gamePlayScreen;
     private PlayerInfoScreen playerInfoScreen;
     private GameEndScreen gameEndScreen;
 
-    public ShadowTaxi(Properties gameProps, Properties messageProps) {
-        super(Integer.parseInt(gameProps.getProperty("window.width")),
-                Integer.parseInt(gameProps.getProperty("window.height")),
-                messageProps.getProperty("home.title"));
+    // the game play logic reads the keyboard through an InputSource, so it can also run from a script
+    private final BagelInput GAME_PLAY_INPUT = new BagelInput();
+    private final LatchedInput TICK_INPUT = new LatchedInput();
+    private final SimulationClock CLOCK;
 
-        this.GAME_PROPS = gameProps;
+    // the input of the current session is recorded when a replay file is configured
+    private final String REPLAY_FILE;
+    private InputLog inputLog;
+    // the frame timings of the current session are saved when a metrics file is configured
+    private final String METRICS_FILE;
+
+    private static final LogSite SESSION_LOG = new LogSite("ShadowTaxi.session", 0);
+
+    public ShadowTaxi(GameConfig config, Properties messageProps) {
+        super(config.getWindowWidth(), config.getWindowHeight(), messageProps.getProperty("home.title"));
+
+        this.CONFIG = config;
         this.MESSAGE_PROPS = messageProps;
+        this.SCORES = ScoreStore.open(config.getGameEnd().getScoresFile());
+        this.CLOCK = new SimulationClock(config.getGamePlay().getTickRate(),
+                config.getGamePlay().getMaxTicksPerFrame());
+        this.REPLAY_FILE = config.getGamePlay().getReplayFile();
+        this.METRICS_FILE = config.getGamePlay().getMetricsFile();
+
+        // load every texture and font up front, so no screen or entity decodes one while the game is running
+        AssetCache.preload(CONFIG);
 
-        homeScreen = new HomeScreen(GAME_PROPS, MESSAGE_PROPS);
+        homeScreen = new HomeScreen(CONFIG, MESSAGE_PROPS);
     }
 
     /**
@@ -30,6 +51,15 @@ public class   ShadowTaxi extends AbstractGame {
     @Override
     protected void update(Input input) {
         if (input.wasPressed(Keys.ESCAPE)){
+            // keep the recording of a session that is cut short, it may be the one worth replaying
+            if (inputLog != null) {
+                inputLog.save(REPLAY_FILE);
+            }
+            if (gamePlayScreen != null && METRICS_FILE != null) {
+                gamePlayScreen.getProfiler().save(METRICS_FILE);
+            }
+            SCORES.flush();
+            GameLog.flush();
             Window.close();
         }
 
@@ -37,20 +67,52 @@ public class   ShadowTaxi extends AbstractGame {
         if (gamePlayScreen == null && playerInfoScreen == null && gameEndScreen == null) {
             // if the user click ENTER button when in the Home Screen, generate the player info screen
             if(homeScreen.update(input)) {
-                playerInfoScreen = new PlayerInfoScreen(GAME_PROPS, MESSAGE_PROPS);
+                playerInfoScreen = new PlayerInfoScreen(CONFIG, MESSAGE_PROPS);
             }
         } else if(playerInfoScreen != null && gamePlayScreen == null && gameEndScreen == null) {
             // if the user selects to start the game, generate a new game play screen
             if(playerInfoScreen.update(input)) {
-                gamePlayScreen = new GamePlayScreen(GAME_PROPS, MESSAGE_PROPS, playerInfoScreen.getPlayerName());
+                gamePlayScreen = new GamePlayScreen(CONFIG, MESSAGE_PROPS, playerInfoScreen.getPlayerName());
+                gamePlayScreen.setScoreStore(SCORES);
+                CLOCK.reset();
+                inputLog = REPLAY_FILE != null ? new InputLog(gamePlayScreen.getSeed()) : null;
                 playerInfoScreen = null;
             }
         } else if (playerInfoScreen == null && gamePlayScreen != null && gameEndScreen == null){
+            FrameProfiler profiler = gamePlayScreen.getProfiler();
+            long frameStart = profiler.start();
+            if (input.wasPressed(Keys.P)) {
+                gamePlayScreen.toggleMetricsOverlay();
+            }
+            // step the simulation at its fixed rate, however often the window is refreshed
+            GAME_PLAY_INPUT.setInput(input);
+            TICK_INPUT.latch(GAME_PLAY_INPUT);
+            int ticks = CLOCK.advance(System.nanoTime());
+            boolean isFinished = false;
+            for (int i = 0; i < ticks && !isFinished; i++) {
+                if (inputLog != null) {
+                    inputLog.record(TICK_INPUT);
+                }
+                isFinished = gamePlayScreen.update(TICK_INPUT);
+                TICK_INPUT.consume();
+            }
+            gamePlayScreen.render(CLOCK.getAlpha());
+            profiler.lap(FramePhase.FRAME, frameStart);
+            profiler.count(FrameCounter.TICKS, ticks);
             // if the game is over or the level is completed, generate new game end screen
-            if(gamePlayScreen.update(input)) {
+            if(isFinished) {
+                if (inputLog != null) {
+                    inputLog.save(REPLAY_FILE);
+                    inputLog = null;
+                }
+                if (METRICS_FILE != null) {
+                    profiler.save(METRICS_FILE);
+                }
                 boolean isWon = gamePlayScreen.isLevelCompleted();
+                GameLog.info(SESSION_LOG, isWon ? "session won in %.0f ticks" : "session lost in %.0f ticks",
+                        gamePlayScreen.getCurrFrame());
 
-                gameEndScreen = new GameEndScreen(GAME_PROPS, MESSAGE_PROPS);
+                gameEndScreen = new GameEndScreen(CONFIG, MESSAGE_PROPS, SCORES);
                 gameEndScreen.setIsWon(isWon);
 
                 gamePlayScreen = null;
@@ -65,9 +127,11 @@ public class   ShadowTaxi extends AbstractGame {
     }
 
     public static void main(String[] args) {
-        Properties game_props = IOUtils.readPropertiesFile("res/app.properties");
+        // every game property is read and checked here, so a bad properties file stops the game before it starts
+        GameConfig config = GameConfig.load("res/app.properties");
         Properties message_props = IOUtils.readPropertiesFile("res/message_en.properties");
-        ShadowTaxi game = new ShadowTaxi(game_props, message_props);
+        GameLog.configure(config);
+        ShadowTaxi game = new ShadowTaxi(config, message_props);
         game.run();
     }
 }
@@ -0,0 +1,91 @@
+/**
+ * A fixed-timestep clock for the game play simulation. Real time is added to an accumulator every rendered frame and
+ * the simulation is stepped once for every whole tick in it, so the game runs at the same speed whatever the refresh
+ * rate of the monitor is. The time left over in the accumulator is the fraction of the next tick that has passed,
+ * which the render step uses to interpolate between the last two simulated positions.
+ */
+public class SimulationClock {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long TICK_NANOS;
+    private final int MAX_TICKS_PER_FRAME;
+
+    private double timeScale = 1.0;
+    private long lastTime = -1;
+    private long accumulator;
+    private long tickCount;
+
+    /**
+     * Constructs a clock.
+     * @param tickRate The number of simulation ticks per second.
+     * @param maxTicksPerFrame The most ticks run for one rendered frame. After a stall the clock drops the time it
+     *                         cannot catch up with instead of running ever more ticks per frame.
+     */
+    public SimulationClock(int tickRate, int maxTicksPerFrame) {
+        this.TICK_NANOS = NANOS_PER_SECOND / tickRate;
+        this.MAX_TICKS_PER_FRAME = maxTicksPerFrame;
+    }
+
+    /**
+     * Set how fast simulated time passes compared to real time, e.g. 4 to play a replay back at four times the speed.
+     * @param timeScale The number of simulated seconds per real second.
+     */
+    public void setTimeScale(double timeScale) {
+        this.timeScale = timeScale;
+    }
+
+    /**
+     * Stop the clock and empty the accumulator. The next call to advance starts it again, so time that passed while
+     * the clock was not in use, e.g. on another screen, is not simulated.
+     */
+    public void reset() {
+        lastTime = -1;
+        accumulator = 0;
+    }
+
+    /**
+     * Add the real time passed since the last call to the accumulator, and take out the whole ticks in it.
+     * The first call only starts the clock.
+     * @param now The current time in nanoseconds, as given by System.nanoTime.
+     * @return The number of simulation ticks to run before the next frame is rendered.
+     */
+    public int advance(long now) {
+        if (lastTime >= 0) {
+            accumulator += (long) ((now - lastTime) * timeScale);
+        }
+        lastTime = now;
+
+        int ticks = (int) Math.min(accumulator / TICK_NANOS, MAX_TICKS_PER_FRAME);
+        accumulator -= ticks * TICK_NANOS;
+        if (ticks == MAX_TICKS_PER_FRAME && accumulator >= TICK_NANOS) {
+            // too far behind to catch up, keep only the fraction of a tick
+            accumulator %= TICK_NANOS;
+        }
+        tickCount += ticks;
+        return ticks;
+    }
+
+    /**
+     * Get how far the simulation is into the next tick, for interpolating positions in the render step.
+     * @return The fraction of the next tick that has passed, from 0 (inclusive) to 1 (exclusive).
+     */
+    public double getAlpha() {
+        return (double) accumulator / TICK_NANOS;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Interpolate between the position of an object at the previous tick and its position at the current tick.
+     * @param previous The position at the previous tick.
+     * @param current The position at the current tick.
+     * @param alpha The fraction of the next tick that has passed.
+     * @return The position to draw the object at.
+     */
+    public static double interpolate(double previous, double current, double alpha) {
+        return previous + (current - previous) * alpha;
+    }
+}
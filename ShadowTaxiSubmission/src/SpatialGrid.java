@@ -0,0 +1,186 @@
+import java.util.Arrays;
+
+/**
+ * A uniform grid broadphase for collision detection.
+ * Objects are registered into square cells every frame by their coordinates, and only objects sharing the same or an
+ * adjacent cell are handed to the narrow-phase check. The grid does not hold the objects themselves: each one is
+ * known by the order it was inserted in, so objects kept in arrays, like the traffic, are registered without a
+ * handle. The cell size must be at least the largest sum of two collision radii,
+ * so that any two overlapping circles are guaranteed to be in neighbouring cells.
+ * Traffic only ever drives along the lane centres, which are further apart than two cells, so cars in different lanes
+ * never become candidates for each other.
+ * Only the other cars are registered, for the one test of many objects against many, car against car. Every other
+ * collision is one object against many, which a single pass over the candidates answers as cheaply as a grid query:
+ * the taxi against the traffic in one batch in TrafficSystem, the power-ups against the taxi in PowerUpSystem, and
+ * each passenger against the taxi.
+ */
+public class SpatialGrid {
+
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int CELL_SIZE;
+
+    // open addressing table from packed cell coordinates to the head of the cell's linked list
+    private long[] cellKeys;
+    private int[] cellHeads;
+    private int[] usedSlots;
+    private int usedSlotCount;
+
+    // registered objects, chained per cell through the next index
+    private int entryCount;
+    private int[] nextEntry = new int[INITIAL_CAPACITY];
+
+    // the result of the last query
+    private int[] neighbours = new int[INITIAL_CAPACITY];
+    private int neighbourCount;
+
+    /**
+     * Constructs an empty grid.
+     *
+     * @param cellSize The width and height of a grid cell in pixels.
+     */
+    public SpatialGrid(int cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.CELL_SIZE = cellSize;
+        this.cellKeys = new long[INITIAL_CAPACITY];
+        this.cellHeads = new int[INITIAL_CAPACITY];
+        this.usedSlots = new int[INITIAL_CAPACITY];
+        Arrays.fill(cellKeys, EMPTY_KEY);
+    }
+
+    /**
+     * Remove every registered object. The internal storage is kept so that the next frame does not allocate.
+     */
+    public void clear() {
+        for (int i = 0; i < usedSlotCount; i++) {
+            cellKeys[usedSlots[i]] = EMPTY_KEY;
+        }
+        usedSlotCount = 0;
+        entryCount = 0;
+    }
+
+    /**
+     * Register an object into the cell containing its current position.
+     *
+     * @param x The x-coordinate of the object.
+     * @param y The y-coordinate of the object.
+     * @return The number of the object, which is the number of objects registered before it this frame.
+     */
+    public int insert(int x, int y) {
+        int index = entryCount++;
+        if (index == nextEntry.length) {
+            nextEntry = Arrays.copyOf(nextEntry, index * 2);
+        }
+
+        if ((usedSlotCount + 1) * 2 > cellKeys.length) {
+            rehash(cellKeys.length * 2);
+        }
+        long key = cellKey(cellOf(x), cellOf(y));
+        int slot = findSlot(key);
+        if (cellKeys[slot] == EMPTY_KEY) {
+            cellKeys[slot] = key;
+            cellHeads[slot] = -1;
+            usedSlots[usedSlotCount++] = slot;
+        }
+        nextEntry[index] = cellHeads[slot];
+        cellHeads[slot] = index;
+        return index;
+    }
+
+    /**
+     * Collect every registered object in the same or an adjacent cell as the given position, excluding the object
+     * itself. These are the only candidates that can possibly be colliding with it. The candidates are read with
+     * getNeighbour, and are only kept until the next query.
+     *
+     * @param x The x-coordinate of the object to find neighbours of.
+     * @param y The y-coordinate of the object to find neighbours of.
+     * @param self The number of the object, or -1 if it is not registered.
+     * @return The number of candidates.
+     */
+    public int query(int x, int y, int self) {
+        neighbourCount = 0;
+        int cellX = cellOf(x);
+        int cellY = cellOf(y);
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                int slot = findSlot(cellKey(cellX + dx, cellY + dy));
+                if (cellKeys[slot] == EMPTY_KEY) {
+                    continue;
+                }
+                for (int i = cellHeads[slot]; i != -1; i = nextEntry[i]) {
+                    if (i != self) {
+                        if (neighbourCount == neighbours.length) {
+                            neighbours = Arrays.copyOf(neighbours, neighbourCount * 2);
+                        }
+                        neighbours[neighbourCount++] = i;
+                    }
+                }
+            }
+        }
+        return neighbourCount;
+    }
+
+    /**
+     * Get a candidate found by the last query.
+     *
+     * @param i The index of the candidate, less than the count returned by the query.
+     * @return The number of the candidate object.
+     */
+    public int getNeighbour(int i) {
+        return neighbours[i];
+    }
+
+    /**
+     * Get the number of objects registered in the current frame.
+     *
+     * @return The number of registered objects.
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    private int cellOf(int coordinate) {
+        return Math.floorDiv(coordinate, CELL_SIZE);
+    }
+
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xffffffffL);
+    }
+
+    /**
+     * Find the slot holding the key, or the empty slot where it would be inserted (linear probing).
+     */
+    private int findSlot(long key) {
+        int mask = cellKeys.length - 1;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (cellKeys[slot] != EMPTY_KEY && cellKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = cellKeys;
+        int[] oldHeads = cellHeads;
+        int[] oldUsed = usedSlots;
+        int oldUsedCount = usedSlotCount;
+
+        cellKeys = new long[capacity];
+        cellHeads = new int[capacity];
+        usedSlots = new int[capacity];
+        usedSlotCount = 0;
+        Arrays.fill(cellKeys, EMPTY_KEY);
+
+        for (int i = 0; i < oldUsedCount; i++) {
+            int oldSlot = oldUsed[i];
+            int slot = findSlot(oldKeys[oldSlot]);
+            cellKeys[slot] = oldKeys[oldSlot];
+            cellHeads[slot] = oldHeads[oldSlot];
+            usedSlots[usedSlotCount++] = slot;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+import bagel.Image;
+
+/**
+ * A shared handle to an image handed out by the AssetCache.
+ * When the game runs headless there is no window to draw to, so the handle holds no bagel image and drawing does nothing.
+ */
+public class Sprite {
+
+    private final int ID;
+    private final String PATH;
+    private final Image IMAGE;
+
+    /**
+     * Constructs a handle to an image.
+     * @param id The id of the image, unique among the images in the cache.
+     * @param path The path of the image file.
+     * @param image The loaded image, or null when running headless.
+     */
+    public Sprite(int id, String path, Image image) {
+        this.ID = id;
+        this.PATH = path;
+        this.IMAGE = image;
+    }
+
+    /**
+     * Draw the image centred at the given coordinates.
+     * @param x The x-coordinate of the centre of the image.
+     * @param y The y-coordinate of the centre of the image.
+     */
+    public void draw(double x, double y) {
+        if (IMAGE != null) {
+            IMAGE.draw(x, y);
+        }
+    }
+
+    /**
+     * Submit the image to a render queue, to be drawn centred at the given coordinates when the frame is flushed.
+     * @param queue The render queue of the frame.
+     * @param x The x-coordinate of the centre of the image.
+     * @param y The y-coordinate of the centre of the image.
+     * @param layer The layer to draw the image in.
+     */
+    public void submit(RenderQueue queue, double x, double y, RenderLayer layer) {
+        queue.submit(this, x, y, layer);
+    }
+
+    public int getId() {
+        return ID;
+    }
+
+    public String getPath() {
+        return PATH;
+    }
+}
@@ -0,0 +1,54 @@
+import bagel.DrawOptions;
+import bagel.Font;
+
+/**
+ * A shared handle to a font handed out by the AssetCache.
+ * When the game runs headless there is no window to draw to, so the handle holds no bagel font, drawing does nothing
+ * and every string has a width of 0.
+ */
+public class SpriteFont {
+
+    private final Font FONT;
+
+    /**
+     * Constructs a handle to a font.
+     * @param font The loaded font, or null when running headless.
+     */
+    public SpriteFont(Font font) {
+        this.FONT = font;
+    }
+
+    /**
+     * Draw a string with its bottom-left corner at the given coordinates.
+     * @param text The string to draw.
+     * @param x The x-coordinate of the string.
+     * @param y The y-coordinate of the string.
+     */
+    public void drawString(String text, double x, double y) {
+        if (FONT != null) {
+            FONT.drawString(text, x, y);
+        }
+    }
+
+    /**
+     * Draw a string with its bottom-left corner at the given coordinates, using the given draw options.
+     * @param text The string to draw.
+     * @param x The x-coordinate of the string.
+     * @param y The y-coordinate of the string.
+     * @param options The draw options, e.g. the colour of the text.
+     */
+    public void drawString(String text, double x, double y, DrawOptions options) {
+        if (FONT != null) {
+            FONT.drawString(text, x, y, options);
+        }
+    }
+
+    /**
+     * Get the width of a string when drawn in this font.
+     * @param text The string to measure.
+     * @return The width of the string in pixels.
+     */
+    public double getWidth(String text) {
+        return FONT == null ? 0 : FONT.getWidth(text);
+    }
+}
@@ -1,9 +1,4 @@
-import bagel.Image;
-import bagel.Input;
 import bagel.Keys;
-import java.util.Properties;
-
-import java.util.Random;
 
 /**
  * Class representing a Taxi in the game, implementing movement, collision handling, health, and power-ups.
@@ -11,8 +6,12 @@ import java.util.Random;
 
 public class Taxi implements Collidable {
 
-    private final Properties PROPS;
-    private final Image IMAGE;
+    private final GameConfig CONFIG;
+    private final Camera CAMERA;
+    private final GameRng RNG;
+    private final Sprite IMAGE;
+    private final Sprite DAMAGED_IMAGE;
+    private final Sprite FIRE_IMAGE;
     private final int SPEED_X;
     private final float RADIUS;
     private float DAMAGE_POINTS = 100.0f;
@@ -23,46 +22,57 @@ public class Taxi implements Collidable {
     //private Coin coinPower;
     private int x;
     private int y;
+    // a taxi with no driver, the damaged one or the new one, is parked: it stays where it is in the level instead
+    private boolean isParked;
+    private long parkedWorldY;
     private boolean isMovingY;
     private boolean isMovingX;
     public boolean isInvincible;
-    protected final Trip[] TRIPS;
-    private int tripCount;
+    private final EarningsLedger EARNINGS;
+    private Trip lastTrip;
     protected Coin coinPower;
     private Trip trip;
 
 
+    private static final LogSite DAMAGE_LOG = new LogSite("Taxi.damage", 250);
+    private static final LogSite NEW_TAXI_LOG = new LogSite("Taxi.newTaxi", 0);
+
     private static final int SMOKE_RENDER_TIMEOUT_FRAMES = 20;  // Smoke render duration
     private static final int FIRE_RENDER_TIMEOUT_FRAMES = 20;
     private int smokeRenderTimeout;
     private int fireRenderTimeout;
 
-    private static boolean isNewTaxiCreated = false;
+    private boolean isNewTaxiCreated = false;
     private boolean isNewTaxiActive = false; // Flag to control the new taxi after driver entry
     private Taxi newTaxiInstance = null;
     private Driver driver;
-    private boolean shouldScrollDamagedTaxi = false;
 
     public boolean isOriginalTaxi;
 
     /**
-     * Constructs a Taxi with specified position, maximum trip count, and properties.
+     * Constructs a Taxi with specified position and properties.
      *
      * @param x           Initial x-coordinate of the Taxi.
      * @param y           Initial y-coordinate of the Taxi.
-     * @param maxTripCount Maximum number of trips allowed for the Taxi.
-     * @param props       Properties configuration for the Taxi.
+     * @param earnings    The ledger the trips of the Taxi are recorded in.
+     * @param config      The game configuration.
+     * @param camera      The camera the level is viewed through, which scrolls the taxi once it is parked.
+     * @param rng         Random number stream for spawning the new taxi.
      */
 
-    public Taxi(int x, int y, int maxTripCount, Properties props) {
-        this.PROPS = props;
+    public Taxi(int x, int y, EarningsLedger earnings, GameConfig config, Camera camera, GameRng rng) {
+        this.CONFIG = config;
+        this.CAMERA = camera;
+        this.RNG = rng;
         this.x = x;
         this.y = y;
-        this.SPEED_X = Integer.parseInt(props.getProperty("gameObjects.taxi.speedX"));
-        this.IMAGE = new Image(props.getProperty("gameObjects.taxi.image"));
-        this.RADIUS = Float.parseFloat(props.getProperty("gameObjects.taxi.radius"));
+        this.SPEED_X = config.getTaxi().getSpeedX();
+        this.IMAGE = AssetCache.getImage(config.getTaxi().getImage());
+        this.DAMAGED_IMAGE = AssetCache.getImage(config.getTaxi().getDamagedImage());
+        this.FIRE_IMAGE = AssetCache.getImage(config.getFireImage());
+        this.RADIUS = config.getTaxi().getRadius();
         this.isDestroyed = false;
-        TRIPS = new Trip[maxTripCount];
+        this.EARNINGS = earnings;
         this.collisionTimeout = 0;
         this.smokeRenderTimeout = 0;
         this.fireRenderTimeout = 0;
@@ -75,11 +85,23 @@ public class Taxi implements Collidable {
     }
 
     public int getY() {
-        return y;
+        return isParked ? CAMERA.toScreenY(parkedWorldY) : y;
     }
 
     public void setY(int y) {
-        this.y = y;
+        if (isParked) {
+            parkedWorldY = CAMERA.toWorldY(y);
+        } else {
+            this.y = y;
+        }
+    }
+
+    /**
+     * Leave the taxi where it is in the level, so the camera scrolls it down the screen with everything else.
+     */
+    private void park() {
+        parkedWorldY = CAMERA.toWorldY(y);
+        isParked = true;
     }
 
     public void setX(int x) {
@@ -108,13 +130,17 @@ public class Taxi implements Collidable {
      * @param driver The driver associated with the Taxi.
      */
 
-    public void update(Input input, Driver driver) {
+    public void update(InputSource input, Driver driver) {
         this.driver = driver;
 
+        // the fire of a destroyed taxi sinks a little every tick until it goes out
+        if (isDestroyed && fireRenderTimeout < FIRE_RENDER_TIMEOUT_FRAMES) {
+            fireRenderTimeout++;
+        }
+
         // Case 1: The original taxi is destroyed, triggering new taxi creation
         if (health <= 0) {
             isDestroyed = true;
-            drawDamagedTaxi(); // Render the damaged taxi
 
             if (!isNewTaxiCreated) {
                 stopAndEjectDriver(driver);
@@ -123,39 +149,17 @@ public class Taxi implements Collidable {
             }
         }
 
-        // Case 2: The new taxi is created, and the driver is not inside
-        if (isNewTaxiCreated && !isNewTaxiActive) {
-            //health = 100;
-            if (input != null && input.isDown(Keys.UP)) {
-                newTaxiInstance.y += 5;  // Move the new taxi down by 5 pixels per frame when UP is pressed
-
-            }
-            newTaxiInstance.draw();  // Draw the new taxi at its updated position
-
-        }
-
         // Case 1: Control the new taxi once it’s active
         if (isNewTaxiCreated && isNewTaxiActive && newTaxiInstance != null) {
-            System.out.println("Controlling new taxi...");
             newTaxiInstance.adjustToInputMovement(input);  // Allow movement for new taxi
-            newTaxiInstance.draw();
         }
         // Case 2: Driver has not yet entered new taxi
         else if (isNewTaxiCreated && !isNewTaxiActive) {
             driver.updateWithTaxi(input, newTaxiInstance);  // Allow driver movement towards new taxi
-            newTaxiInstance.draw();
         }
         // Case 3: Control the original taxi if not destroyed and new taxi doesn’t exist
         else if (!isDestroyed && !isNewTaxiCreated) {
             adjustToInputMovement(input);
-            draw();
-        }
-
-
-        // Move the damaged taxi downward only if up arrow key is pressed
-        if (shouldScrollDamagedTaxi && input != null && input.isDown(Keys.UP)) {
-            y += 5;
-            drawDamagedTaxi();
         }
 
         // if the taxi has coin power, apply the effect of the coin on the priority of the passenger
@@ -176,14 +180,6 @@ public class Taxi implements Collidable {
             getTrip().end();
         }
 
-        // the flag of the current trip renders to the screen
-        if(tripCount > 0) {
-            Trip lastTrip = TRIPS[tripCount - 1];
-            if(!lastTrip.getPassenger().hasReachedFlag()) {
-                lastTrip.getTripEndFlag().update(input);
-            }
-        }
-
 
         // Handle invincibility and collision timeout
         if (collisionTimeout > 0) collisionTimeout--;
@@ -191,12 +187,26 @@ public class Taxi implements Collidable {
     }
 
     /**
-     * Draws the Taxi image on the screen if it is not destroyed.
+     * Submits the Taxi to the render queue: the damaged taxi once it is destroyed, the new taxi once it has been
+     * spawned, and the end flag of the current trip until the passenger reaches it.
+     *
+     * @param queue The render queue of the frame.
+     * @param alpha The fraction of the next tick that has passed, to interpolate the end flag's position with.
      */
 
-    public void draw() {
-        if (health > 0 && !isDestroyed) {
-            IMAGE.draw(this.x, this.y);
+    public void draw(RenderQueue queue, double alpha) {
+        if (isDestroyed) {
+            drawDamagedTaxi(queue);
+        }
+
+        if (isNewTaxiCreated && newTaxiInstance != null) {
+            newTaxiInstance.draw(queue, alpha);
+        } else if (health > 0 && !isDestroyed) {
+            IMAGE.submit(queue, this.x, getY(), RenderLayer.VEHICLES);
+        }
+
+        if(lastTrip != null && !lastTrip.getPassenger().hasReachedFlag()) {
+            lastTrip.getTripEndFlag().draw(queue, alpha);
         }
     }
 
@@ -205,7 +215,7 @@ public class Taxi implements Collidable {
      */
     public void activate() {
         isNewTaxiActive = true;
-        System.out.println("New taxi now active");
+        GameLog.info(NEW_TAXI_LOG, "new taxi active");
     }
     /**
      * Stops and ejects the driver from the Taxi.
@@ -219,20 +229,17 @@ public class Taxi implements Collidable {
         driver.setX(this.x - 50);
         driver.setY(this.y);
         driver.setInTaxi(false);
-        shouldScrollDamagedTaxi = true;
+        park();
     }
     /**
-     * Draws the damaged Taxi on the screen, including a fire effect if applicable.
+     * Submits the damaged Taxi to the render queue, including a fire effect if applicable.
      */
 
-    private void drawDamagedTaxi() {
-        Image damagedImage = new Image("res/taxiDamaged.png");
-        damagedImage.draw(this.x, this.y);
+    private void drawDamagedTaxi(RenderQueue queue) {
+        DAMAGED_IMAGE.submit(queue, this.x, getY(), RenderLayer.VEHICLES);
 
         if (fireRenderTimeout < FIRE_RENDER_TIMEOUT_FRAMES) {
-            Image fireImage = new Image("res/fire.png");
-            fireImage.draw(this.x, this.y + fireRenderTimeout * 5);
-            fireRenderTimeout++;
+            FIRE_IMAGE.submit(queue, this.x, getY() + fireRenderTimeout * 5, RenderLayer.EFFECTS);
         }
     }
 
@@ -253,8 +260,7 @@ public class Taxi implements Collidable {
     public void setTrip(Trip trip) {
         this.trip = trip;
         if(trip != null) {
-            this.TRIPS[tripCount] = trip;
-            tripCount++;
+            this.lastTrip = trip;
         }
     }
     /**
@@ -267,14 +273,19 @@ public class Taxi implements Collidable {
         return this.trip;
     }
     /**
-     * Get the last trip from the list of trips.
-     * @return Trip object
+     * Get the last trip started by the Taxi.
+     * @return Trip object, or null if no trip has been started
      */
     public Trip getLastTrip() {
-        if (tripCount == 0) {
-            return null;
-        }
-        return TRIPS[tripCount - 1];
+        return lastTrip;
+    }
+
+    /**
+     * Get the ledger the trips of the Taxi are recorded in, shared with the new taxi if this one is destroyed.
+     * @return The earnings ledger.
+     */
+    public EarningsLedger getEarnings() {
+        return EARNINGS;
     }
     /**
      * Adjusts Taxi movement based on user input.
@@ -282,7 +293,7 @@ public class Taxi implements Collidable {
      * @param input The input used to adjust movement.
      */
 
-    public void adjustToInputMovement(Input input) {
+    public void adjustToInputMovement(InputSource input) {
         if (isNewTaxiCreated && !isNewTaxiActive) {
             return;
         } else if (isNewTaxiActive || !isDestroyed) {
@@ -319,23 +330,22 @@ public class Taxi implements Collidable {
 
     // Method to spawn a new taxi at random coordinates
     public void spawnNewTaxi(Driver driver) {
-        Random random = new Random();
         // Randomly select x-coordinate (either 360 or 620 for specified lanes)
-        int newX = random.nextBoolean() ? 360 : 620;
+        int newX = RNG.nextBoolean() ? 360 : 620;
         // Randomly select y-coordinate between 200 and 400
-        int newY = random.nextInt(201) + 200;
+        int newY = RNG.nextInt(201) + 200;
 
         // Initialize the new taxi with randomized coordinates
-        newTaxiInstance = new Taxi(newX, newY, TRIPS.length, PROPS);
+        newTaxiInstance = new Taxi(newX, newY, EARNINGS, CONFIG, CAMERA, RNG);
         newTaxiInstance.isOriginalTaxi = false;
-        //Taxi newTaxi = new Taxi(newX, newY, TRIPS.length, PROPS);
+        newTaxiInstance.park();
 
         // Logic to re-enter taxi if close enough
         if (driver.calculateDistance(newTaxiInstance) <= driver.getTaxiInRadius()) {
             driver.setInTaxi(true);
             driver.moveWithTaxi(newTaxiInstance);
         }
-        //System.out.println("New Taxi Created at coordinates: (" + newX + ", " + newY + ")");
+        GameLog.debug(NEW_TAXI_LOG, "new taxi created at (%.0f, %.0f)", newX, newY);
     }
 
     /**
@@ -352,6 +362,7 @@ public class Taxi implements Collidable {
                 isDestroyed = true;
                 // Render fire effect here if needed
             }
+            GameLog.debug(DAMAGE_LOG, "taxi took %.2f damage, health %.2f", damage, health);
             collisionTimeout = 200;
         }
     }
@@ -382,129 +393,21 @@ public class Taxi implements Collidable {
     public boolean hasCollided(Collidable entity) {
         if (entity == null) return false;
 
-        float distance = (float) Math.sqrt(Math.pow(this.getX() - entity.getX(), 2) + Math.pow(this.getY() - entity.getY(), 2));
-        return distance <= (this.getRadius() + entity.getRadius());
+        return CircleOverlap.isWithin(this.getX(), this.getY(), entity.getX(), entity.getY(),
+                this.getRadius() + entity.getRadius());
     }
 
-    @Override
-    public void collide(Object entity) {
-        if (entity instanceof Car) {
-            collideWithCar((Car) entity);
-        } else if (entity instanceof EnemyCar) {
-            collideWithEnemyCar((EnemyCar) entity);
-        } else if (entity instanceof Fireball) {
-            collideWithFireball((Fireball) entity);
-        } //else if (entity instanceof InvinciblePower) {
-        //collidewithInvinciblePower((InvinciblePower) entity);
-        //}
-    }
-    /**
-     * Handles collision with a Car entity.
-     *
-     * @param car The Car entity involved in the collision.
-     */
-
-    // Method to handle collision with a Car
-    public void collideWithCar(Car car) {
-        if (isDestroyed || collisionTimeout > 0 || invincibilityFrames > 0 || car.hasCollided()) return;
-
-        float distance = (float) Math.sqrt(Math.pow(this.x - car.getX(), 2) + Math.pow(this.y - car.getY(), 2));
-        if (distance < this.RADIUS + car.getRadius()) {
-            takeDamage(car.getDamage());
-            car.takeDamage(DAMAGE_POINTS);
-            collisionTimeout = 200;
-            car.setCollisionTimeout(200);
-            applyKnockback(car);
-            // Render smoke effect for 20 frames, using smoke.png at the taxi’s coordinates
-        }
-    }
     /**
-     * Handles collision with an EnemyCar entity.
+     * Handles a collision with a car or an enemy car. The traffic resolves its collisions with the taxi, so the
+     * car's own response is used whichever side the collision is found from.
      *
-     * @param enemyCar The EnemyCar entity involved in the collision.
+     * @param entity The entity the taxi may have collided with.
      */
-
-    // Method to handle collision with an EnemyCar
-    public void collideWithEnemyCar(EnemyCar enemyCar) {
-        if (isDestroyed || collisionTimeout > 0 || invincibilityFrames > 0 || enemyCar.isInvincible() || enemyCar.hasCollided()) return;
-
-        float distance = (float) Math.sqrt(Math.pow(this.x - enemyCar.getX(), 2) + Math.pow(this.y - enemyCar.getY(), 2));
-        if (distance < this.RADIUS + enemyCar.getRadius()) {
-            takeDamage(enemyCar.getDamage());
-            enemyCar.takeDamage(DAMAGE_POINTS);
-            collisionTimeout = 200;
-            enemyCar.setCollisionTimeout(200);
-            applyKnockback(enemyCar);
-        }
-    }
-    /**
-     * Handles collision with a Fireball entity.
-     *
-     * @param fireball The Fireball entity involved in the collision.
-     */
-
-    // Method to handle collision with a Fireball
-    public void collideWithFireball(Fireball fireball) {
-        if (isDestroyed || collisionTimeout > 0 || invincibilityFrames > 0) return;
-
-        float distance = (float) Math.sqrt(Math.pow(this.x - fireball.getX(), 2) + Math.pow(this.y - fireball.getY(), 2));
-        if (distance < this.RADIUS + fireball.getRadius()) {
-            takeDamage(fireball.getDamage());
-            collisionTimeout = 200;
-            // Render smoke effect here as well, if needed
-        }
-    }
-    /**
-     * Applies a knockback effect on the given entity.
-     *
-     * @param entity The entity to apply knockback on.
-     */
-
-    private void applyKnockback(Object entity) {
-        for (int i = 0; i < 10; i++) {
-            if (entity instanceof Taxi) {
-                Taxi taxi = (Taxi) entity;
-                if (this.y < taxi.getY()) {
-                    this.y -= 1;
-                    taxi.setY(taxi.getY() + 1);
-                } else {
-                    this.y += 1;
-                    taxi.setY(taxi.getY() - 1);
-                }
-            } else if (entity instanceof Car) {
-                Car car = (Car) entity;
-                if (this.y < car.getY()) {
-                    this.y -= 1;
-                    car.setY(car.getY() + 1);
-                } else {
-                    this.y += 1;
-                    car.setY(car.getY() - 1);
-                }
-            } else if (entity instanceof EnemyCar) {
-                EnemyCar enemyCar = (EnemyCar) entity;
-                if (this.y < enemyCar.getY()) {
-                    this.y -= 1;
-                    enemyCar.setY(enemyCar.getY() + 1);
-                } else {
-                    this.y += 1;
-                    enemyCar.setY(enemyCar.getY() - 1);
-                }
-            }
-        }
-    }
-
-    /**
-     * Calculate total earnings. (See how fee is calculated for each trip in Trip class.)
-     * @return int, total earnings
-     */
-    public float calculateTotalEarnings() {
-        float totalEarnings = 0;
-        for(Trip trip : TRIPS) {
-            if (trip != null) {
-                totalEarnings += trip.getFee();
-            }
+    @Override
+    public void collide(Object entity) {
+        if (entity instanceof Car || entity instanceof EnemyCar) {
+            ((Collidable) entity).collide(this);
         }
-        return totalEarnings;
     }
 
     // Setter for health
@@ -0,0 +1,514 @@
+import java.util.Arrays;
+
+/**
+ * Spawns, collides and despawns the traffic: the other cars and the enemy cars, which are entities of the world with
+ * a position, velocity, sprite, collider, health and a timer for their collision timeout. The cars are moved by the
+ * MotionSystem and drawn by the RenderSystem; this system only adds their smoke and fire.
+ * The collision responses are looked up in a CollisionMatrix by the types of the two objects, and each pair the
+ * broadphase finds is resolved once.
+ * Code that works with cars as objects gets a handle on an entity, see Car and EnemyCar.
+ */
+public class TrafficSystem {
+
+    // lanes the cars can drive in, and the y-coordinates they can enter the screen from
+    private static final int[] LANES = {360, 480, 620};
+    private static final int[] SPAWN_Y = {-50, 768};
+    private static final int COLLISION_TIMEOUT = 200;
+    private static final int KNOCKBACK_DISTANCE = 10;
+    private static final int FIRE_RENDER_TIMEOUT_FRAMES = 20;
+    private static final int SMOKE_RENDER_TIMEOUT_FRAMES = 20;
+    private static final int TAXI_INDEX = -1;  // the taxi is not in the world, see the taxi field
+
+    private final EntityWorld WORLD;
+    private final MotionSystem MOTION;
+    private final TrafficKind[] KINDS = new TrafficKind[GameObjectType.values().length];
+    private final int WINDOW_HEIGHT;
+    private final int MAX_FRAMES;
+
+    // broadphase for the collision checks
+    private final SpatialGrid GRID;
+    private int[] gridEntries = new int[64];  // the grid number of every car, by index, -1 if not in the grid
+    private int[] batchOfEntry = new int[64];  // the batch number of every car, by grid number
+    private int[] entryIndices = new int[64];  // the index of every car, by batch number
+    private int[] entryTypes = new int[64];  // the type ordinal of every car, by batch number
+    // the circle of every car, by batch number, for the batch test against the taxi
+    private float[] entryXs = new float[64];
+    private float[] entryYs = new float[64];
+    private float[] entryRadii = new float[64];
+    private int[] taxiHits = new int[64];
+    private int pairTestsSaved;
+
+    // the effects of culled cars that are still showing, like the fire of an enemy car destroyed in the last tick
+    private int[] fadingXs = new int[16];
+    private long[] fadingYs = new long[16];
+    private Sprite[] fadingImages = new Sprite[16];
+    private int[] fadingFrames = new int[16];
+    private int fadingCount;
+
+    private final CollisionMatrix RESPONSES = new CollisionMatrix();
+    private Taxi taxi;  // the taxi of the current collide
+
+    /**
+     * Constructs the system with the other car and enemy car settings of the game configuration.
+     * @param world The world the cars are in.
+     * @param motion The system moving the cars, which picks their speeds.
+     * @param config The game configuration.
+     * @param carRng Random number stream for the type, lane, entry point and speed of the other cars.
+     * @param enemyCarRng Random number stream for the lane, entry point and speed of the enemy cars.
+     */
+    public TrafficSystem(EntityWorld world, MotionSystem motion, GameConfig config, GameRng carRng,
+                         GameRng enemyCarRng) {
+        this.WORLD = world;
+        this.MOTION = motion;
+        this.WINDOW_HEIGHT = config.getWindowHeight();
+        this.MAX_FRAMES = config.getGamePlay().getTrafficMaxFrames();
+        addKind(new TrafficKind(GameObjectType.CAR, config.getOtherCar(), AssetCache.getImage(config.getSmokeImage()),
+                carRng, new LogSite("Car.destroyed", 250), "car destroyed at y %.0f"));
+        addKind(new TrafficKind(GameObjectType.ENEMY_CAR, config.getEnemyCar(),
+                AssetCache.getImage(config.getFireImage()), enemyCarRng, new LogSite("EnemyCar.destroyed", 250),
+                "enemy car destroyed at y %.0f"));
+
+        // two objects can only collide when they are closer than the sum of their radii, so a cell of that size
+        // guarantees every collision between two cars is found in the neighbouring cells. The taxi is not in the
+        // grid, it is tested against every car in a batch
+        float maxRadius = Math.max(config.getOtherCar().getRadius(), config.getEnemyCar().getRadius());
+        this.GRID = new SpatialGrid((int) Math.ceil(2 * maxRadius));
+
+        // other cars and enemy cars drive through each other, and enemy cars through each other
+        RESPONSES.register(GameObjectType.CAR, GameObjectType.TAXI, (car, taxiIndex) -> collideCarWithTaxi(car, taxi));
+        RESPONSES.register(GameObjectType.ENEMY_CAR, GameObjectType.TAXI,
+                (enemyCar, taxiIndex) -> collideEnemyCarWithTaxi(enemyCar, taxi));
+        RESPONSES.register(GameObjectType.CAR, GameObjectType.CAR, this::collideCars);
+    }
+
+    private void addKind(TrafficKind kind) {
+        KINDS[kind.TYPE.ordinal()] = kind;
+        MOTION.setSpeedRange(kind.TYPE, kind.RANDOM, kind.MIN_SPEED_Y, kind.MAX_SPEED_Y);
+    }
+
+    /**
+     * Spawn a car with a random type, lane, entry point and speed, and full health.
+     * @param type CAR or ENEMY_CAR.
+     * @return The entity number of the car.
+     */
+    public long spawn(GameObjectType type) {
+        TrafficKind kind = KINDS[type.ordinal()];
+        int i = WORLD.create(type);
+        // the random choices are made in the same order as when every car was an object
+        Sprite image = type == GameObjectType.CAR
+                ? kind.TYPE_IMAGES[kind.RANDOM.nextInt(kind.TYPE_IMAGES.length)] : kind.TYPE_IMAGES[0];
+        WORLD.addHealth(i, kind.MAX_HEALTH);
+        WORLD.addVelocity(i, MOTION.rollSpeed(type));
+        int x = kind.RANDOM.pick(LANES);
+        WORLD.addPosition(i, x, kind.RANDOM.pick(SPAWN_Y), false);
+        WORLD.addSprite(i, image, RenderLayer.VEHICLES);
+        WORLD.addCollider(i, kind.RADIUS);
+        WORLD.addTimer(i, 0);
+
+        kind.count++;
+        kind.spawnedCount++;
+        if (kind.count > kind.highWaterMark) {
+            kind.highWaterMark = kind.count;
+        }
+        return WORLD.entityAt(i);
+    }
+
+    /**
+     * Remove every car that is destroyed, has fully left the screen or has outlived its time to live. The effect of a
+     * removed car keeps showing until it runs out, so a car destroyed in the tick before is not removed unseen.
+     * @return The number of cars removed.
+     */
+    public int cull() {
+        int removed = 0;
+        for (int i = 0; i < WORLD.size(); i++) {
+            TrafficKind kind = KINDS[WORLD.getKind(i).ordinal()];
+            if (kind != null && shouldDespawn(i)) {
+                if (WORLD.getEffectFrames(i) > 0) {
+                    addFadingEffect(WORLD.getX(i), WORLD.getY(i), kind.EFFECT_IMAGE, WORLD.getEffectFrames(i));
+                }
+                WORLD.setFlag(i, EntityWorld.REMOVED);
+                kind.count--;
+                kind.despawnedCount++;
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            WORLD.compact();
+        }
+        return removed;
+    }
+
+    private void addFadingEffect(int x, long y, Sprite image, int frames) {
+        if (fadingCount == fadingFrames.length) {
+            int capacity = fadingCount * 2;
+            fadingXs = Arrays.copyOf(fadingXs, capacity);
+            fadingYs = Arrays.copyOf(fadingYs, capacity);
+            fadingImages = Arrays.copyOf(fadingImages, capacity);
+            fadingFrames = Arrays.copyOf(fadingFrames, capacity);
+        }
+        fadingXs[fadingCount] = x;
+        fadingYs[fadingCount] = y;
+        fadingImages[fadingCount] = image;
+        fadingFrames[fadingCount] = frames;
+        fadingCount++;
+    }
+
+    /**
+     * Count down the smoke and fire of the cars by one tick, including those of the cars already removed.
+     */
+    public void updateEffects() {
+        for (int i = 0; i < WORLD.size(); i++) {
+            if (KINDS[WORLD.getKind(i).ordinal()] != null && WORLD.getEffectFrames(i) > 0) {
+                WORLD.setEffectFrames(i, WORLD.getEffectFrames(i) - 1);
+            }
+        }
+
+        // drop the effects that have run out, keeping the order of the rest
+        int kept = 0;
+        for (int f = 0; f < fadingCount; f++) {
+            if (fadingFrames[f] > 1) {
+                fadingXs[kept] = fadingXs[f];
+                fadingYs[kept] = fadingYs[f];
+                fadingImages[kept] = fadingImages[f];
+                fadingFrames[kept] = fadingFrames[f] - 1;
+                kept++;
+            }
+        }
+        Arrays.fill(fadingImages, kept, fadingCount, null);
+        fadingCount = kept;
+    }
+
+    private boolean shouldDespawn(int i) {
+        if (WORLD.hasFlag(i, EntityWorld.DESTROYED)) {
+            return true;
+        }
+        // the car is off-screen once its whole radius has passed the top or bottom of the window
+        float radius = WORLD.getRadius(i);
+        long y = WORLD.getY(i);
+        if (y + radius < 0 || y - radius > WINDOW_HEIGHT) {
+            return true;
+        }
+        return WORLD.getFrame() - WORLD.getCreatedFrame(i) > MAX_FRAMES;
+    }
+
+    /**
+     * Handle the collisions between the traffic and the taxi, and between the other cars. Other cars and enemy cars
+     * drive through each other. Every car is tested against the taxi in one batch; only the cars that can hit another
+     * car go into the broadphase, so enemy cars, which only hit the taxi, and entities without a collision response,
+     * like the coins, are left out of it.
+     * @param taxi The taxi.
+     */
+    public void collide(Taxi taxi) {
+        this.taxi = taxi;
+        // Register everything that can collide, so only nearby pairs reach the narrow-phase checks
+        int size = WORLD.size();
+        if (gridEntries.length < size) {
+            gridEntries = new int[Math.max(size, gridEntries.length * 2)];
+            batchOfEntry = new int[gridEntries.length];
+            entryIndices = new int[gridEntries.length];
+            entryTypes = new int[gridEntries.length];
+            entryXs = new float[gridEntries.length];
+            entryYs = new float[gridEntries.length];
+            entryRadii = new float[gridEntries.length];
+            taxiHits = new int[gridEntries.length];
+        }
+        int taxiType = GameObjectType.TAXI.ordinal();
+        int carMask = ~(1 << taxiType);  // the types a car can hit other than the taxi
+        int batchCount = 0;
+        GRID.clear();
+        for (int i = 0; i < size; i++) {
+            gridEntries[i] = -1;
+            int type = WORLD.getKind(i).ordinal();
+            int layerMask = RESPONSES.getLayerMask(type);
+            if (layerMask == 0) {
+                continue;
+            }
+            int batch = batchCount++;
+            entryIndices[batch] = i;
+            entryTypes[batch] = type;
+            entryXs[batch] = WORLD.getX(i);
+            entryYs[batch] = WORLD.getY(i);
+            entryRadii[batch] = WORLD.getRadius(i);
+            if ((layerMask & carMask) != 0) {
+                int entry = GRID.insert(WORLD.getX(i), (int) WORLD.getY(i));
+                gridEntries[i] = entry;
+                batchOfEntry[entry] = batch;
+            }
+        }
+
+        // the taxi against every car in one batch; the response checks the pair again, since an earlier collision
+        // may have knocked the taxi back
+        int hitCount = CircleOverlap.touching(taxi.getX(), taxi.getY(), taxi.getRadius(), entryXs, entryYs,
+                entryRadii, batchCount, taxiHits);
+        int pairTests = batchCount;
+        for (int h = 0; h < hitCount; h++) {
+            int batch = taxiHits[h];
+            if (RESPONSES.canCollide(entryTypes[batch], taxiType)) {
+                RESPONSES.resolve(entryTypes[batch], entryIndices[batch], taxiType, TAXI_INDEX);
+            }
+        }
+
+        // every pair of cars is found from both of its cars; it is resolved from the one registered first
+        for (int i = 0; i < size; i++) {
+            int entry = gridEntries[i];
+            if (entry < 0) {
+                continue;
+            }
+            int type = entryTypes[batchOfEntry[entry]];
+            int neighbourCount = GRID.query(WORLD.getX(i), (int) WORLD.getY(i), entry);
+            for (int n = 0; n < neighbourCount; n++) {
+                int other = GRID.getNeighbour(n);
+                int otherType = entryTypes[batchOfEntry[other]];
+                if (other < entry || !RESPONSES.canCollide(type, otherType)) {
+                    continue;
+                }
+                pairTests++;
+                RESPONSES.resolve(type, i, otherType, entryIndices[batchOfEntry[other]]);
+            }
+        }
+
+        // the brute-force loops tested every car against the taxi, every other car and every enemy car,
+        // and every enemy car against the taxi
+        int cars = getCount(GameObjectType.CAR);
+        int enemyCars = getCount(GameObjectType.ENEMY_CAR);
+        pairTestsSaved = cars * (cars - 1) + cars * enemyCars + cars + enemyCars - pairTests;
+    }
+
+    /**
+     * Handle a collision between a car and the taxi, for the code that works with cars as objects.
+     * @param i The index of the car.
+     * @param taxi The taxi.
+     */
+    public void collideWithTaxi(int i, Taxi taxi) {
+        if (WORLD.getKind(i) == GameObjectType.ENEMY_CAR) {
+            collideEnemyCarWithTaxi(i, taxi);
+        } else {
+            collideCarWithTaxi(i, taxi);
+        }
+    }
+
+    /**
+     * An other car hits the taxi whenever they touch, and smokes.
+     */
+    private void collideCarWithTaxi(int i, Taxi taxi) {
+        if (!isTouchingTaxi(i, taxi)) {
+            return;
+        }
+        takeDamage(i, taxi.getDamage() * 100);
+        WORLD.setEffectFrames(i, SMOKE_RENDER_TIMEOUT_FRAMES);
+        taxi.takeDamage(KINDS[GameObjectType.CAR.ordinal()].DAMAGE_POINTS * 100);
+        knockback(i, taxi);
+    }
+
+    /**
+     * An enemy car only hits the taxi again once its collision timeout has run out.
+     */
+    private void collideEnemyCarWithTaxi(int i, Taxi taxi) {
+        if (WORLD.hasFlag(i, EntityWorld.DESTROYED) || WORLD.getTimer(i) > 0 || !isTouchingTaxi(i, taxi)) {
+            return;
+        }
+        takeDamage(i, taxi.getDamage());
+        WORLD.setTimer(i, COLLISION_TIMEOUT);
+        taxi.takeDamage(KINDS[GameObjectType.ENEMY_CAR.ordinal()].DAMAGE_POINTS * 100);
+        knockback(i, taxi);
+    }
+
+    private boolean isTouchingTaxi(int i, Taxi taxi) {
+        return !taxi.isDestroyed() && CircleOverlap.isWithin(WORLD.getX(i), WORLD.getY(i), taxi.getX(), taxi.getY(),
+                WORLD.getRadius(i) + taxi.getRadius());
+    }
+
+    // push the car and the taxi apart
+    private void knockback(int i, Taxi taxi) {
+        int knockback = WORLD.getY(i) < taxi.getY() ? -KNOCKBACK_DISTANCE : KNOCKBACK_DISTANCE;
+        WORLD.setY(i, WORLD.getY(i) + knockback);
+        taxi.setY(taxi.getY() - knockback);
+    }
+
+    // the pair is resolved once, so a destroyed car is hit by the other one instead of hitting it
+    private void collideCars(int i, int j) {
+        if (WORLD.hasFlag(i, EntityWorld.DESTROYED)) {
+            collideWithEachOther(j, i);
+        } else {
+            collideWithEachOther(i, j);
+        }
+    }
+
+    /**
+     * Handle a collision between two other cars.
+     * @param i The index of the car.
+     * @param j The index of the car it may have hit.
+     */
+    public void collideWithEachOther(int i, int j) {
+        if (WORLD.hasFlag(i, EntityWorld.DESTROYED) || WORLD.getTimer(i) > 0 || WORLD.getTimer(j) > 0) {
+            return;
+        }
+        TrafficKind kind = KINDS[WORLD.getKind(i).ordinal()];
+        float reach = kind.RADIUS + WORLD.getRadius(j);
+        if (CircleOverlap.distanceSquared(WORLD.getX(i), WORLD.getY(i), WORLD.getX(j), WORLD.getY(j))
+                >= (double) reach * reach) {
+            return;
+        }
+
+        takeDamage(i, getDamage(WORLD.getKind(j)));
+        takeDamage(j, kind.DAMAGE_POINTS * 100);
+        WORLD.setTimer(i, COLLISION_TIMEOUT);
+        WORLD.setTimer(j, COLLISION_TIMEOUT);
+
+        int knockback = WORLD.getY(i) < WORLD.getY(j) ? -KNOCKBACK_DISTANCE : KNOCKBACK_DISTANCE;
+        WORLD.setY(i, WORLD.getY(i) + knockback);
+        WORLD.setY(j, WORLD.getY(j) - knockback);
+    }
+
+    /**
+     * Reduce the health of a car, destroying it when the health runs out.
+     * @param i The index of the car.
+     * @param damage The damage to subtract from its health.
+     */
+    public void takeDamage(int i, float damage) {
+        float health = WORLD.getHealth(i) - damage;
+        WORLD.setHealth(i, health);
+        if (health <= 0) {
+            if (!WORLD.hasFlag(i, EntityWorld.DESTROYED)) {
+                TrafficKind kind = KINDS[WORLD.getKind(i).ordinal()];
+                GameLog.debug(kind.DESTROYED_LOG, kind.DESTROYED_MESSAGE, WORLD.getY(i));
+            }
+            WORLD.setFlag(i, EntityWorld.DESTROYED);
+            // an enemy car burns once destroyed; an other car only smokes, when it hits the taxi
+            if (WORLD.getKind(i) == GameObjectType.ENEMY_CAR) {
+                WORLD.setEffectFrames(i, FIRE_RENDER_TIMEOUT_FRAMES);
+            }
+        }
+    }
+
+    /**
+     * Submit the smoke of every other car that has hit the taxi, and the fire of every enemy car that has been
+     * destroyed, to the render queue, for as long as they last. Drawing changes nothing, the effects are counted down
+     * by updateEffects.
+     * @param queue The render queue of the frame.
+     */
+    public void drawEffects(RenderQueue queue) {
+        for (int i = 0; i < WORLD.size(); i++) {
+            TrafficKind kind = KINDS[WORLD.getKind(i).ordinal()];
+            if (kind != null && WORLD.getEffectFrames(i) > 0) {
+                kind.EFFECT_IMAGE.submit(queue, WORLD.getX(i), WORLD.getY(i), RenderLayer.EFFECTS);
+            }
+        }
+        for (int f = 0; f < fadingCount; f++) {
+            fadingImages[f].submit(queue, fadingXs[f], fadingYs[f], RenderLayer.EFFECTS);
+        }
+    }
+
+    /**
+     * Get the damage a car of a kind inflicts on another car it hits.
+     * @param type CAR or ENEMY_CAR.
+     * @return The damage points of an other car, or a hundred times those of an enemy car.
+     */
+    public float getDamage(GameObjectType type) {
+        TrafficKind kind = KINDS[type.ordinal()];
+        return type == GameObjectType.CAR ? kind.DAMAGE_POINTS : kind.DAMAGE_POINTS * 100;
+    }
+
+    /**
+     * Get a handle on a car, for the code that works with cars as objects.
+     * @param entity The entity number of the car.
+     * @return A Car for an other car, or an EnemyCar for an enemy car.
+     */
+    public Collidable getHandle(long entity) {
+        return WORLD.getKind(WORLD.indexOf(entity)) == GameObjectType.CAR
+                ? new Car(this, entity) : new EnemyCar(this, entity);
+    }
+
+    /**
+     * Get the world the cars are in.
+     * @return The world.
+     */
+    public EntityWorld getWorld() {
+        return WORLD;
+    }
+
+    /**
+     * Get the number of cars of a kind in play.
+     * @param type CAR or ENEMY_CAR.
+     * @return The number of cars.
+     */
+    public int getCount(GameObjectType type) {
+        return KINDS[type.ordinal()].count;
+    }
+
+    /**
+     * Get the total number of cars of a kind spawned.
+     * @param type CAR or ENEMY_CAR.
+     * @return The number of spawned cars.
+     */
+    public long getSpawnedCount(GameObjectType type) {
+        return KINDS[type.ordinal()].spawnedCount;
+    }
+
+    /**
+     * Get the total number of cars of a kind removed.
+     * @param type CAR or ENEMY_CAR.
+     * @return The number of despawned cars.
+     */
+    public long getDespawnedCount(GameObjectType type) {
+        return KINDS[type.ordinal()].despawnedCount;
+    }
+
+    /**
+     * Get the largest number of cars of a kind that have been in play at the same time.
+     * @param type CAR or ENEMY_CAR.
+     * @return The high-water mark of the traffic.
+     */
+    public int getHighWaterMark(GameObjectType type) {
+        return KINDS[type.ordinal()].highWaterMark;
+    }
+
+    /**
+     * Get the number of collision pair tests the broadphase grid skipped in the last collide, compared to testing
+     * every car against every other car, enemy car and the taxi.
+     * @return The number of pair tests saved.
+     */
+    public int getPairTestsSaved() {
+        return pairTestsSaved;
+    }
+
+    /**
+     * The settings and counts of one kind of traffic.
+     */
+    private static class TrafficKind {
+        private final GameObjectType TYPE;
+        private final GameRng RANDOM;
+        private final Sprite[] TYPE_IMAGES;  // one shared image per car type
+        private final Sprite EFFECT_IMAGE;  // the smoke of an other car, or the fire of an enemy car
+        private final LogSite DESTROYED_LOG;
+        private final String DESTROYED_MESSAGE;
+        private final float RADIUS;
+        private final float DAMAGE_POINTS;
+        private final float MAX_HEALTH;
+        private final int MIN_SPEED_Y;
+        private final int MAX_SPEED_Y;
+
+        private int count;
+        private long spawnedCount;
+        private long despawnedCount;
+        private int highWaterMark;
+
+        private TrafficKind(GameObjectType type, GameConfig.CarConfig car, Sprite effectImage, GameRng rng,
+                            LogSite destroyedLog, String destroyedMessage) {
+            this.TYPE = type;
+            this.RANDOM = rng;
+            this.TYPE_IMAGES = new Sprite[car.getTypeCount()];
+            for (int i = 0; i < TYPE_IMAGES.length; i++) {
+                TYPE_IMAGES[i] = AssetCache.getImage(car.getImage(i));
+            }
+            this.EFFECT_IMAGE = effectImage;
+            this.DESTROYED_LOG = destroyedLog;
+            this.DESTROYED_MESSAGE = destroyedMessage;
+            this.RADIUS = car.getRadius();
+            this.DAMAGE_POINTS = car.getDamage();
+            this.MAX_HEALTH = car.getHealth();
+            this.MIN_SPEED_Y = car.getMinSpeedY();
+            this.MAX_SPEED_Y = car.getMaxSpeedY();
+        }
+    }
+}
@@ -1,5 +1,3 @@
-import java.util.Properties;
-
 /**
  * A class representing a travel plan, which has all the details of priority, coin power,
  * end location and expected fee calculation.
@@ -8,19 +6,19 @@ public class TravelPlan {
 
     private final int END_X;
     private final int DISTANCE_Y;
-    private final Properties PROPS;
+    private final GameConfig.TripConfig RATES;
 
-    private int endY;
+    private long endY;  // in world coordinates
     private int currentPriority;
     private int initPriority;
     private boolean coinPowerApplied;
 
-    public TravelPlan(int endX, int distanceY, int priority, Properties props) {
+    public TravelPlan(int endX, int distanceY, int priority, GameConfig.TripConfig rates) {
         this.END_X = endX;
         this.DISTANCE_Y = distanceY;
         this.currentPriority = priority;
         this.initPriority = priority;
-        this.PROPS = props;
+        this.RATES = rates;
     }
 
     public int getEndX() {
@@ -39,11 +37,15 @@ public class TravelPlan {
         return DISTANCE_Y;
     }
 
-    public int getEndY() {
+    public long getEndY() {
         return endY;
     }
 
-    public void setStartY(int startY) {
+    /**
+     * Set where the trip starts, which places the end of the trip the distance of the trip further up the level.
+     * @param startY The world y-coordinate the passenger got in the taxi at.
+     */
+    public void setStartY(long startY) {
         this.endY = startY - DISTANCE_Y;
     }
 
@@ -68,10 +70,8 @@ public class TravelPlan {
      * @return The expected fee of the trip.
      */
     public float getExpectedFee() {
-        float ratePerY = Float.parseFloat(PROPS.getProperty("trip.rate.perY"));
-        float travelPlanDistanceFee = ratePerY * DISTANCE_Y;
-        float travelPlanPriorityFee = currentPriority * Float.parseFloat(
-                PROPS.getProperty(String.format("trip.rate.priority%d", currentPriority)));
+        float travelPlanDistanceFee = RATES.getRatePerY() * DISTANCE_Y;
+        float travelPlanPriorityFee = currentPriority * RATES.getPriorityRate(currentPriority);
 
         return travelPlanDistanceFee + travelPlanPriorityFee;
     }
@@ -1,7 +1,5 @@
 import bagel.Font;
 
-import java.util.Properties;
-
 /**
  * A class representing the trip in the game play.
  * It contains the passenger, driver, taxi, trip end flag and other relevant details.
@@ -9,7 +7,7 @@ import java.util.Properties;
  */
 public class Trip {
     private final Passenger PASSENGER;
-    private final Properties PROPS;
+    private final float PENALTY_PER_Y;
     private final TripEndFlag TRIP_END_FLAG;
     private final Taxi TAXI;
 
@@ -17,13 +15,13 @@ public class Trip {
     private float fee;
     private float penalty;
 
-    public Trip(Passenger passenger, Taxi taxi, Properties props) {
+    public Trip(Passenger passenger, Taxi taxi, GameConfig config, Camera camera) {
         this.PASSENGER = passenger;
         this.TAXI = taxi;
         this.TRIP_END_FLAG = new TripEndFlag(passenger.getTravelPlan().getEndX(),
                                               passenger.getTravelPlan().getEndY(),
-                                              props);
-        this.PROPS = props;
+                                              config, camera);
+        this.PENALTY_PER_Y = config.getTrip().getPenaltyPerY();
     }
 
 //    public float getHealth() {
@@ -89,13 +87,14 @@ public class Trip {
     }
 
     /**
-     * End the trip (update relevant status) and calculate the fee.
+     * End the trip (update relevant status), calculate the fee and record it in the earnings of the taxi.
      */
     public void end() {
         isComplete = true;
         PASSENGER.setIsGetInTaxi(null);
         TAXI.setTrip(null);
         calculateFee();
+        TAXI.getEarnings().record(this);
     }
 
     /**
@@ -106,7 +105,7 @@ public class Trip {
 
         // If the passenger has passed the drop-off point, a penalty will be applied to the fee.
         if (hasPassedDropOff()) {
-            float penalty = Float.parseFloat(PROPS.getProperty("trip.penalty.perY")) *
+            float penalty = PENALTY_PER_Y *
                     (TRIP_END_FLAG.getY() - PASSENGER.getY());
             initialFee -= penalty;
             this.penalty = penalty;
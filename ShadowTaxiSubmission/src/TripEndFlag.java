@@ -1,31 +1,24 @@
-import bagel.Image;
-import bagel.Input;
-import bagel.Keys;
-
-import java.util.Properties;
-
 /**
  * A class representing the trip end flag in the game play.
- * Objects of this class will only move up and down based on the keyboard input. No other functionalities needed.
+ * Objects of this class stay where they are in the level and are scrolled by the camera. No other functionalities
+ * needed.
  */
 public class TripEndFlag {
 
-    private final Image IMAGE;
-    private final int SPEED_Y;
+    private final Sprite IMAGE;
     private final float RADIUS;
+    private final Camera CAMERA;
 
     private int x;
-    private int y;
-    private int moveY;
+    private final long WORLD_Y;
 
-    public TripEndFlag(int x, int y, Properties props) {
+    public TripEndFlag(int x, long worldY, GameConfig config, Camera camera) {
         this.x = x;
-        this.y = y;
-        this.moveY = 0;
+        this.WORLD_Y = worldY;
+        this.CAMERA = camera;
 
-        this.SPEED_Y = Integer.parseInt(props.getProperty("gameObjects.taxi.speedY"));
-        this.RADIUS = Float.parseFloat(props.getProperty("gameObjects.tripEndFlag.radius"));
-        this.IMAGE = new Image(props.getProperty("gameObjects.tripEndFlag.image"));
+        this.RADIUS = config.getTripEndFlag().getRadius();
+        this.IMAGE = AssetCache.getImage(config.getTripEndFlag().getImage());
     }
 
     public int getX() {
@@ -33,49 +26,23 @@ public class TripEndFlag {
     }
 
     public int getY() {
-        return y;
+        return CAMERA.toScreenY(WORLD_Y);
     }
 
-    public float getRadius() {
-        return RADIUS;
-    }
-
-    /**
-     * Move the object in y direction according to the keyboard input, and render the trip flag image.
-     * @param input The current mouse/keyboard input.
-     */
-    public void update(Input input) {
-        if(input != null) {
-            adjustToInputMovement(input);
-        }
-
-        move();
-        draw();
+    public long getWorldY() {
+        return WORLD_Y;
     }
 
-    /**
-     * Move the GameObject object in the y-direction based on the speedY attribute.
-     */
-    public void move() {
-        this.y += SPEED_Y * moveY;
-    }
-
-    /**
-     * Draw the GameObject object into the screen.
-     */
-    public void draw() {
-        IMAGE.draw(x, y);
+    public float getRadius() {
+        return RADIUS;
     }
 
     /**
-     * Adjust the movement direction in y-axis of the GameObject based on the keyboard input.
-     * @param input The current mouse/keyboard input.
+     * Submit the trip flag image to the render queue.
+     * @param queue The render queue of the frame.
+     * @param alpha The fraction of the next tick that has passed, to interpolate the scrolling with.
      */
-    public void adjustToInputMovement(Input input) {
-        if (input.wasPressed(Keys.UP)) {
-            moveY = 1;
-        }  else if(input.wasReleased(Keys.UP)) {
-            moveY = 0;
-        }
+    public void draw(RenderQueue queue, double alpha) {
+        IMAGE.submit(queue, x, CAMERA.toScreenY(WORLD_Y, WORLD_Y, alpha), RenderLayer.GROUND);
     }
 }
@@ -0,0 +1,56 @@
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The batch test of CircleOverlap.touching written with the incubating JDK Vector API, testing as many circles at once
+ * as the CPU has float lanes. It gives the same hits in the same order.
+ * The jdk.incubator.vector module has to be added on the command line both to compile and to run it, so the game only
+ * calls it through CircleOverlap.touching, which checks that the module is there first.
+ */
+public class VectorCircleOverlap {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    /**
+     * Find the circles of a batch that touch a circle.
+     * @param x The x-coordinate of the centre of the circle.
+     * @param y The y-coordinate of the centre of the circle.
+     * @param radius The radius of the circle.
+     * @param xs The x-coordinates of the centres of the batch.
+     * @param ys The y-coordinates of the centres of the batch.
+     * @param radii The radii of the batch.
+     * @param count The number of circles in the batch.
+     * @param hits Filled with the positions in the batch of the circles that touch, in order. Must hold count ints.
+     * @return The number of circles that touch.
+     */
+    public static int touching(float x, float y, float radius, float[] xs, float[] ys, float[] radii, int count,
+                               int[] hits) {
+        FloatVector centreX = FloatVector.broadcast(SPECIES, x);
+        FloatVector centreY = FloatVector.broadcast(SPECIES, y);
+        FloatVector centreRadius = FloatVector.broadcast(SPECIES, radius);
+        int hitCount = 0;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(count); i < bound; i += SPECIES.length()) {
+            FloatVector dx = FloatVector.fromArray(SPECIES, xs, i).sub(centreX);
+            FloatVector dy = FloatVector.fromArray(SPECIES, ys, i).sub(centreY);
+            FloatVector reach = FloatVector.fromArray(SPECIES, radii, i).add(centreRadius);
+            VectorMask<Float> touching = dx.mul(dx).add(dy.mul(dy)).compare(VectorOperators.LE, reach.mul(reach));
+            // write the positions of the lanes that touch, lowest first
+            for (long lanes = touching.toLong(); lanes != 0; lanes &= lanes - 1) {
+                hits[hitCount++] = i + Long.numberOfTrailingZeros(lanes);
+            }
+        }
+        // the circles left over after the last full vector
+        for (; i < count; i++) {
+            float dx = xs[i] - x;
+            float dy = ys[i] - y;
+            float reach = radii[i] + radius;
+            if (dx * dx + dy * dy <= reach * reach) {
+                hits[hitCount++] = i;
+            }
+        }
+        return hitCount;
+    }
+}
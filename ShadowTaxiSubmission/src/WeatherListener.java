@@ -0,0 +1,15 @@
+/**
+ * The WeatherListener interface is implemented by anything that reacts to the weather changing, e.g. the background
+ * switching to its rainy image. Listeners are called once per change instead of checking the weather every frame.
+ */
+public interface WeatherListener {
+
+    /**
+     * Called when the weather changes.
+     *
+     * @param previous The weather before the change, or null if this is the first weather of the session.
+     * @param current The weather after the change.
+     * @param frame The frame the change happens in.
+     */
+    void onWeatherChanged(WeatherType previous, WeatherType current, int frame);
+}
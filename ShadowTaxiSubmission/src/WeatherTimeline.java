@@ -0,0 +1,173 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The weather of a session over time, as a list of weather spells sorted by the frame they start in.
+ * The timeline is advanced once per frame and keeps a cursor on the spell the frame falls in. Frames only move
+ * forwards, so the cursor only moves forwards too, and finding the weather of a frame costs O(1) amortised however
+ * long the schedule is. A frame outside every spell keeps the weather of the spell before it.
+ * Instead of checking the weather every frame, other parts of the game subscribe a listener that is called when it
+ * changes, e.g. when the rain starts or stops.
+ * After the last spell of the schedule the timeline can go on with randomly generated spells, for sessions without a
+ * frame limit.
+ */
+public class WeatherTimeline {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private WeatherType[] types = new WeatherType[INITIAL_CAPACITY];
+    private int[] startFrames = new int[INITIAL_CAPACITY];
+    private int[] endFrames = new int[INITIAL_CAPACITY];
+    private int size;
+    private int cursor;
+    private int lastFrame = Integer.MIN_VALUE;
+
+    private WeatherType weather;
+    private final ArrayList<WeatherListener> LISTENERS = new ArrayList<>();
+
+    // generates the spells after the end of the schedule, if set
+    private GameRng generator;
+    private int minSpellFrames;
+    private int maxSpellFrames;
+
+    /**
+     * Read a weather schedule from a weather file. Each line is a weather type followed by the frames the spell starts
+     * and ends in, both inclusive. The lines do not need to be in order.
+     * @param filename The name of the weather file.
+     * @return The timeline of the schedule.
+     */
+    public static WeatherTimeline load(String filename) {
+        ArrayList<String[]> lines = IOUtils.readCommaSeperatedFile(filename);
+        // a stable sort keeps the file order of spells starting in the same frame, so the first one still wins
+        lines.sort((a, b) -> Integer.compare(Integer.parseInt(a[1].trim()), Integer.parseInt(b[1].trim())));
+
+        WeatherTimeline timeline = new WeatherTimeline();
+        for (String[] line : lines) {
+            timeline.add(WeatherType.parse(line[0]), Integer.parseInt(line[1].trim()),
+                    Integer.parseInt(line[2].trim()));
+        }
+        return timeline;
+    }
+
+    /**
+     * Add a spell to the end of the schedule.
+     * @param type The weather of the spell.
+     * @param startFrame The frame the spell starts in.
+     * @param endFrame The frame the spell ends in, inclusive.
+     * @throws IllegalArgumentException If the spell ends before it starts, or starts before the last spell.
+     */
+    public void add(WeatherType type, int startFrame, int endFrame) {
+        if (endFrame < startFrame) {
+            throw new IllegalArgumentException("Weather spell ends before it starts: " + startFrame + "-" + endFrame);
+        }
+        if (size > 0 && startFrame < startFrames[size - 1]) {
+            throw new IllegalArgumentException("Weather spell starts before the last spell: " + startFrame);
+        }
+        if (size == types.length) {
+            grow();
+        }
+        types[size] = type;
+        startFrames[size] = startFrame;
+        endFrames[size] = endFrame;
+        size++;
+    }
+
+    /**
+     * Go on with random spells once the schedule runs out. The spells alternate between sunny and raining, each
+     * lasting a random number of frames.
+     * @param rng The stream to draw the spell lengths from.
+     * @param minSpellFrames The least number of frames a spell lasts.
+     * @param maxSpellFrames The most number of frames a spell lasts.
+     */
+    public void generateAfterSchedule(GameRng rng, int minSpellFrames, int maxSpellFrames) {
+        this.generator = rng;
+        this.minSpellFrames = minSpellFrames;
+        this.maxSpellFrames = maxSpellFrames;
+    }
+
+    /**
+     * Subscribe a listener to the weather changes.
+     * @param listener The listener to call when the weather changes.
+     */
+    public void addListener(WeatherListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Move the timeline to a frame, calling the listeners if the weather changes.
+     * @param frame The current frame.
+     * @return The weather in the frame, or null if no spell has started yet.
+     */
+    public WeatherType update(int frame) {
+        if (frame < lastFrame) {
+            cursor = 0;
+        }
+        lastFrame = frame;
+
+        while (generator != null && (size == 0 || endFrames[size - 1] < frame)) {
+            generateSpell();
+        }
+        while (cursor < size && endFrames[cursor] < frame) {
+            cursor++;
+        }
+
+        WeatherType previous = weather;
+        if (cursor < size && startFrames[cursor] <= frame) {
+            weather = types[cursor];
+        } else if (cursor > 0) {
+            weather = types[cursor - 1];
+        }
+        if (weather != previous) {
+            for (WeatherListener listener : LISTENERS) {
+                listener.onWeatherChanged(previous, weather, frame);
+            }
+        }
+        return weather;
+    }
+
+    /**
+     * Get the weather of the frame the timeline was last moved to.
+     * @return The current weather, or null if no spell has started yet.
+     */
+    public WeatherType getWeather() {
+        return weather;
+    }
+
+    public boolean isRaining() {
+        return weather == WeatherType.RAINING;
+    }
+
+    /**
+     * Get the number of spells held by the timeline. Generated spells that have passed are dropped, so this stays
+     * bounded in a session without a frame limit.
+     * @return The number of spells.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void generateSpell() {
+        int startFrame = size == 0 ? 0 : endFrames[size - 1];
+        WeatherType type = size == 0 || types[size - 1] == WeatherType.RAINING ? WeatherType.SUNNY : WeatherType.RAINING;
+        add(type, startFrame, startFrame + generator.nextInt(minSpellFrames, maxSpellFrames + 1));
+    }
+
+    // the spells before the cursor have passed, so make room by dropping them before growing the arrays;
+    // the spell just before the cursor is kept for the frames in a gap after it
+    private void grow() {
+        int passed = cursor - 1;
+        if (passed >= types.length / 2) {
+            System.arraycopy(types, passed, types, 0, size - passed);
+            System.arraycopy(startFrames, passed, startFrames, 0, size - passed);
+            System.arraycopy(endFrames, passed, endFrames, 0, size - passed);
+            Arrays.fill(types, size - passed, size, null);
+            size -= passed;
+            cursor -= passed;
+            return;
+        }
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        startFrames = Arrays.copyOf(startFrames, capacity);
+        endFrames = Arrays.copyOf(endFrames, capacity);
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * WeatherType is an enum class that contains the kinds of weather in the weather file.
+ */
+public enum WeatherType {
+    SUNNY,
+    RAINING;
+
+    /**
+     * Get the weather type named in the weather file. RAINY is accepted as another name for RAINING.
+     * @param name The name of the weather type.
+     * @return The weather type.
+     * @throws IllegalArgumentException If the name is not a weather type.
+     */
+    public static WeatherType parse(String name) {
+        String trimmed = name.trim();
+        if (trimmed.equals("RAINY")) {
+            return RAINING;
+        }
+        return valueOf(trimmed);
+    }
+}